@@ -0,0 +1,413 @@
+import java.util.Arrays;
+
+/**
+ * This class searches for the fewest pegs that can be left, giving the best
+ * answer found so far whenever it is asked, for positions where an exact
+ * search (see PegSolver) would take too long.
+ *
+ * The search deepens in rounds, but by how far a line strays from the move
+ * order rather than by how many jumps it has: taking the k-th jump in order
+ * costs k, and round n follows every whole game whose costs add up to at
+ * most n. Round 0 is the one greedy game, and later rounds try more and
+ * more of the alternatives, the likely ones first. Every line ends a game,
+ * and the best of them is kept with its jumps. A round that never had to
+ * skip a jump has searched everything, so its answer is proven.
+ *
+ * Jumps are tried in order of the position they lead to: fewest lone pegs
+ * first (pegs with no neighbour to jump with or over), then jumps that were
+ * best most often before (history). Ordering by distance from the center or
+ * by the number of jumps left open was also tried and found worse lines in
+ * the same time, so neither is used. A trained pattern table (see
+ * PatternTable) can take the place of the lone peg count.
+ * Positions whose best finish is known exactly are remembered by canonical
+ * form and skipped when they cannot beat the best so far.
+ *
+ * The search stops at the time budget, when stop() is called from another
+ * thread, or when it proves its answer. getBest() may be called from any
+ * thread at any time, and progress can be followed while it runs (see
+ * SearchProgress), with the share done taken from the time budget.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class AnytimeSearch {
+	/** Nodes between looks at the clock */
+	private static final int CHECK_EVERY = 4096;
+
+	/** Result of a subtree whose best finish is not known exactly */
+	private static final int INEXACT = Integer.MAX_VALUE;
+
+	/** Bits of the first and last columns */
+	private static final long FIRST_COLUMN, LAST_COLUMN;
+
+	static {
+		long first = 0;
+		for (int row = 0; row < PackedBoard.SIZE; row++)
+			first |= PackedBoard.bit(row, 0);
+		FIRST_COLUMN = first;
+		LAST_COLUMN = first << (PackedBoard.SIZE - 1);
+	}
+
+	private PositionCache finishes; // exact best finish of each canonical position
+	private PositionCache searched; // budget left when a position was searched this round
+	private int[] history = new int[PackedBoard.JUMP_COUNT]; // how often each jump was best
+	private byte[] line = new byte[64]; // jumps of the current search path
+	private long[][] moveBuffers = new long[64][PackedBoard.JUMP_COUNT]; // ordered jumps at each depth
+
+	private PatternTable patterns; // orders jumps instead of lone pegs, or null
+	private SearchProgress progress; // where progress is reported, or null
+	private volatile Result best; // best finish found so far
+	private volatile boolean stopped; // set to end the search early
+	private long started; // System.nanoTime() when the search started
+	private long deadline; // System.nanoTime() to stop at
+	private int floor; // no finish can have fewer pegs than this
+
+	// Work counted in plain fields and added to EngineMetrics at the end
+	private long nodes;
+	private long hits;
+	private long misses;
+	private long[] prunes = new long[EngineMetrics.Prune.values().length];
+
+	/**
+	 * Constructs a search with caches of its own.
+	 */
+	public AnytimeSearch() {
+		this(new PositionCache());
+	}
+
+	/**
+	 * Constructs a search that shares a cache of best finishes, such as
+	 * PegSolver.getFinishes(). It is only read and written with exact values.
+	 *
+	 * @param finishes the cache of best finishes
+	 */
+	public AnytimeSearch(PositionCache finishes) {
+		this.finishes = finishes;
+		this.searched = new PositionCache(1);
+	}
+
+	/**
+	 * Searches the standard start and prints the best line found.
+	 *
+	 * Usage: AnytimeSearch [milliseconds] [-progress]
+	 *
+	 * @param args command line arguments
+	 */
+	public static void main(String[] args) {
+		long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+		AnytimeSearch search = new AnytimeSearch();
+		Result result;
+		try (SearchProgress progress = args.length > 1 && args[1].equals("-progress") ? new SearchProgress("anytime")
+				: null) {
+			if (progress != null) {
+				progress.subscribe(SearchProgress.printer(System.err));
+				search.setProgress(progress);
+			}
+			result = search.search(PackedBoard.START, millis);
+		}
+		System.out.println(result);
+		for (int ply = 0; ply < result.getLine().length; ply++)
+			System.out.println((ply + 1) + ": " + PackedBoard.jumpToString(result.getLine()[ply] & 0xFF));
+	}
+
+	/**
+	 * Sets a pattern table to order jumps by: the position predicted to
+	 * leave the fewest pegs first, instead of the one with fewest lone pegs.
+	 *
+	 * @param patterns the trained table, or null for lone pegs
+	 */
+	public void setPatterns(PatternTable patterns) {
+		this.patterns = patterns;
+	}
+
+	/**
+	 * Sets where the progress of each search is reported.
+	 *
+	 * @param progress the publisher, or null for none
+	 */
+	public void setProgress(SearchProgress progress) {
+		this.progress = progress;
+	}
+
+	/**
+	 * Searches a board for the fewest pegs that can be left.
+	 *
+	 * @param board  the board
+	 * @param millis the time budget in milliseconds
+	 * @return the best finish found, with its jumps
+	 */
+	public Result search(PegBoard board, long millis) {
+		return this.search(PackedBoard.pack(board), millis);
+	}
+
+	/**
+	 * Searches a position for the fewest pegs that can be left.
+	 *
+	 * @param board  the packed position
+	 * @param millis the time budget in milliseconds
+	 * @return the best finish found, with its jumps
+	 */
+	public Result search(long board, long millis) {
+		long started = System.nanoTime();
+		this.started = started;
+		this.deadline = started + millis * 1_000_000;
+		this.stopped = false;
+		this.floor = PegSolver.fewestPossible(board);
+		this.nodes = 0;
+		this.hits = 0;
+		this.misses = 0;
+		Arrays.fill(this.prunes, 0);
+		if (this.progress != null)
+			this.progress.start();
+
+		// Until a round ends a game, doing nothing is the best known
+		this.best = new Result(PackedBoard.pegCount(board), new byte[0], false, -1);
+		for (int budget = 0; !this.isOver(); budget++) {
+			this.searched.clear();
+			int exact = this.searchFrom(board, 0, budget);
+			if (this.stopped)
+				break;
+			this.best = this.best.withRound(budget);
+			if (exact != INEXACT) {
+				// Nothing was cut off, so the best line is the best there is
+				this.best = this.best.proven();
+				break;
+			}
+		}
+		if (this.best.getPegs() <= this.floor)
+			this.best = this.best.proven();
+		if (this.progress != null)
+			this.progress.finish(this.nodes, this.best.getPegs());
+
+		EngineMetrics.recordSearch("anytime", started, this.nodes, this.hits, this.misses, this.prunes, null,
+				this.best.getPegs());
+		return this.best;
+	}
+
+	/**
+	 * Asks a running search to stop. It returns its best answer soon after.
+	 */
+	public void stop() {
+		this.stopped = true;
+	}
+
+	/** @return the best finish found so far, from any thread */
+	public Result getBest() {
+		return this.best;
+	}
+
+	/**
+	 * Determines if the search should end: the time is up, it was stopped,
+	 * or the best finish cannot be beaten.
+	 *
+	 * @return true if the search should end
+	 */
+	private boolean isOver() {
+		long now = System.nanoTime();
+		if (this.best.getPegs() <= this.floor || now >= this.deadline)
+			this.stopped = true;
+		else if (this.progress != null)
+			this.progress.report(this.nodes, this.best.getPegs(),
+					(now - this.started) / (double) (this.deadline - this.started));
+		return this.stopped;
+	}
+
+	/**
+	 * Searches the lines below a position that stay within a budget.
+	 *
+	 * @param board  the packed position
+	 * @param depth  the number of jumps made so far
+	 * @param budget how far the rest of the line may stray from the move order
+	 * @return the exact best finish below the position, or INEXACT
+	 */
+	private int searchFrom(long board, int depth, int budget) {
+		if (++this.nodes % CHECK_EVERY == 0)
+			this.isOver();
+		if (this.stopped)
+			return INEXACT;
+
+		long[] moves = this.moveBuffers[depth];
+		int count = this.orderMoves(board, moves);
+		if (count == 0) {
+			// A finished game
+			int pegs = PackedBoard.pegCount(board);
+			this.offer(pegs, depth);
+			return pegs;
+		}
+
+		// A known finish that cannot beat the best is not worth a look
+		long key = Symmetry.canonical(board);
+		int known = this.finishes.get(key);
+		if (known != PositionCache.MISSING) {
+			this.hits++;
+			if (known >= this.best.getPegs()) {
+				this.prunes[EngineMetrics.Prune.CACHE.ordinal()]++;
+				return known;
+			}
+		} else {
+			this.misses++;
+		}
+
+		// Already searched this round with at least this budget
+		int seen = this.searched.get(key);
+		if (seen != PositionCache.MISSING && seen >= budget) {
+			this.prunes[EngineMetrics.Prune.CACHE.ordinal()]++;
+			return INEXACT;
+		}
+
+		int bestFinish = Integer.MAX_VALUE;
+		int bestJump = -1;
+		boolean exact = true;
+		for (int i = 0; i < count && !this.stopped; i++) {
+			if (i > budget) {
+				// The rest of the jumps wait for a later round
+				exact = false;
+				break;
+			}
+			int jump = (int) moves[i] & 0xFF;
+			this.line[depth] = (byte) jump;
+			int finish = this.searchFrom(PackedBoard.apply(board, jump), depth + 1, budget - i);
+			if (finish == INEXACT) {
+				exact = false;
+			} else if (finish < bestFinish) {
+				bestFinish = finish;
+				bestJump = jump;
+			}
+			if (this.best.getPegs() <= this.floor) {
+				this.prunes[EngineMetrics.Prune.CUTOFF.ordinal()]++;
+				break;
+			}
+		}
+
+		if (bestJump >= 0)
+			this.history[bestJump]++;
+		if (this.stopped)
+			return INEXACT;
+		if (!exact) {
+			// Remember the budget this position was searched with this round
+			this.searched.put(key, Math.min(budget, 127));
+			return INEXACT;
+		}
+		this.finishes.put(key, bestFinish);
+		return bestFinish;
+	}
+
+	/**
+	 * Keeps a finished line if it beats the best so far.
+	 *
+	 * @param pegs  the pegs left at the end of the line
+	 * @param depth the length of the line
+	 */
+	private void offer(int pegs, int depth) {
+		if (pegs < this.best.getPegs())
+			this.best = new Result(pegs, Arrays.copyOf(this.line, depth), false, this.best.getRound());
+	}
+
+	/**
+	 * Lists the legal jumps of a position, best first. Each entry holds the
+	 * score in the high bits and the jump number in the low byte.
+	 *
+	 * @param board the packed position
+	 * @param moves where the jumps are stored
+	 * @return the number of jumps
+	 */
+	private int orderMoves(long board, long[] moves) {
+		int count = 0;
+		for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++) {
+			if (PackedBoard.isLegal(board, jump)) {
+				long entry = this.score(PackedBoard.apply(board, jump), jump) << 8 | jump;
+				// Insertion sort; there are rarely more than a dozen jumps
+				int i = count++;
+				while (i > 0 && moves[i - 1] > entry) {
+					moves[i] = moves[i - 1];
+					i--;
+				}
+				moves[i] = entry;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Scores the position a jump leads to; lower is tried first.
+	 *
+	 * @param next the packed position after the jump
+	 * @param jump the jump number
+	 * @return the score, not negative
+	 */
+	private long score(long next, int jump) {
+		long recent = Math.min(this.history[jump], (1 << 24) - 1);
+		if (this.patterns != null) {
+			// Predictions are a few pegs; sixteenths of a peg are fine enough to order by
+			long predicted = Math.max(0, Math.round(this.patterns.evaluate(next) * 16));
+			return predicted << 24 | (1 << 24) - 1 - recent;
+		}
+		long neighbours = (next << 1 & ~FIRST_COLUMN) | (next >>> 1 & ~LAST_COLUMN) | next << PackedBoard.SIZE
+				| next >>> PackedBoard.SIZE;
+		int lone = Long.bitCount(next & ~neighbours);
+		return (long) lone << 24 | (1 << 24) - 1 - recent;
+	}
+
+	/**
+	 * The best finish a search has found.
+	 */
+	public static class Result {
+		private int pegs; // pegs left at the end of the line
+		private byte[] line; // the jumps that leave them
+		private boolean proven; // true if no line leaves fewer
+		private int round; // last round completed
+
+		/**
+		 * Constructs a result.
+		 *
+		 * @param pegs   the pegs left
+		 * @param line   the jumps that leave them
+		 * @param proven true if no line leaves fewer
+		 * @param round  the last round completed
+		 */
+		Result(int pegs, byte[] line, boolean proven, int round) {
+			this.pegs = pegs;
+			this.line = line;
+			this.proven = proven;
+			this.round = round;
+		}
+
+		/** @return the pegs left at the end of the line */
+		public int getPegs() {
+			return this.pegs;
+		}
+
+		/** @return the jump numbers of the line */
+		public byte[] getLine() {
+			return this.line.clone();
+		}
+
+		/** @return true if no line can leave fewer pegs */
+		public boolean isProven() {
+			return this.proven;
+		}
+
+		/** @return the last round the search completed, -1 if none */
+		public int getRound() {
+			return this.round;
+		}
+
+		Result proven() {
+			return new Result(this.pegs, this.line, true, this.round);
+		}
+
+		Result withRound(int round) {
+			return new Result(this.pegs, this.line, this.proven, round);
+		}
+
+		/**
+		 * Returns the result in the form "2 pegs in 29 jumps (round 5)".
+		 *
+		 * @return string representation of the result
+		 */
+		public String toString() {
+			return this.pegs + (this.pegs == 1 ? " peg" : " pegs") + " in " + this.line.length + " jumps (round "
+					+ this.round + (this.proven ? ", proven" : "") + ")";
+		}
+	}
+}
@@ -0,0 +1,339 @@
+import java.util.Random;
+
+/**
+ * This class computes simple facts about many packed boards at once: peg
+ * counts, move counts and whether any move is left.
+ *
+ * Instead of trying the 76 jumps one at a time, each board is shifted as a
+ * whole: a peg with a peg beside it and a hole beyond, in one direction, is
+ * found for every location with three shifts and two ANDs, and the legal
+ * jumps in that direction are the bits left after masking with the places
+ * such a jump can start. Four directions give every jump.
+ *
+ * The batch methods run on one of two kernels. When the JVM was started
+ * with --add-modules jdk.incubator.vector and BoardBatchVector (in the
+ * vector directory, compiled with the same flag; see headless.sh) is on the
+ * class path, the boards are done a vector of lanes at a time with the
+ * Vector API. Otherwise, or with -Dpegsolitaire.vector=false, plain loops
+ * do one board at a time. Move counts use the plain loop in both kernels,
+ * since it was the faster of the two.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public final class BoardBatch {
+	/** Bits where a jump right and a jump down can start */
+	static final long RIGHT_FROM, DOWN_FROM;
+
+	/** Bits where a jump left and a jump up can land */
+	static final long LEFT_TO, UP_TO;
+
+	static {
+		long right = 0, down = 0, left = 0, up = 0;
+		for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++) {
+			int step = PackedBoard.over(jump) - PackedBoard.from(jump);
+			if (step == 1)
+				right |= 1L << PackedBoard.from(jump);
+			else if (step == PackedBoard.SIZE)
+				down |= 1L << PackedBoard.from(jump);
+			else if (step == -1)
+				left |= 1L << PackedBoard.to(jump);
+			else
+				up |= 1L << PackedBoard.to(jump);
+		}
+		RIGHT_FROM = right;
+		DOWN_FROM = down;
+		LEFT_TO = left;
+		UP_TO = up;
+	}
+
+	/** The kernel of plain loops */
+	static final Kernel SCALAR = new Scalar();
+
+	/** The kernel the batch methods use */
+	private static final Kernel KERNEL = chooseKernel();
+
+	/* no instances */
+	private BoardBatch() {
+	}
+
+	/**
+	 * Compares the batch methods with the one-board-at-a-time methods on
+	 * random positions and prints the speed of each.
+	 *
+	 * Usage: BoardBatch [boards] [rounds]
+	 *
+	 * @param args command line arguments
+	 */
+	public static void main(String[] args) {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 16;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+		// Random positions reached by playing from the start
+		Random random = new Random(1);
+		long[] boards = new long[size];
+		for (int i = 0; i < size; i++) {
+			long board = PackedBoard.START;
+			int plies = random.nextInt(30);
+			for (int ply = 0; ply < plies; ply++) {
+				int jump = random.nextInt(PackedBoard.JUMP_COUNT);
+				for (int tries = 0; tries < PackedBoard.JUMP_COUNT && !PackedBoard.isLegal(board, jump); tries++)
+					jump = (jump + 1) % PackedBoard.JUMP_COUNT;
+				if (PackedBoard.isLegal(board, jump))
+					board = PackedBoard.apply(board, jump);
+			}
+			boards[i] = board;
+		}
+
+		int[] moves = new int[size];
+		boolean[] open = new boolean[size];
+		int[] pegs = new int[size];
+		for (int i = 0; i < size; i++)
+			if (moveCount(boards[i]) != slowMoveCount(boards[i]))
+				throw new IllegalStateException("Move counts differ on " + Long.toHexString(boards[i]));
+		check(boards, size);
+		System.out.println("Batch kernel: " + KERNEL);
+
+		// Run each twice, so the second runs are after the JIT has compiled them
+		for (int pass = 0; pass < 2; pass++) {
+			long started = System.nanoTime();
+			for (int round = 0; round < rounds; round++)
+				for (int i = 0; i < size; i++)
+					moves[i] = slowMoveCount(boards[i]);
+			report("moveCount, one jump at a time", started, size, rounds, pass);
+
+			started = System.nanoTime();
+			for (int round = 0; round < rounds; round++)
+				SCALAR.moveCounts(boards, moves, size);
+			report("moveCounts, batch", started, size, rounds, pass); // scalar in both kernels
+
+			started = System.nanoTime();
+			for (int round = 0; round < rounds; round++)
+				for (int i = 0; i < size; i++)
+					open[i] = PackedBoard.hasMove(boards[i]);
+			report("hasMove, one jump at a time", started, size, rounds, pass);
+
+			started = System.nanoTime();
+			for (int round = 0; round < rounds; round++)
+				SCALAR.hasMoves(boards, open, size);
+			report("hasMoves, scalar batch", started, size, rounds, pass);
+
+			if (KERNEL != SCALAR) {
+				started = System.nanoTime();
+				for (int round = 0; round < rounds; round++)
+					KERNEL.hasMoves(boards, open, size);
+				report("hasMoves, vector batch", started, size, rounds, pass);
+			}
+
+			started = System.nanoTime();
+			for (int round = 0; round < rounds; round++)
+				SCALAR.pegCounts(boards, pegs, size);
+			report("pegCounts, scalar batch", started, size, rounds, pass);
+
+			if (KERNEL != SCALAR) {
+				started = System.nanoTime();
+				for (int round = 0; round < rounds; round++)
+					KERNEL.pegCounts(boards, pegs, size);
+				report("pegCounts, vector batch", started, size, rounds, pass);
+			}
+		}
+	}
+
+	/**
+	 * Counts the pegs of many boards.
+	 *
+	 * @param boards the packed boards
+	 * @param pegs   where the counts are stored
+	 * @param count  the number of boards
+	 */
+	public static void pegCounts(long[] boards, int[] pegs, int count) {
+		KERNEL.pegCounts(boards, pegs, count);
+	}
+
+	/**
+	 * Counts the legal jumps of many boards.
+	 *
+	 * @param boards the packed boards
+	 * @param moves  where the counts are stored
+	 * @param count  the number of boards
+	 */
+	public static void moveCounts(long[] boards, int[] moves, int count) {
+		KERNEL.moveCounts(boards, moves, count);
+	}
+
+	/**
+	 * Determines for many boards if any jump can be made.
+	 *
+	 * @param boards the packed boards
+	 * @param open   where the answers are stored
+	 * @param count  the number of boards
+	 */
+	public static void hasMoves(long[] boards, boolean[] open, int count) {
+		KERNEL.hasMoves(boards, open, count);
+	}
+
+	/** @return true if the batch methods use the Vector API */
+	public static boolean isVectorized() {
+		return KERNEL != SCALAR;
+	}
+
+	/**
+	 * Counts the legal jumps of a board.
+	 *
+	 * @param board the packed board
+	 * @return the number of legal jumps
+	 */
+	public static int moveCount(long board) {
+		long holes = ~board & PackedBoard.VALID;
+		long pairsRight = board & board >>> 1; // a peg with a peg to its right
+		long pairsDown = board & board >>> PackedBoard.SIZE; // a peg with a peg below it
+		return Long.bitCount(pairsRight & holes >>> 2 & RIGHT_FROM)
+				+ Long.bitCount(holes & pairsRight >>> 1 & LEFT_TO)
+				+ Long.bitCount(pairsDown & holes >>> 2 * PackedBoard.SIZE & DOWN_FROM)
+				+ Long.bitCount(holes & pairsDown >>> PackedBoard.SIZE & UP_TO);
+	}
+
+	/**
+	 * Returns a board whose bits are set where some jump starts or lands; it
+	 * is 0 exactly when no jump can be made.
+	 *
+	 * @param board the packed board
+	 * @return the bits, 0 if no jump is legal
+	 */
+	private static long moveBits(long board) {
+		long holes = ~board & PackedBoard.VALID;
+		long pairsRight = board & board >>> 1;
+		long pairsDown = board & board >>> PackedBoard.SIZE;
+		return pairsRight & holes >>> 2 & RIGHT_FROM | holes & pairsRight >>> 1 & LEFT_TO
+				| pairsDown & holes >>> 2 * PackedBoard.SIZE & DOWN_FROM
+				| holes & pairsDown >>> PackedBoard.SIZE & UP_TO;
+	}
+
+	/**
+	 * Returns the Vector API kernel if it can be loaded, and the scalar one
+	 * otherwise.
+	 *
+	 * @return the kernel for the batch methods
+	 */
+	private static Kernel chooseKernel() {
+		if (!Boolean.parseBoolean(System.getProperty("pegsolitaire.vector", "true"))
+				|| ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+			return SCALAR;
+		try {
+			return (Kernel) Class.forName("BoardBatchVector").getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return SCALAR;
+		}
+	}
+
+	/**
+	 * Checks that the kernel in use gives the same answers as the scalar one.
+	 *
+	 * @param boards the packed boards
+	 * @param count  the number of boards
+	 */
+	private static void check(long[] boards, int count) {
+		int[] expected = new int[count], actual = new int[count];
+		boolean[] expectedOpen = new boolean[count], actualOpen = new boolean[count];
+		for (int n = count - 7; n <= count; n++) { // odd lengths test the tail loops
+			SCALAR.moveCounts(boards, expected, n);
+			KERNEL.moveCounts(boards, actual, n);
+			SCALAR.hasMoves(boards, expectedOpen, n);
+			KERNEL.hasMoves(boards, actualOpen, n);
+			for (int i = 0; i < n; i++)
+				if (expected[i] != actual[i] || expectedOpen[i] != actualOpen[i])
+					throw new IllegalStateException("Kernels differ on " + Long.toHexString(boards[i]));
+			SCALAR.pegCounts(boards, expected, n);
+			KERNEL.pegCounts(boards, actual, n);
+			for (int i = 0; i < n; i++)
+				if (expected[i] != actual[i])
+					throw new IllegalStateException("Peg counts differ on " + Long.toHexString(boards[i]));
+		}
+	}
+
+	/**
+	 * Counts the legal jumps of a board by trying each jump.
+	 *
+	 * @param board the packed board
+	 * @return the number of legal jumps
+	 */
+	private static int slowMoveCount(long board) {
+		int count = 0;
+		for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++)
+			if (PackedBoard.isLegal(board, jump))
+				count++;
+		return count;
+	}
+
+	/**
+	 * Prints the speed of one benchmark run, after the warm-up pass.
+	 *
+	 * @param name    what was run
+	 * @param started System.nanoTime() when it started
+	 * @param size    the number of boards
+	 * @param rounds  the number of times each board was done
+	 * @param pass    0 for the warm-up pass
+	 */
+	private static void report(String name, long started, int size, int rounds, int pass) {
+		if (pass > 0)
+			System.out.printf("%-30s %7.1f million boards per second%n", name,
+					(double) size * rounds / ((System.nanoTime() - started) / 1e3));
+	}
+
+	/**
+	 * The loops behind the batch methods.
+	 */
+	interface Kernel {
+		/**
+		 * Counts the pegs of many boards.
+		 *
+		 * @param boards the packed boards
+		 * @param pegs   where the counts are stored
+		 * @param count  the number of boards
+		 */
+		void pegCounts(long[] boards, int[] pegs, int count);
+
+		/**
+		 * Counts the legal jumps of many boards.
+		 *
+		 * @param boards the packed boards
+		 * @param moves  where the counts are stored
+		 * @param count  the number of boards
+		 */
+		void moveCounts(long[] boards, int[] moves, int count);
+
+		/**
+		 * Determines for many boards if any jump can be made.
+		 *
+		 * @param boards the packed boards
+		 * @param open   where the answers are stored
+		 * @param count  the number of boards
+		 */
+		void hasMoves(long[] boards, boolean[] open, int count);
+	}
+
+	/**
+	 * The kernel of plain loops, one board at a time.
+	 */
+	private static class Scalar implements Kernel {
+		public void pegCounts(long[] boards, int[] pegs, int count) {
+			for (int i = 0; i < count; i++)
+				pegs[i] = Long.bitCount(boards[i]);
+		}
+
+		public void moveCounts(long[] boards, int[] moves, int count) {
+			for (int i = 0; i < count; i++)
+				moves[i] = moveCount(boards[i]);
+		}
+
+		public void hasMoves(long[] boards, boolean[] open, int count) {
+			for (int i = 0; i < count; i++)
+				open[i] = moveBits(boards[i]) != 0;
+		}
+
+		/** @return the name of the kernel */
+		public String toString() {
+			return "scalar";
+		}
+	}
+}
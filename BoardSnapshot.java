@@ -0,0 +1,182 @@
+import java.util.Arrays;
+
+/**
+ * This class is a position of a game that never changes: the rules, the
+ * packed board, the start it came from and the jumps that led to it. Making
+ * a jump gives a new snapshot and leaves the old one as it was. Jumps are
+ * numbered by the rules (see JumpRules), which for the standard game are
+ * PackedBoard's numbers.
+ *
+ * Every field is final and the jump array is never written after it is
+ * made, so a snapshot can be handed to any thread without locks or copies;
+ * PegSolitaire publishes one after every jump for that reason.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public final class BoardSnapshot {
+	/** The standard start, before any jump */
+	public static final BoardSnapshot START = new BoardSnapshot(JumpRules.ENGLISH, PackedBoard.START,
+			PackedBoard.START, new byte[0]);
+
+	private final JumpRules rules; // the jumps the game allows
+	private final long start; // the packed start position
+	private final long board; // the packed current position
+	private final byte[] moves; // the jump numbers made so far, never changed
+
+	/**
+	 * Constructs a snapshot. The array must not be changed afterwards.
+	 *
+	 * @param rules the jumps the game allows
+	 * @param start the packed start position
+	 * @param board the packed current position
+	 * @param moves the jump numbers that lead from start to board
+	 */
+	private BoardSnapshot(JumpRules rules, long start, long board, byte[] moves) {
+		this.rules = rules;
+		this.start = start;
+		this.board = board;
+		this.moves = moves;
+	}
+
+	/**
+	 * Returns a snapshot of a position with no jumps made yet.
+	 *
+	 * @param board the packed position
+	 * @return the snapshot
+	 * @throws IllegalArgumentException if the position has pegs off the board
+	 */
+	public static BoardSnapshot of(long board) {
+		return of(JumpRules.ENGLISH, board);
+	}
+
+	/**
+	 * Returns a snapshot of a position of some rules with no jumps made yet.
+	 *
+	 * @param rules the jumps the game allows
+	 * @param board the packed position
+	 * @return the snapshot
+	 * @throws IllegalArgumentException if the position has pegs off the board
+	 */
+	public static BoardSnapshot of(JumpRules rules, long board) {
+		if ((board & ~rules.getValid()) != 0)
+			throw new IllegalArgumentException("Position has pegs off the board: " + Long.toHexString(board));
+		if (rules == JumpRules.ENGLISH && board == PackedBoard.START)
+			return START;
+		return new BoardSnapshot(rules, board, board, new byte[0]);
+	}
+
+	/**
+	 * Returns a snapshot of a recorded game after all its jumps.
+	 *
+	 * @param record the game
+	 * @return the snapshot
+	 * @throws IllegalArgumentException if the start has pegs off the board or
+	 *                                  a jump of the game is not legal
+	 */
+	public static BoardSnapshot of(GameRecord record) {
+		BoardSnapshot snapshot = of(record.getStart());
+		for (byte move : record.getMoves())
+			snapshot = snapshot.withJump(move & 0xFF);
+		return snapshot;
+	}
+
+	/**
+	 * Returns the snapshot after one more jump.
+	 *
+	 * @param jump the jump number
+	 * @return the new snapshot
+	 * @throws IllegalArgumentException if the jump is not legal here
+	 */
+	public BoardSnapshot withJump(int jump) {
+		if (jump < 0 || jump >= this.rules.getJumpCount() || !this.rules.isLegal(this.board, jump))
+			throw new IllegalArgumentException("Jump " + jump + " is not legal after " + this.moves.length + " jumps");
+		byte[] moves = Arrays.copyOf(this.moves, this.moves.length + 1);
+		moves[this.moves.length] = (byte) jump;
+		return new BoardSnapshot(this.rules, this.start, this.rules.apply(this.board, jump), moves);
+	}
+
+	/** @return the jumps the game allows */
+	public JumpRules getRules() {
+		return this.rules;
+	}
+
+	/** @return the packed current position */
+	public long getBoard() {
+		return this.board;
+	}
+
+	/** @return the packed start position */
+	public long getStart() {
+		return this.start;
+	}
+
+	/** @return the number of jumps made so far */
+	public int getMoveCount() {
+		return this.moves.length;
+	}
+
+	/** @return the number of pegs left */
+	public int pegCount() {
+		return PackedBoard.pegCount(this.board);
+	}
+
+	/** @return true if at least one jump can be made */
+	public boolean hasMove() {
+		return this.rules.hasMove(this.board);
+	}
+
+	/**
+	 * Determines if there is a peg at a location.
+	 *
+	 * @param row the row of the location
+	 * @param col the column of the location
+	 * @return true if there is a peg there; false otherwise
+	 */
+	public boolean isPeg(int row, int col) {
+		return row >= 0 && row < PackedBoard.SIZE && col >= 0 && col < PackedBoard.SIZE
+				&& (this.board & PackedBoard.bit(row, col)) != 0;
+	}
+
+	/** @return a new PegBoard of the current position, for code that needs one */
+	public PegBoard toPegBoard() {
+		return new PegBoard(this.rules.getValid(), this.board);
+	}
+
+	/**
+	 * Returns a record of the game so far.
+	 *
+	 * @return the record
+	 * @throws IllegalStateException if the game is not of the standard rules,
+	 *                               which is the only shape records hold
+	 */
+	public GameRecord toRecord() {
+		if (this.rules != JumpRules.ENGLISH)
+			throw new IllegalStateException("Only games of the standard rules can be recorded, not " + this.rules);
+		return new GameRecord(GameRecord.ENGLISH, this.start, this.moves, this.moves.length);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof BoardSnapshot))
+			return false;
+		BoardSnapshot that = (BoardSnapshot) other;
+		return this.rules == that.rules && this.board == that.board && this.start == that.start && Arrays.equals(this.moves, that.moves);
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(this.board) * 31 + Arrays.hashCode(this.moves);
+	}
+
+	/**
+	 * Returns the snapshot in the form "17 pegs after 15 jumps".
+	 *
+	 * @return string representation of the snapshot
+	 */
+	public String toString() {
+		int pegs = this.pegCount();
+		return pegs + (pegs == 1 ? " peg" : " pegs") + " after " + this.moves.length
+				+ (this.moves.length == 1 ? " jump" : " jumps");
+	}
+}
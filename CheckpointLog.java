@@ -0,0 +1,342 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32C;
+
+/**
+ * This class saves the progress of a long search so it can be resumed after
+ * a crash. A memoized search is fully described by its table: every subtree
+ * it finished is an entry, and running it again over the restored table
+ * answers those subtrees at once and does only the unfinished work again.
+ * The same table gives the same answers, so a resumed search gets the same
+ * results.
+ *
+ * Entries are never changed once stored, so the file is a log: a header
+ * naming the search, then blocks of new entries. Each block has its own
+ * CRC32C checksum. On resume, blocks are read until the first one that is
+ * cut short or fails its checksum, and the file is cut back to there.
+ *
+ * The search thread only copies each entry into a buffer. Full buffers, and
+ * the partly filled one every interval, are written and forced to disk by a
+ * writer thread; the search only waits if the disk falls several blocks
+ * behind.
+ *
+ * A log is written by one thread at a time.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class CheckpointLog implements AutoCloseable {
+	/** First bytes of a checkpoint file: "PK" */
+	private static final short MAGIC = 0x504B;
+
+	/** Version of the file format */
+	private static final byte VERSION = 1;
+
+	/** Bytes of the file header: magic, version, kind, start, target */
+	private static final int HEADER_BYTES = 16;
+
+	/** Entries in one full block */
+	private static final int BLOCK_ENTRIES = 1 << 15;
+
+	/** Bytes of one entry: key, low and high longs */
+	private static final int ENTRY_BYTES = 24;
+
+	/** Bytes of a block around its entries: count before, checksum after */
+	private static final int BLOCK_OVERHEAD = 8;
+
+	/** Buffers shared by the search and the writer */
+	private static final int BUFFERS = 4;
+
+	/** Entries stored between looks at the clock */
+	private static final int CHECK_EVERY = 1024;
+
+	/** An empty buffer that tells the writer to stop */
+	private static final ByteBuffer STOP = ByteBuffer.allocate(0);
+
+	/**
+	 * Receives the entries of a checkpoint when it is restored.
+	 */
+	public interface Restorer {
+		/**
+		 * Stores one entry.
+		 *
+		 * @param key  the key
+		 * @param low  the first value
+		 * @param high the second value
+		 */
+		void restore(long key, long low, long high);
+	}
+
+	private FileChannel channel; // the open file, positioned at its end
+	private BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<ByteBuffer>(BUFFERS); // empty buffers
+	private BlockingQueue<ByteBuffer> full = new ArrayBlockingQueue<ByteBuffer>(BUFFERS + 1); // buffers to write
+	private ByteBuffer current; // the buffer being filled by the search
+	private Thread writer; // writes full buffers
+	private volatile IOException failure; // the first error of the writer, if any
+
+	private long intervalNanos; // time between checkpoints
+	private long lastCheckpoint; // System.nanoTime() of the last checkpoint
+	private long restored; // entries read back on open
+	private long written; // entries handed to the writer
+
+	/**
+	 * Opens a checkpoint file, restoring what it holds, or creates it.
+	 *
+	 * @param path           the checkpoint file
+	 * @param kind           what sort of search it is, chosen by the caller
+	 * @param start          the packed start position of the search
+	 * @param target         the target hole of the search, or -1
+	 * @param intervalMillis the longest time between checkpoints
+	 * @param restorer       receives the entries already in the file
+	 * @return the log, ready for new entries
+	 * @throws IOException if the file cannot be used or belongs to another
+	 *                     search
+	 */
+	public static CheckpointLog open(Path path, byte kind, long start, int target, long intervalMillis,
+			Restorer restorer) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			header.putShort(MAGIC).put(VERSION).put(kind).putLong(start).putInt(target).flip();
+
+			long restored = 0;
+			if (channel.size() == 0) {
+				while (header.hasRemaining())
+					channel.write(header);
+			} else {
+				ByteBuffer found = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+				channel.read(found, 0);
+				found.flip();
+				if (!found.equals(header))
+					throw new IOException(path + " is a checkpoint of another search");
+				long[] count = new long[1];
+				long end = restore(channel, (key, low, high) -> {
+					count[0]++;
+					restorer.restore(key, low, high);
+				});
+				// Drop whatever a crash left half written
+				channel.truncate(end);
+				restored = count[0];
+			}
+			channel.position(channel.size());
+			return new CheckpointLog(channel, intervalMillis, restored);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Constructs a log on an open file and starts its writer.
+	 *
+	 * @param channel        the file, positioned at its end
+	 * @param intervalMillis the longest time between checkpoints
+	 * @param restored       entries read back from the file
+	 */
+	private CheckpointLog(FileChannel channel, long intervalMillis, long restored) {
+		this.channel = channel;
+		this.intervalNanos = intervalMillis * 1_000_000;
+		this.restored = restored;
+		this.lastCheckpoint = System.nanoTime();
+		for (int i = 0; i < BUFFERS; i++)
+			this.free.add(ByteBuffer.allocateDirect(BLOCK_OVERHEAD + BLOCK_ENTRIES * ENTRY_BYTES)
+					.order(ByteOrder.LITTLE_ENDIAN));
+		this.current = this.newBuffer();
+		this.writer = new Thread(this::writeBlocks, "checkpoint-writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	/**
+	 * Adds an entry to the next checkpoint.
+	 *
+	 * @param key  the key
+	 * @param low  the first value
+	 * @param high the second value
+	 * @throws UncheckedIOException if an earlier checkpoint could not be written
+	 */
+	public void record(long key, long low, long high) {
+		this.current.putLong(key).putLong(low).putLong(high);
+		this.written++;
+		// Keep room for the checksum
+		if (this.current.remaining() < ENTRY_BYTES + 4)
+			this.handOff();
+		else if (this.written % CHECK_EVERY == 0 && System.nanoTime() - this.lastCheckpoint >= this.intervalNanos)
+			this.handOff();
+	}
+
+	/**
+	 * Writes everything recorded so far and waits until it is on disk.
+	 *
+	 * @throws IOException if the checkpoint cannot be written
+	 */
+	public void checkpoint() throws IOException {
+		this.handOff();
+		// The writer has finished once every buffer is free again
+		try {
+			while (this.free.size() + 1 < BUFFERS && this.failure == null)
+				Thread.sleep(1);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (this.failure != null)
+			throw this.failure;
+	}
+
+	/** @return the number of entries read back when the log was opened */
+	public long getRestored() {
+		return this.restored;
+	}
+
+	/** @return the number of entries recorded since the log was opened */
+	public long getWritten() {
+		return this.written;
+	}
+
+	/**
+	 * Writes everything recorded so far and closes the file.
+	 *
+	 * @throws IOException if the last checkpoint cannot be written
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			try {
+				if (this.failure == null)
+					this.handOff();
+			} finally {
+				// Stop the writer even if the last buffer was not handed off; the
+				// queue has room for STOP beside every buffer, so add never waits
+				this.full.add(STOP);
+				this.writer.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			this.channel.close();
+		}
+		if (this.failure != null)
+			throw this.failure;
+	}
+
+	/**
+	 * Gives the buffer being filled to the writer and takes an empty one.
+	 */
+	private void handOff() {
+		if (this.failure != null)
+			throw new UncheckedIOException(this.failure);
+		this.lastCheckpoint = System.nanoTime();
+		if (this.current.position() == 4)
+			return;
+		try {
+			this.full.put(this.current);
+			this.current = this.newBuffer();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while saving a checkpoint", e);
+		}
+	}
+
+	/**
+	 * Takes an empty buffer, waiting for the writer if none is free.
+	 *
+	 * @return the buffer, with room left for the entry count
+	 */
+	private ByteBuffer newBuffer() {
+		try {
+			ByteBuffer buffer = this.free.take();
+			buffer.clear();
+			buffer.position(4);
+			return buffer;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while saving a checkpoint", e);
+		}
+	}
+
+	/**
+	 * Runs on the writer thread: seals each full buffer as a block, writes it
+	 * and forces it to disk.
+	 */
+	private void writeBlocks() {
+		CRC32C crc = new CRC32C();
+		while (true) {
+			ByteBuffer buffer;
+			try {
+				buffer = this.full.take();
+			} catch (InterruptedException e) {
+				return;
+			}
+			if (buffer == STOP)
+				return;
+			if (this.failure == null) {
+				try {
+					// Count first, entries, then the checksum of both
+					int entries = (buffer.position() - 4) / ENTRY_BYTES;
+					buffer.putInt(0, entries);
+					buffer.flip();
+					crc.reset();
+					crc.update(buffer.duplicate());
+					buffer.limit(buffer.limit() + 4);
+					buffer.putInt(buffer.limit() - 4, (int) crc.getValue());
+					while (buffer.hasRemaining())
+						this.channel.write(buffer);
+					this.channel.force(false);
+				} catch (IOException e) {
+					this.failure = e;
+				}
+			}
+			this.free.add(buffer);
+		}
+	}
+
+	/**
+	 * Reads back the blocks of a checkpoint file.
+	 *
+	 * @param channel  the file
+	 * @param restorer receives the entries
+	 * @return the end of the last good block
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long restore(FileChannel channel, Restorer restorer) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK_OVERHEAD + BLOCK_ENTRIES * ENTRY_BYTES)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		CRC32C crc = new CRC32C();
+		long position = HEADER_BYTES;
+		long size = channel.size();
+		while (position + BLOCK_OVERHEAD <= size) {
+			buffer.clear().limit(4);
+			channel.read(buffer, position);
+			int entries = buffer.getInt(0);
+			if (entries <= 0 || entries > BLOCK_ENTRIES)
+				break;
+			int length = 4 + entries * ENTRY_BYTES + 4;
+			if (position + length > size)
+				break;
+
+			buffer.clear().limit(length);
+			while (buffer.hasRemaining())
+				if (channel.read(buffer, position + buffer.position()) < 0)
+					break;
+			int checksum = buffer.getInt(length - 4);
+			buffer.flip().limit(length - 4);
+			crc.reset();
+			crc.update(buffer.duplicate());
+			if ((int) crc.getValue() != checksum)
+				break;
+
+			for (int at = 4; at < length - 4; at += ENTRY_BYTES)
+				restorer.restore(buffer.getLong(at), buffer.getLong(at + 8), buffer.getLong(at + 16));
+			position += length;
+		}
+		return position;
+	}
+}
@@ -0,0 +1,214 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class remembers a 128-bit count for each of many packed positions,
+ * for counting solutions (see SolutionCounter). Each slot is three longs:
+ * the key, then the low and high halves of the count.
+ *
+ * Slots live in chunks of CHUNK_SLOTS. By default the chunks are long arrays
+ * on the heap. Given a spill directory, they are instead mapped from a file
+ * in that directory, so the operating system can write pages out to disk
+ * when memory runs short and the table does not count against the heap.
+ * The file is deleted when the memo is closed.
+ *
+ * A memo is used by one thread at a time.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class CountMemo implements AutoCloseable {
+	/** log2 of the slots in one chunk */
+	private static final int CHUNK_BITS = 20;
+
+	/** Slots in one chunk */
+	private static final int CHUNK_SLOTS = 1 << CHUNK_BITS;
+
+	/** Longs in one slot: key, low half, high half */
+	private static final int SLOT_LONGS = 3;
+
+	private Path spillDirectory; // where the table file goes, or null for the heap
+	private Path file; // the current table file, or null
+	private LongBuffer[] chunks; // the slots
+	private long capacity; // number of slots, a power of two
+	private long size; // slots in use
+	private int generation; // number of the current table file
+
+	/**
+	 * Constructs a memo on the heap.
+	 */
+	public CountMemo() {
+		this(null);
+	}
+
+	/**
+	 * Constructs a memo that keeps its table in a file mapped into memory.
+	 *
+	 * @param spillDirectory the directory for the table file, or null to keep
+	 *                       the table on the heap
+	 */
+	public CountMemo(Path spillDirectory) {
+		this(spillDirectory, 0);
+	}
+
+	/**
+	 * Constructs a memo sized for a number of positions. Growing a table that
+	 * is kept in a file means writing all of it again, so a good guess up
+	 * front saves time when spilling.
+	 *
+	 * @param spillDirectory    the directory for the table file, or null to
+	 *                          keep the table on the heap
+	 * @param expectedPositions the number of positions expected, or 0
+	 */
+	public CountMemo(Path spillDirectory, long expectedPositions) {
+		this.spillDirectory = spillDirectory;
+		long slots = CHUNK_SLOTS;
+		while (slots < 2 * expectedPositions)
+			slots *= 2;
+		this.allocate(slots);
+	}
+
+	/**
+	 * Looks up the count of a position.
+	 *
+	 * @param key   the position key, not 0
+	 * @param count receives the low half in count[0] and the high half in
+	 *              count[1] if the position is found
+	 * @return true if the position was found
+	 */
+	public boolean get(long key, long[] count) {
+		long mask = this.capacity - 1;
+		for (long slot = PositionCache.mix(key) & mask;; slot = (slot + 1) & mask) {
+			LongBuffer chunk = this.chunks[(int) (slot >>> CHUNK_BITS)];
+			int at = (int) (slot & (CHUNK_SLOTS - 1)) * SLOT_LONGS;
+			long found = chunk.get(at);
+			if (found == key) {
+				count[0] = chunk.get(at + 1);
+				count[1] = chunk.get(at + 2);
+				return true;
+			}
+			if (found == 0)
+				return false;
+		}
+	}
+
+	/**
+	 * Stores the count of a position, replacing any count already stored.
+	 *
+	 * @param key  the position key, not 0
+	 * @param low  the low 64 bits of the count
+	 * @param high the high 64 bits of the count
+	 */
+	public void put(long key, long low, long high) {
+		// Grow when the table is half full
+		if (2 * (this.size + 1) > this.capacity)
+			this.grow();
+		long mask = this.capacity - 1;
+		for (long slot = PositionCache.mix(key) & mask;; slot = (slot + 1) & mask) {
+			LongBuffer chunk = this.chunks[(int) (slot >>> CHUNK_BITS)];
+			int at = (int) (slot & (CHUNK_SLOTS - 1)) * SLOT_LONGS;
+			long found = chunk.get(at);
+			if (found == key || found == 0) {
+				if (found == 0)
+					this.size++;
+				chunk.put(at, key);
+				chunk.put(at + 1, low);
+				chunk.put(at + 2, high);
+				return;
+			}
+		}
+	}
+
+	/** @return the number of positions stored */
+	public long size() {
+		return this.size;
+	}
+
+	/** @return the number of bytes the table takes, on the heap or in its file */
+	public long tableBytes() {
+		return this.capacity * SLOT_LONGS * Long.BYTES;
+	}
+
+	/**
+	 * Frees the table and deletes its file, if any.
+	 */
+	@Override
+	public void close() {
+		this.chunks = new LongBuffer[0];
+		this.capacity = 0;
+		this.size = 0;
+		this.deleteFile();
+	}
+
+	/**
+	 * Doubles the table and puts every position back in.
+	 */
+	private void grow() {
+		LongBuffer[] old = this.chunks;
+		Path oldFile = this.file;
+		this.allocate(this.capacity * 2);
+		for (LongBuffer chunk : old) {
+			for (int at = 0; at < CHUNK_SLOTS * SLOT_LONGS; at += SLOT_LONGS) {
+				long key = chunk.get(at);
+				if (key != 0)
+					this.put(key, chunk.get(at + 1), chunk.get(at + 2));
+			}
+		}
+		if (oldFile != null) {
+			try {
+				Files.deleteIfExists(oldFile);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Makes a new empty table, in a new file when spilling.
+	 *
+	 * @param slots the number of slots, a power of two of at least CHUNK_SLOTS
+	 */
+	private void allocate(long slots) {
+		this.chunks = new LongBuffer[(int) (slots >>> CHUNK_BITS)];
+		this.capacity = slots;
+		this.size = 0;
+		if (this.spillDirectory == null) {
+			for (int i = 0; i < this.chunks.length; i++)
+				this.chunks[i] = LongBuffer.wrap(new long[CHUNK_SLOTS * SLOT_LONGS]);
+			return;
+		}
+
+		// The mappings stay valid after the channel is closed
+		this.file = this.spillDirectory.resolve("count-memo-" + ProcessHandle.current().pid() + "-"
+				+ this.generation++ + ".bin");
+		long chunkBytes = (long) CHUNK_SLOTS * SLOT_LONGS * Long.BYTES;
+		try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			for (int i = 0; i < this.chunks.length; i++)
+				this.chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * chunkBytes, chunkBytes)
+						.order(ByteOrder.nativeOrder()).asLongBuffer();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot map " + this.file, e);
+		}
+	}
+
+	/**
+	 * Deletes the current table file, if any.
+	 */
+	private void deleteFile() {
+		if (this.file != null) {
+			try {
+				Files.deleteIfExists(this.file);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			this.file = null;
+		}
+	}
+}
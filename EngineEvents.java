@@ -0,0 +1,215 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * This class sends the numbers of EngineMetrics to JDK Flight Recorder: a
+ * SearchEvent for each search, and an EngineMetricsEvent every second while
+ * a recording is on. Loading the event classes starts up Flight Recorder,
+ * so EngineMetrics only uses this class once the JVM has a recorder.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+final class EngineEvents {
+	/* no instances */
+	private EngineEvents() {
+	}
+
+	/**
+	 * Registers the periodic event.
+	 */
+	static void register() {
+		FlightRecorder.addPeriodicEvent(EngineMetricsEvent.class, EngineEvents::emitPeriodic);
+	}
+
+	/**
+	 * Sends the event of one finished search, if it is being recorded.
+	 *
+	 * @param kind    what sort of search it was
+	 * @param nodes   positions visited
+	 * @param hits    positions found in the cache
+	 * @param misses  positions looked up and not found
+	 * @param prunes  prunes of every reason
+	 * @param result  the answer of the search
+	 * @param elapsed how long the search took, in nanoseconds
+	 */
+	static void search(String kind, long nodes, long hits, long misses, long prunes, int result, long elapsed) {
+		SearchEvent event = new SearchEvent();
+		if (event.shouldCommit()) {
+			event.kind = kind;
+			event.nodes = nodes;
+			event.cacheHits = hits;
+			event.cacheMisses = misses;
+			event.prunes = prunes;
+			event.result = result;
+			event.elapsedNanos = elapsed;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Sends the running totals to Flight Recorder.
+	 */
+	private static void emitPeriodic() {
+		EngineMetricsEvent event = new EngineMetricsEvent();
+		event.searches = EngineMetrics.searches();
+		event.nodes = EngineMetrics.nodes();
+		event.nodesPerSecond = EngineMetrics.nodesPerSecond();
+		event.cacheHitRate = EngineMetrics.cacheHitRate();
+		event.cachePrunes = EngineMetrics.prunes(EngineMetrics.Prune.CACHE);
+		event.classPrunes = EngineMetrics.prunes(EngineMetrics.Prune.CLASS);
+		event.pagodaPrunes = EngineMetrics.prunes(EngineMetrics.Prune.PAGODA);
+		event.cutoffPrunes = EngineMetrics.prunes(EngineMetrics.Prune.CUTOFF);
+		event.depths0To3 = depthRange(0, 3);
+		event.depths4To7 = depthRange(4, 7);
+		event.depths8To11 = depthRange(8, 11);
+		event.depths12To15 = depthRange(12, 15);
+		event.depths16To19 = depthRange(16, 19);
+		event.depths20To23 = depthRange(20, 23);
+		event.depths24To27 = depthRange(24, 27);
+		event.depths28To31 = depthRange(28, 31);
+		event.depths32To35 = depthRange(32, 35);
+		event.depths36To39 = depthRange(36, 39);
+		event.depths40To43 = depthRange(40, 43);
+		event.depths44To47 = depthRange(44, 47);
+		event.depths48Plus = EngineMetrics.depthCount(EngineMetrics.MAX_DEPTH);
+		event.openValidLocationsNanos = EngineMetrics.nanosPerCall(EngineMetrics.Call.OPEN_VALID_LOCATIONS);
+		event.hasValidMoveNanos = EngineMetrics.nanosPerCall(EngineMetrics.Call.HAS_VALID_MOVE);
+		event.playPegNanos = EngineMetrics.nanosPerCall(EngineMetrics.Call.PLAY_PEG);
+		event.commit();
+	}
+
+	/**
+	 * Returns how many positions were visited at a range of depths.
+	 *
+	 * @param first the first depth of the range
+	 * @param last  the last depth of the range
+	 * @return the number of positions
+	 */
+	private static long depthRange(int first, int last) {
+		long sum = 0;
+		for (int depth = first; depth <= last; depth++)
+			sum += EngineMetrics.depthCount(depth);
+		return sum;
+	}
+
+	/**
+	 * Flight Recorder event for one finished search.
+	 */
+	@Name("pegsolitaire.Search")
+	@Label("Peg Solitaire Search")
+	@Category("Peg Solitaire")
+	@StackTrace(false)
+	static class SearchEvent extends Event {
+		@Label("Kind")
+		String kind;
+
+		@Label("Nodes")
+		long nodes;
+
+		@Label("Cache Hits")
+		long cacheHits;
+
+		@Label("Cache Misses")
+		long cacheMisses;
+
+		@Label("Prunes")
+		long prunes;
+
+		@Label("Result")
+		@Description("Answer of the search, such as the best peg count")
+		int result;
+
+		@Label("Elapsed Nanoseconds")
+		long elapsedNanos;
+	}
+
+	/**
+	 * Flight Recorder event with the running totals, sent every second. The
+	 * depth histogram is given four depths to a field.
+	 */
+	@Name("pegsolitaire.EngineMetrics")
+	@Label("Peg Solitaire Engine Metrics")
+	@Category("Peg Solitaire")
+	@Period("1 s")
+	@StackTrace(false)
+	static class EngineMetricsEvent extends Event {
+		@Label("Searches")
+		long searches;
+
+		@Label("Nodes")
+		long nodes;
+
+		@Label("Nodes Per Second")
+		double nodesPerSecond;
+
+		@Label("Cache Hit Rate")
+		double cacheHitRate;
+
+		@Label("Cache Prunes")
+		long cachePrunes;
+
+		@Label("Class Prunes")
+		long classPrunes;
+
+		@Label("Pagoda Prunes")
+		long pagodaPrunes;
+
+		@Label("Cutoff Prunes")
+		long cutoffPrunes;
+
+		@Label("Depths 0-3")
+		long depths0To3;
+
+		@Label("Depths 4-7")
+		long depths4To7;
+
+		@Label("Depths 8-11")
+		long depths8To11;
+
+		@Label("Depths 12-15")
+		long depths12To15;
+
+		@Label("Depths 16-19")
+		long depths16To19;
+
+		@Label("Depths 20-23")
+		long depths20To23;
+
+		@Label("Depths 24-27")
+		long depths24To27;
+
+		@Label("Depths 28-31")
+		long depths28To31;
+
+		@Label("Depths 32-35")
+		long depths32To35;
+
+		@Label("Depths 36-39")
+		long depths36To39;
+
+		@Label("Depths 40-43")
+		long depths40To43;
+
+		@Label("Depths 44-47")
+		long depths44To47;
+
+		@Label("Depths 48+")
+		long depths48Plus;
+
+		@Label("openValidLocations ns")
+		double openValidLocationsNanos;
+
+		@Label("hasValidMove ns")
+		double hasValidMoveNanos;
+
+		@Label("playPeg ns")
+		double playPegNanos;
+	}
+}
@@ -0,0 +1,253 @@
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * This class counts the work done by the engine, for the whole JVM.
+ *
+ * Searches count nodes, cache hits and misses, prunes and depths in plain
+ * fields of their own and add them here once, when they finish, so leaving
+ * the metrics on costs nothing per node. The game methods openValidLocations,
+ * hasValidMove and playPeg add one count and one time per call.
+ *
+ * The same numbers are sent to JDK Flight Recorder (see EngineEvents): an
+ * event for each search, and the running totals every second. Setting up
+ * Flight Recorder takes a third of a second, so it is only done once the
+ * JVM has a recorder, started by -XX:StartFlightRecording or jcmd, which is
+ * checked at the end of each search, or when enable is called. The game
+ * methods never touch it. Set the system property
+ * pegsolitaire.metrics.dump=true to print a summary when the JVM exits.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public final class EngineMetrics {
+	/** Why a search stopped looking below a position */
+	public enum Prune {
+		/** The position, or a symmetric one, was already searched */
+		CACHE,
+		/** The position is in the wrong class to finish on the target */
+		CLASS,
+		/** The pegs weigh too little under a pagoda function */
+		PAGODA,
+		/** The search already had the best possible answer */
+		CUTOFF
+	}
+
+	/** The game methods that are timed */
+	public enum Call {
+		OPEN_VALID_LOCATIONS, HAS_VALID_MOVE, PLAY_PEG
+	}
+
+	/** Deepest depth counted separately; deeper nodes share the last slot */
+	public static final int MAX_DEPTH = 48;
+
+	private static final LongAdder searches = new LongAdder();
+	private static final LongAdder searchNanos = new LongAdder();
+	private static final LongAdder nodes = new LongAdder();
+	private static final LongAdder cacheHits = new LongAdder();
+	private static final LongAdder cacheMisses = new LongAdder();
+	private static final LongAdder[] prunes = adders(Prune.values().length);
+	private static final AtomicLongArray depths = new AtomicLongArray(MAX_DEPTH + 1);
+	private static final LongAdder[] callCounts = adders(Call.values().length);
+	private static final LongAdder[] callNanos = adders(Call.values().length);
+	private static volatile boolean events; // true once the events are registered with Flight Recorder
+
+	static {
+		if (Boolean.getBoolean("pegsolitaire.metrics.dump"))
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> dump(System.err), "metrics-dump"));
+	}
+
+	/* no instances */
+	private EngineMetrics() {
+	}
+
+	/**
+	 * Adds the work of one finished search.
+	 *
+	 * @param kind        what sort of search it was, for the JFR event
+	 * @param startNanos  System.nanoTime() when the search started
+	 * @param nodeCount   positions visited
+	 * @param hits        positions found in the cache
+	 * @param misses      positions looked up and not found
+	 * @param pruneCounts prunes, indexed by Prune.ordinal()
+	 * @param depthCounts positions visited at each depth (may be null)
+	 * @param result      the answer of the search, for the JFR event
+	 */
+	public static void recordSearch(String kind, long startNanos, long nodeCount, long hits, long misses,
+			long[] pruneCounts, long[] depthCounts, int result) {
+		long elapsed = System.nanoTime() - startNanos;
+		searches.increment();
+		searchNanos.add(elapsed);
+		nodes.add(nodeCount);
+		cacheHits.add(hits);
+		cacheMisses.add(misses);
+		for (int i = 0; i < pruneCounts.length; i++)
+			if (pruneCounts[i] != 0)
+				prunes[i].add(pruneCounts[i]);
+		if (depthCounts != null)
+			for (int depth = 0; depth < depthCounts.length; depth++)
+				if (depthCounts[depth] != 0)
+					depths.addAndGet(Math.min(depth, MAX_DEPTH), depthCounts[depth]);
+
+		if (events || recorderStarted()) {
+			long pruned = 0;
+			for (long count : pruneCounts)
+				pruned += count;
+			EngineEvents.search(kind, nodeCount, hits, misses, pruned, result, elapsed);
+		}
+	}
+
+	/**
+	 * Registers the events with Flight Recorder now, rather than when a
+	 * recorder is first seen.
+	 */
+	public static synchronized void enable() {
+		if (!events) {
+			EngineEvents.register();
+			events = true;
+		}
+	}
+
+	/**
+	 * Registers the events if the JVM has a Flight Recorder.
+	 *
+	 * @return true if the events are registered
+	 */
+	private static boolean recorderStarted() {
+		try {
+			if (!FlightRecorder.isInitialized())
+				return false;
+		} catch (LinkageError e) { // no jdk.jfr module
+			return false;
+		}
+		enable();
+		return true;
+	}
+
+	/**
+	 * Adds one call of a game method.
+	 *
+	 * @param call       the method called
+	 * @param startNanos System.nanoTime() when the call started
+	 */
+	public static void recordCall(Call call, long startNanos) {
+		callNanos[call.ordinal()].add(System.nanoTime() - startNanos);
+		callCounts[call.ordinal()].increment();
+	}
+
+	/** @return the number of searches finished */
+	public static long searches() {
+		return searches.sum();
+	}
+
+	/** @return positions visited by all searches */
+	public static long nodes() {
+		return nodes.sum();
+	}
+
+	/** @return searched positions per second of search time */
+	public static double nodesPerSecond() {
+		long nanos = searchNanos.sum();
+		return nanos == 0 ? 0 : nodes.sum() * 1e9 / nanos;
+	}
+
+	/** @return the share of cache lookups that found the position */
+	public static double cacheHitRate() {
+		long hits = cacheHits.sum();
+		long total = hits + cacheMisses.sum();
+		return total == 0 ? 0 : hits / (double) total;
+	}
+
+	/**
+	 * Returns how often searches pruned for a reason.
+	 *
+	 * @param reason the reason
+	 * @return the number of prunes
+	 */
+	public static long prunes(Prune reason) {
+		return prunes[reason.ordinal()].sum();
+	}
+
+	/**
+	 * Returns how many positions were visited at a depth.
+	 *
+	 * @param depth the depth, from 0 (MAX_DEPTH counts everything deeper too)
+	 * @return the number of positions
+	 */
+	public static long depthCount(int depth) {
+		return depths.get(Math.min(depth, MAX_DEPTH));
+	}
+
+	/**
+	 * Returns the average time of one call of a game method.
+	 *
+	 * @param call the method
+	 * @return average nanoseconds per call, 0 if never called
+	 */
+	public static double nanosPerCall(Call call) {
+		long count = callCounts[call.ordinal()].sum();
+		return count == 0 ? 0 : callNanos[call.ordinal()].sum() / (double) count;
+	}
+
+	/**
+	 * Forgets everything counted so far.
+	 */
+	public static void reset() {
+		searches.reset();
+		searchNanos.reset();
+		nodes.reset();
+		cacheHits.reset();
+		cacheMisses.reset();
+		for (LongAdder adder : prunes)
+			adder.reset();
+		for (int depth = 0; depth <= MAX_DEPTH; depth++)
+			depths.set(depth, 0);
+		for (int i = 0; i < callCounts.length; i++) {
+			callCounts[i].reset();
+			callNanos[i].reset();
+		}
+	}
+
+	/**
+	 * Prints a summary of everything counted so far.
+	 *
+	 * @param out where to print the summary
+	 */
+	public static void dump(PrintStream out) {
+		StringBuilder text = new StringBuilder();
+		text.append("Engine metrics\n");
+		text.append(String.format("  searches        %d in %.3f s%n", searches.sum(), searchNanos.sum() / 1e9));
+		text.append(String.format("  nodes           %d (%.0f per second)%n", nodes.sum(), nodesPerSecond()));
+		text.append(String.format("  cache           %d hits, %d misses (%.1f%% hit rate)%n", cacheHits.sum(),
+				cacheMisses.sum(), 100 * cacheHitRate()));
+		for (Prune reason : Prune.values())
+			text.append(String.format("  prune %-9s %d%n", reason.name().toLowerCase(), prunes(reason)));
+
+		// Only the depths that were reached
+		text.append("  depth histogram\n");
+		for (int depth = 0; depth <= MAX_DEPTH; depth++)
+			if (depths.get(depth) != 0)
+				text.append(String.format("    %2d%s %d%n", depth, depth == MAX_DEPTH ? "+" : " ", depths.get(depth)));
+
+		for (Call call : Call.values())
+			text.append(String.format("  %-21s %d calls, %.0f ns each%n", call.name().toLowerCase(),
+					callCounts[call.ordinal()].sum(), nanosPerCall(call)));
+		out.print(text);
+		out.flush();
+	}
+
+	/**
+	 * Returns an array of new adders.
+	 *
+	 * @param count the number of adders
+	 * @return the adders
+	 */
+	private static LongAdder[] adders(int count) {
+		LongAdder[] adders = new LongAdder[count];
+		for (int i = 0; i < count; i++)
+			adders[i] = new LongAdder();
+		return adders;
+	}
+}
@@ -0,0 +1,318 @@
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class looks back over a finished game and finds its blunders. For
+ * every position of the game it works out the fewest pegs that could still
+ * have been left (see PegSolver.bestFinish). A move is a blunder when the
+ * position after it can do worse than the position before it, and for each
+ * blunder a move that would have kept the better result is suggested.
+ *
+ * The positions of a game are searched from the last to the first, so each
+ * search finds the position after it already done. Every thread searches
+ * the same position at once: the solvers share one cache of best finishes
+ * and a table of the positions each is in the middle of, and put those off
+ * so that they spread out over the tree instead of repeating each other.
+ * The cache is kept, so positions from earlier games are remembered too.
+ *
+ * The progress of an analysis can be followed while it runs (see
+ * SearchProgress); the share done is the share of positions searched, and
+ * the nodes are those of every search in the JVM since it started.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class GameAnalyzer implements AutoCloseable {
+	private ExecutorService pool; // threads that search positions
+	private PositionCache finishes; // best finish of each canonical position, shared
+	private AtomicLongArray busy = new AtomicLongArray(1 << 16); // positions a solver is in the middle of
+	private int threads; // the number of threads to search on
+	private SearchProgress progress; // where progress is reported, or null
+
+	/**
+	 * Constructs an analyzer that uses every core.
+	 */
+	public GameAnalyzer() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs an analyzer that uses a number of threads.
+	 *
+	 * @param threads the number of threads to search on
+	 */
+	public GameAnalyzer(int threads) {
+		this.finishes = new PositionCache();
+		this.threads = threads;
+		this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "analyzer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Analyzes saved games and prints the reports.
+	 *
+	 * Usage: GameAnalyzer file... [-progress]
+	 *
+	 * @param args command line arguments: game record files
+	 * @throws Exception if a file cannot be read or holds an invalid game
+	 */
+	public static void main(String[] args) throws Exception {
+		boolean progress = Arrays.asList(args).contains("-progress");
+		try (GameAnalyzer analyzer = new GameAnalyzer();
+				SearchProgress publisher = progress ? new SearchProgress("analyze") : null) {
+			if (publisher != null) {
+				publisher.subscribe(SearchProgress.printer(System.err));
+				analyzer.setProgress(publisher);
+			}
+			for (String file : args) {
+				if (file.equals("-progress"))
+					continue;
+				try (GameRecordReader reader = GameRecordReader.open(Paths.get(file))) {
+					while (reader.next()) {
+						long started = System.nanoTime();
+						Analysis analysis = analyzer.analyze(reader.toRecord());
+						System.out.print(analysis);
+						System.out.printf("(%.1f ms)%n%n", (System.nanoTime() - started) / 1e6);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Analyzes a game.
+	 *
+	 * @param record the game
+	 * @return the best finish of each position and the blunders
+	 * @throws IllegalArgumentException if the game holds an illegal jump
+	 * @throws InterruptedException     if interrupted while waiting
+	 */
+	public Analysis analyze(GameRecord record) throws InterruptedException {
+		GameReplay replay = new GameReplay(record);
+		byte[] moves = record.getMoves();
+		int[] best = new int[moves.length + 1];
+
+		long nodes = EngineMetrics.nodes();
+		if (this.progress != null)
+			this.progress.start();
+
+		// Last position first, so each search finds the position after it already known
+		for (int ply = moves.length; ply >= 0; ply--) {
+			best[ply] = this.bestFinish(replay.positionAt(ply));
+			if (this.progress != null)
+				this.progress.report(EngineMetrics.nodes() - nodes, -1,
+						(moves.length + 1 - ply) / (double) (moves.length + 1));
+		}
+
+		// Suggest a better move wherever the result got worse
+		int[] better = new int[moves.length];
+		List<Future<?>> tasks = new ArrayList<Future<?>>();
+		for (int ply = 0; ply < moves.length; ply++) {
+			better[ply] = -1;
+			if (best[ply + 1] > best[ply]) {
+				int at = ply;
+				long board = replay.positionAt(ply);
+				tasks.add(this.pool.submit(() -> {
+					better[at] = betterMove(new PegSolver(this.finishes), board, best[at]);
+				}));
+			}
+		}
+		await(tasks);
+		if (this.progress != null)
+			this.progress.finish(EngineMetrics.nodes() - nodes, best[0]);
+
+		return new Analysis(moves, best, better);
+	}
+
+	/**
+	 * Sets where the progress of each analysis is reported.
+	 *
+	 * @param progress the publisher, or null for none
+	 */
+	public void setProgress(SearchProgress progress) {
+		this.progress = progress;
+	}
+
+	/** @return the cache of best finishes shared by the searches */
+	public PositionCache getFinishes() {
+		return this.finishes;
+	}
+
+	/**
+	 * Stops the threads of the analyzer.
+	 */
+	@Override
+	public void close() {
+		this.pool.shutdown();
+	}
+
+	/**
+	 * Works out the best finish of a position with one solver per thread,
+	 * all searching it together through the shared cache and busy table (see
+	 * PegSolver.bestFinish). The first answer is taken and the other solvers
+	 * are stopped.
+	 *
+	 * @param board the packed position
+	 * @return the best finish
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private int bestFinish(long board) throws InterruptedException {
+		int known = this.finishes.get(Symmetry.canonical(board));
+		if (known != PositionCache.MISSING)
+			return known;
+		if (this.threads == 1)
+			return new PegSolver(this.finishes).bestFinish(board);
+
+		CompletionService<Integer> done = new ExecutorCompletionService<Integer>(this.pool);
+		List<PegSolver> solvers = new ArrayList<PegSolver>();
+		List<Future<Integer>> tasks = new ArrayList<Future<Integer>>();
+		for (int t = 0; t < this.threads; t++) {
+			PegSolver solver = new PegSolver(this.finishes);
+			solvers.add(solver);
+			tasks.add(done.submit(() -> solver.bestFinish(board, this.busy)));
+		}
+		try {
+			return done.take().get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			for (PegSolver solver : solvers)
+				solver.stop();
+			for (Future<Integer> task : tasks)
+				task.cancel(false);
+		}
+	}
+
+	/**
+	 * Finds a jump that keeps the best finish of a position.
+	 *
+	 * @param solver the solver to search with
+	 * @param board  the packed position
+	 * @param best   the best finish of the position
+	 * @return the jump number
+	 */
+	private static int betterMove(PegSolver solver, long board, int best) {
+		for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++)
+			if (PackedBoard.isLegal(board, jump) && solver.bestFinish(PackedBoard.apply(board, jump)) == best)
+				return jump;
+		return -1;
+	}
+
+	/**
+	 * Waits for tasks and passes on any failure.
+	 *
+	 * @param tasks the tasks to wait for
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private static void await(List<Future<?>> tasks) throws InterruptedException {
+		try {
+			for (Future<?> task : tasks)
+				task.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * The result of analyzing one game.
+	 */
+	public static class Analysis {
+		private byte[] moves; // the jumps of the game
+		private int[] best; // best[ply] = best finish of the position before jump ply
+		private int[] better; // a better jump than jump ply, or -1 if it was no blunder
+
+		/**
+		 * Constructs an analysis.
+		 *
+		 * @param moves  the jumps of the game
+		 * @param best   the best finish of each position, one more than moves
+		 * @param better a better jump for each blunder, -1 for other moves
+		 */
+		Analysis(byte[] moves, int[] best, int[] better) {
+			this.moves = moves;
+			this.best = best;
+			this.better = better;
+		}
+
+		/** @return the number of moves in the game */
+		public int getMoveCount() {
+			return this.moves.length;
+		}
+
+		/**
+		 * Returns the fewest pegs that could be left from a position of the game.
+		 *
+		 * @param ply the number of moves made, from 0 to getMoveCount()
+		 * @return the best finish
+		 */
+		public int bestFinish(int ply) {
+			return this.best[ply];
+		}
+
+		/**
+		 * Determines if a move made the best possible finish worse.
+		 *
+		 * @param ply the index of the move, from 0
+		 * @return true if the move was a blunder
+		 */
+		public boolean isBlunder(int ply) {
+			return this.best[ply + 1] > this.best[ply];
+		}
+
+		/**
+		 * Returns a move that would have kept the best finish instead of a
+		 * blunder.
+		 *
+		 * @param ply the index of the move, from 0
+		 * @return the jump number, or -1 if the move was no blunder
+		 */
+		public int betterMove(int ply) {
+			return this.better[ply];
+		}
+
+		/** @return the indices of the blunders, in order */
+		public List<Integer> getBlunders() {
+			List<Integer> blunders = new ArrayList<Integer>();
+			for (int ply = 0; ply < this.moves.length; ply++)
+				if (this.isBlunder(ply))
+					blunders.add(ply);
+			return blunders;
+		}
+
+		/**
+		 * Returns a report with one line per blunder, for example
+		 * "Move 12, (3, 1) -> (3, 3): best finish 1 -> 2 pegs. Better: (5, 3) -> (3, 3)".
+		 *
+		 * @return string representation of the analysis
+		 */
+		public String toString() {
+			StringBuilder text = new StringBuilder();
+			text.append("Best possible finish at the start: ").append(this.best[0]).append(" peg")
+					.append(this.best[0] == 1 ? "" : "s").append('\n');
+			List<Integer> blunders = this.getBlunders();
+			if (blunders.isEmpty())
+				text.append("No blunders.\n");
+			for (int ply : blunders) {
+				text.append("Move ").append(ply + 1).append(", ").append(PackedBoard.jumpToString(this.moves[ply] & 0xFF))
+						.append(": best finish ").append(this.best[ply]).append(" -> ").append(this.best[ply + 1])
+						.append(" pegs");
+				if (this.better[ply] >= 0)
+					text.append(". Better: ").append(PackedBoard.jumpToString(this.better[ply]));
+				text.append('\n');
+			}
+			return text.toString();
+		}
+	}
+}
@@ -0,0 +1,112 @@
+import java.util.Arrays;
+
+/**
+ * This class holds a recorded game: the board shape, the start position and
+ * the jumps made, one byte per jump.
+ *
+ * On disk a record is a 16 byte header followed by the jumps:
+ *
+ * <pre>
+ * offset size  field
+ *      0    2  magic "PG"
+ *      2    1  format version (1)
+ *      3    1  board shape (0 = English 33 hole board)
+ *      4    8  start position as a packed board (see PackedBoard)
+ *     12    4  number of jumps
+ *     16    n  jump numbers (see PackedBoard), one byte each
+ * </pre>
+ *
+ * A full 31 jump game takes 47 bytes. All numbers are big-endian.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class GameRecord {
+	/** First two bytes of every record */
+	public static final short MAGIC = ('P' << 8) | 'G';
+
+	/** Current format version */
+	public static final byte VERSION = 1;
+
+	/** Shape code of the English 33 hole board */
+	public static final byte ENGLISH = 0;
+
+	/** Size of the header in bytes */
+	public static final int HEADER_SIZE = 16;
+
+	private byte shape; // the board shape code
+	private long start; // the packed start position
+	private byte[] moves; // the jump numbers, one per jump
+
+	/**
+	 * Constructs a record of an English board game.
+	 *
+	 * @param start the packed start position
+	 * @param moves the jump numbers in the order they were made
+	 */
+	public GameRecord(long start, byte[] moves) {
+		this(ENGLISH, start, moves, moves.length);
+	}
+
+	/**
+	 * Constructs a record from the first jumps in an array.
+	 *
+	 * @param shape the board shape code
+	 * @param start the packed start position
+	 * @param moves the jump numbers in the order they were made
+	 * @param count how many of the jumps to keep
+	 */
+	public GameRecord(byte shape, long start, byte[] moves, int count) {
+		this.shape = shape;
+		this.start = start;
+		this.moves = Arrays.copyOf(moves, count);
+	}
+
+	/** @return the board shape code */
+	public byte getShape() {
+		return this.shape;
+	}
+
+	/** @return the packed start position */
+	public long getStart() {
+		return this.start;
+	}
+
+	/** @return the number of jumps in the game */
+	public int getMoveCount() {
+		return this.moves.length;
+	}
+
+	/**
+	 * Returns one jump of the game.
+	 *
+	 * @param ply the index of the jump, starting at 0
+	 * @return the jump number
+	 */
+	public int getMove(int ply) {
+		return this.moves[ply] & 0xFF;
+	}
+
+	/** @return a copy of the jump numbers */
+	public byte[] getMoves() {
+		return this.moves.clone();
+	}
+
+	/** @return the size of this record on disk in bytes */
+	public int encodedSize() {
+		return HEADER_SIZE + this.moves.length;
+	}
+
+	/**
+	 * Returns a string representation of the game, one jump per line.
+	 *
+	 * @return string representation of the game
+	 */
+	public String toString() {
+		StringBuilder text = new StringBuilder();
+		text.append(this.moves.length).append(" jumps, start ").append(Long.toHexString(this.start)).append('\n');
+		for (int ply = 0; ply < this.moves.length; ply++)
+			text.append(ply + 1).append(": ").append(PackedBoard.jumpToString(this.getMove(ply))).append('\n');
+		return text.toString();
+	}
+}
@@ -0,0 +1,156 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * This class reads game records from a channel, one after another. The
+ * channel is read in large blocks into a direct buffer.
+ *
+ * The reader works like a cursor: next() moves to the following record, and
+ * the getters describe the current one without building any objects. Use
+ * toRecord() to keep a copy of the current record.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class GameRecordReader implements Closeable {
+	/** Size of the read buffer */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private ReadableByteChannel channel; // where records are read from
+	private ByteBuffer buffer; // bytes read but not yet used
+	private boolean endOfInput; // true once the channel has no more bytes
+
+	private byte shape; // shape code of the current record
+	private long start; // start position of the current record
+	private byte[] moves; // jumps of the current record (reused)
+	private int moveCount; // number of jumps in the current record
+
+	/**
+	 * Constructs a reader over a channel.
+	 *
+	 * @param channel the channel to read records from
+	 */
+	public GameRecordReader(ReadableByteChannel channel) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		this.buffer.flip(); // nothing read yet
+		this.moves = new byte[64];
+	}
+
+	/**
+	 * Opens a file of records for reading.
+	 *
+	 * @param path the file to read
+	 * @return a reader for the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static GameRecordReader open(Path path) throws IOException {
+		return new GameRecordReader(FileChannel.open(path));
+	}
+
+	/**
+	 * Moves to the next record.
+	 *
+	 * @return true if there is a next record; false at the end of the input
+	 * @throws IOException if the channel cannot be read or the input is not a
+	 *                     valid record
+	 */
+	public boolean next() throws IOException {
+		if (!this.fill(GameRecord.HEADER_SIZE)) {
+			if (this.buffer.hasRemaining())
+				throw new IOException("Truncated game record header");
+			return false;
+		}
+
+		// Header
+		if (this.buffer.getShort() != GameRecord.MAGIC)
+			throw new IOException("Not a game record");
+		byte version = this.buffer.get();
+		if (version != GameRecord.VERSION)
+			throw new IOException("Unsupported game record version " + version);
+		this.shape = this.buffer.get();
+		this.start = this.buffer.getLong();
+		this.moveCount = this.buffer.getInt();
+		if ((this.start & ~PackedBoard.VALID) != 0)
+			throw new IOException("Bad start position " + Long.toHexString(this.start));
+		// Every jump takes a peg, and the last peg cannot jump
+		if (this.moveCount < 0 || this.moveCount > Math.max(0, PackedBoard.pegCount(this.start) - 1))
+			throw new IOException("Bad jump count " + this.moveCount);
+
+		// Jumps
+		if (this.moves.length < this.moveCount)
+			this.moves = new byte[this.moveCount];
+		int copied = 0;
+		while (copied < this.moveCount) {
+			if (!this.buffer.hasRemaining() && !this.fill(1))
+				throw new IOException("Truncated game record");
+			int chunk = Math.min(this.buffer.remaining(), this.moveCount - copied);
+			this.buffer.get(this.moves, copied, chunk);
+			copied += chunk;
+		}
+		return true;
+	}
+
+	/** @return the board shape code of the current record */
+	public byte getShape() {
+		return this.shape;
+	}
+
+	/** @return the packed start position of the current record */
+	public long getStart() {
+		return this.start;
+	}
+
+	/** @return the number of jumps in the current record */
+	public int getMoveCount() {
+		return this.moveCount;
+	}
+
+	/**
+	 * Returns one jump of the current record.
+	 *
+	 * @param ply the index of the jump, starting at 0
+	 * @return the jump number
+	 */
+	public int getMove(int ply) {
+		return this.moves[ply] & 0xFF;
+	}
+
+	/** @return a copy of the current record */
+	public GameRecord toRecord() {
+		return new GameRecord(this.shape, this.start, this.moves, this.moveCount);
+	}
+
+	/**
+	 * Closes the channel.
+	 *
+	 * @throws IOException if the channel cannot be closed
+	 */
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	/**
+	 * Reads from the channel until at least the given number of bytes are
+	 * buffered or the input ends.
+	 *
+	 * @param needed the number of bytes wanted
+	 * @return true if that many bytes are buffered
+	 * @throws IOException if the channel cannot be read
+	 */
+	private boolean fill(int needed) throws IOException {
+		if (this.buffer.remaining() >= needed)
+			return true;
+		this.buffer.compact();
+		while (this.buffer.position() < needed && !this.endOfInput) {
+			if (this.channel.read(this.buffer) < 0)
+				this.endOfInput = true;
+		}
+		this.buffer.flip();
+		return this.buffer.remaining() >= needed;
+	}
+}
@@ -0,0 +1,107 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class writes game records to a channel. Records are collected in a
+ * large direct buffer and written when it fills, so that writing millions of
+ * games costs a few large writes.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class GameRecordWriter implements Closeable {
+	/** Size of the write buffer */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private WritableByteChannel channel; // where records are written
+	private ByteBuffer buffer; // records waiting to be written
+
+	/**
+	 * Constructs a writer over a channel.
+	 *
+	 * @param channel the channel to write records to
+	 */
+	public GameRecordWriter(WritableByteChannel channel) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	}
+
+	/**
+	 * Opens a file for writing records, appending to it if it exists.
+	 *
+	 * @param path the file to write
+	 * @return a writer for the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static GameRecordWriter open(Path path) throws IOException {
+		return new GameRecordWriter(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND));
+	}
+
+	/**
+	 * Writes one record.
+	 *
+	 * @param record the record to write
+	 * @throws IOException if the channel cannot be written
+	 */
+	public void write(GameRecord record) throws IOException {
+		this.write(record.getShape(), record.getStart(), record.getMoves(), record.getMoveCount());
+	}
+
+	/**
+	 * Writes one record from the first jumps in an array, without building a
+	 * GameRecord.
+	 *
+	 * @param shape the board shape code
+	 * @param start the packed start position
+	 * @param moves the jump numbers in the order they were made
+	 * @param count how many of the jumps to write
+	 * @throws IOException if the channel cannot be written
+	 */
+	public void write(byte shape, long start, byte[] moves, int count) throws IOException {
+		int size = GameRecord.HEADER_SIZE + count;
+		if (this.buffer.remaining() < size) {
+			this.flush();
+			// Records bigger than the buffer get a buffer of their own
+			if (this.buffer.capacity() < size)
+				this.buffer = ByteBuffer.allocateDirect(size);
+		}
+
+		this.buffer.putShort(GameRecord.MAGIC);
+		this.buffer.put(GameRecord.VERSION);
+		this.buffer.put(shape);
+		this.buffer.putLong(start);
+		this.buffer.putInt(count);
+		this.buffer.put(moves, 0, count);
+	}
+
+	/**
+	 * Writes any buffered records to the channel.
+	 *
+	 * @throws IOException if the channel cannot be written
+	 */
+	public void flush() throws IOException {
+		this.buffer.flip();
+		while (this.buffer.hasRemaining())
+			this.channel.write(this.buffer);
+		this.buffer.clear();
+	}
+
+	/**
+	 * Writes any buffered records and closes the channel.
+	 *
+	 * @throws IOException if the channel cannot be written or closed
+	 */
+	public void close() throws IOException {
+		try {
+			this.flush();
+		} finally {
+			this.channel.close();
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/**
+ * This class replays a recorded game and can give the position after any
+ * number of jumps. Every position is worked out once, when the replay is
+ * built, so looking one up later is free.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class GameReplay {
+	private GameRecord record; // the game being replayed
+	private long[] positions; // positions[ply] is the board after ply jumps
+
+	/**
+	 * Replays a recorded game.
+	 *
+	 * @param record the game to replay
+	 * @throws IllegalArgumentException if the start has pegs off the board or
+	 *                                  a jump in the game is not legal
+	 */
+	public GameReplay(GameRecord record) {
+		if ((record.getStart() & ~PackedBoard.VALID) != 0)
+			throw new IllegalArgumentException("Start has pegs off the board: " + Long.toHexString(record.getStart()));
+		this.record = record;
+		this.positions = new long[record.getMoveCount() + 1];
+		this.positions[0] = record.getStart();
+		for (int ply = 0; ply < record.getMoveCount(); ply++) {
+			int jump = record.getMove(ply);
+			if (jump >= PackedBoard.JUMP_COUNT || !PackedBoard.isLegal(this.positions[ply], jump))
+				throw new IllegalArgumentException("Illegal jump " + (ply + 1) + ": " + jump);
+			this.positions[ply + 1] = PackedBoard.apply(this.positions[ply], jump);
+		}
+	}
+
+	/**
+	 * Returns the position after a number of jumps, without building a replay.
+	 * Jumps are not checked.
+	 *
+	 * @param start the packed start position
+	 * @param moves the jump numbers
+	 * @param ply   how many of the jumps to make
+	 * @return the packed position after that many jumps
+	 */
+	public static long positionAt(long start, byte[] moves, int ply) {
+		long position = start;
+		for (int i = 0; i < ply; i++)
+			position = PackedBoard.apply(position, moves[i] & 0xFF);
+		return position;
+	}
+
+	/** @return the game being replayed */
+	public GameRecord getRecord() {
+		return this.record;
+	}
+
+	/** @return the number of jumps in the game */
+	public int length() {
+		return this.positions.length - 1;
+	}
+
+	/**
+	 * Returns the packed position after a number of jumps.
+	 *
+	 * @param ply how many jumps have been made, from 0 to length()
+	 * @return the packed position
+	 */
+	public long positionAt(int ply) {
+		return this.positions[ply];
+	}
+
+	/**
+	 * Returns the position after a number of jumps as a new board.
+	 *
+	 * @param ply how many jumps have been made, from 0 to length()
+	 * @return a board with the position
+	 */
+	public PegBoard boardAt(int ply) {
+		return PackedBoard.unpack(this.positions[ply]);
+	}
+
+	/** @return the packed position at the end of the game */
+	public long finalPosition() {
+		return this.positions[this.positions.length - 1];
+	}
+}
@@ -0,0 +1,458 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class hosts many games at once without a GUI. Each game is a small
+ * GameSession, and sessions are spread over shards that each have their own
+ * lock, so players on different shards never wait for each other.
+ *
+ * The games can be played through the methods of this class or over HTTP on
+ * the local machine:
+ *
+ * <pre>
+ * POST   /games               start a game, answers its id
+ * POST   /games/{id}          body "fromRow fromCol toRow toCol", answers
+ *                             "OK pegs", "OVER pegs" or "ILLEGAL"
+ * GET    /games/{id}          answers "pegs moves board" (board in hex)
+ * GET    /games/{id}/hint     answers a good next jump, "fromRow fromCol toRow
+ *                             toCol", or "NONE" if no jump is left
+ * DELETE /games/{id}          end a game; with ?player=name its result goes
+ *                             on the leaderboard
+ * </pre>
+ *
+ * Hints come from an opening book (see OpeningBook) while a game is in it,
+ * and from a search out of it. The searches share a cache of best finishes
+ * that is emptied when it grows past HINT_POSITIONS, and each may visit
+ * HINT_NODES positions; a hint that needs more is the greedy jump instead.
+ *
+ * Requests are answered on virtual threads when the JVM has them, and on a
+ * cached thread pool otherwise.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class GameServer {
+	/** Result of move() for a game that does not exist */
+	public static final int NO_GAME = -2;
+
+	/** Result of move() for an illegal jump */
+	public static final int ILLEGAL = -1;
+
+	/** Positions one hint search may visit, about a second of work */
+	public static final long HINT_NODES = 4_000_000;
+
+	/** Positions the hint cache may hold before it is emptied, about 40 MB */
+	public static final long HINT_POSITIONS = 1 << 21;
+
+	private Shard[] shards; // the sessions, spread by id
+	private int shardMask; // shards.length - 1
+	private AtomicLong nextId; // id of the next game
+	private HttpServer http; // the HTTP front end, if started
+	private ExecutorService handlers; // threads that answer HTTP requests
+	private volatile OpeningBook book; // answers hints with no search, or null
+	private PositionCache finishes = new PositionCache(); // best finishes found for hints, up to HINT_POSITIONS
+	private volatile Leaderboard leaderboard; // keeps the results of ended games, or null
+
+	/**
+	 * Constructs a server with about four shards per core, and at least 16.
+	 */
+	public GameServer() {
+		this(Math.max(16, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4)));
+	}
+
+	/**
+	 * Constructs a server with a number of shards.
+	 *
+	 * @param shardCount the number of shards, a power of two
+	 */
+	public GameServer(int shardCount) {
+		if (Integer.bitCount(shardCount) != 1)
+			throw new IllegalArgumentException("Shard count must be a power of two: " + shardCount);
+		this.shards = new Shard[shardCount];
+		for (int i = 0; i < shardCount; i++)
+			this.shards[i] = new Shard();
+		this.shardMask = shardCount - 1;
+		this.nextId = new AtomicLong(1);
+	}
+
+	/**
+	 * Starts a server on the port given on the command line (default 8081).
+	 *
+	 * @param args command line arguments: an optional port number, opening
+	 *             book file and leaderboard directory
+	 * @throws IOException if the port cannot be opened or the book or
+	 *                     leaderboard read
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 8081;
+		GameServer server = new GameServer();
+		if (args.length > 1)
+			server.setBook(OpeningBook.read(Paths.get(args[1])));
+		if (args.length > 2) {
+			Leaderboard leaderboard = Leaderboard.open(Paths.get(args[2]));
+			if (leaderboard.isReadOnly()) {
+				leaderboard.close();
+				throw new IOException(args[2] + " is being written by another process");
+			}
+			server.setLeaderboard(leaderboard);
+		}
+		server.start(port);
+		System.out.println("Game server listening on http://localhost:" + server.getPort() + "/games");
+	}
+
+	/**
+	 * Returns an executor that runs each task on a new virtual thread, or a
+	 * cached thread pool when the JVM has no virtual threads.
+	 *
+	 * @return an executor for short blocking tasks
+	 */
+	public static ExecutorService newRequestExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	/**
+	 * Starts a game from the standard start.
+	 *
+	 * @return the id of the new game
+	 */
+	public long newGame() {
+		return this.newGame(PackedBoard.START);
+	}
+
+	/**
+	 * Starts a game from a position.
+	 *
+	 * @param start the packed start position
+	 * @return the id of the new game
+	 */
+	public long newGame(long start) {
+		long id = this.nextId.getAndIncrement();
+		GameSession session = new GameSession(start);
+		Shard shard = this.shard(id);
+		synchronized (shard) {
+			shard.sessions.put(id, session);
+		}
+		return id;
+	}
+
+	/**
+	 * Makes a jump in a game.
+	 *
+	 * @param id   the id of the game
+	 * @param jump the jump number (see PackedBoard)
+	 * @return the packed position after the jump, ILLEGAL or NO_GAME
+	 */
+	public long move(long id, int jump) {
+		Shard shard = this.shard(id);
+		synchronized (shard) {
+			GameSession session = shard.sessions.get(id);
+			if (session == null)
+				return NO_GAME;
+			if (!session.jump(jump))
+				return ILLEGAL;
+			return session.getBoard();
+		}
+	}
+
+	/**
+	 * Returns the current position of a game.
+	 *
+	 * @param id the id of the game
+	 * @return the packed position, or -1 if there is no such game
+	 */
+	public long board(long id) {
+		Shard shard = this.shard(id);
+		synchronized (shard) {
+			GameSession session = shard.sessions.get(id);
+			return session == null ? -1 : session.getBoard();
+		}
+	}
+
+	/**
+	 * Describes a game as "pegs moves board", the board in hex.
+	 *
+	 * @param id the id of the game
+	 * @return the description, or null if there is no such game
+	 */
+	private String describe(long id) {
+		Shard shard = this.shard(id);
+		long board;
+		int moves;
+		synchronized (shard) {
+			GameSession session = shard.sessions.get(id);
+			if (session == null)
+				return null;
+			board = session.getBoard();
+			moves = session.getMoveCount();
+		}
+		return PackedBoard.pegCount(board) + " " + moves + " " + Long.toHexString(board);
+	}
+
+	/**
+	 * Returns a record of a game so far.
+	 *
+	 * @param id the id of the game
+	 * @return the record, or null if there is no such game
+	 */
+	public GameRecord record(long id) {
+		Shard shard = this.shard(id);
+		synchronized (shard) {
+			GameSession session = shard.sessions.get(id);
+			return session == null ? null : session.toRecord();
+		}
+	}
+
+	/**
+	 * Ends a game and forgets it.
+	 *
+	 * @param id the id of the game
+	 * @return a record of the game, or null if there was no such game
+	 */
+	public GameRecord endGame(long id) {
+		return this.endGame(id, null);
+	}
+
+	/**
+	 * Ends a game, forgets it and puts its result on the leaderboard, if
+	 * there is one. The leaderboard finds the game by its id.
+	 *
+	 * @param id     the id of the game
+	 * @param player the name of the player, or null to leave the result out
+	 * @return a record of the game, or null if there was no such game
+	 */
+	public GameRecord endGame(long id, String player) {
+		Shard shard = this.shard(id);
+		GameSession session;
+		synchronized (shard) {
+			session = shard.sessions.remove(id);
+		}
+		if (session == null)
+			return null;
+		GameRecord record = session.toRecord();
+		Leaderboard leaderboard = this.leaderboard;
+		if (leaderboard != null && player != null)
+			leaderboard.add(player, record.getShape(), PackedBoard.pegCount(session.getBoard()),
+					record.getMoveCount(), System.currentTimeMillis() - session.getStarted(), id);
+		return record;
+	}
+
+	/**
+	 * Sets the leaderboard that ended games are added to.
+	 *
+	 * @param leaderboard the leaderboard, or null for none
+	 */
+	public void setLeaderboard(Leaderboard leaderboard) {
+		this.leaderboard = leaderboard;
+	}
+
+	/**
+	 * Suggests the next jump of a game: the book's jump while the game is in
+	 * the opening book, and otherwise one that keeps the best finish.
+	 *
+	 * @param id the id of the game
+	 * @return the jump number, ILLEGAL if no jump is left or NO_GAME
+	 */
+	public int hint(long id) {
+		long board = this.board(id);
+		if (board == -1)
+			return NO_GAME;
+		if (!PackedBoard.hasMove(board))
+			return ILLEGAL;
+		if (this.book != null) {
+			int jump = this.book.bestJump(board);
+			if (jump != OpeningBook.OUT_OF_BOOK)
+				return jump;
+		}
+		// Searched outside the shard's lock, so other games on the shard keep moving
+		int jump = this.searchHint(board);
+		if (this.finishes.size() > HINT_POSITIONS)
+			this.finishes.clear();
+		return jump != ILLEGAL ? jump : Strategy.greedy().chooseJump(JumpRules.ENGLISH, board);
+	}
+
+	/**
+	 * Finds a jump that keeps the best finish, within the hint budget.
+	 *
+	 * @param board the packed position, with a jump left
+	 * @return the jump number, or ILLEGAL if the budget ran out
+	 */
+	private int searchHint(long board) {
+		PegSolver solver = new PegSolver(this.finishes);
+		solver.setBudget(HINT_NODES);
+		int best = solver.bestFinish(board);
+		for (int jump = 0; jump < PackedBoard.JUMP_COUNT && !solver.isStopped(); jump++)
+			if (PackedBoard.isLegal(board, jump) && solver.bestFinish(PackedBoard.apply(board, jump)) == best
+					&& !solver.isStopped())
+				return jump;
+		return ILLEGAL;
+	}
+
+	/**
+	 * Sets the opening book that answers hints.
+	 *
+	 * @param book the book, or null to search every hint
+	 */
+	public void setBook(OpeningBook book) {
+		this.book = book;
+	}
+
+	/** @return the number of games in progress */
+	public int sessionCount() {
+		int count = 0;
+		for (Shard shard : this.shards) {
+			synchronized (shard) {
+				count += shard.sessions.size();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Starts answering HTTP requests on the loopback address.
+	 *
+	 * @param port the port to listen on, or 0 for any free port
+	 * @throws IOException if the port cannot be opened
+	 */
+	public void start(int port) throws IOException {
+		// Small answers wait tens of milliseconds behind Nagle's algorithm otherwise
+		if (System.getProperty("sun.net.httpserver.nodelay") == null)
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+
+		this.handlers = newRequestExecutor();
+		this.http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+		this.http.createContext("/games", this::handle);
+		this.http.setExecutor(this.handlers);
+		this.http.start();
+	}
+
+	/**
+	 * Stops answering HTTP requests. Games are kept.
+	 */
+	public void stop() {
+		if (this.http != null) {
+			this.http.stop(0);
+			this.handlers.shutdown();
+			this.http = null;
+		}
+	}
+
+	/** @return the HTTP port, or -1 if not started */
+	public int getPort() {
+		return this.http == null ? -1 : this.http.getAddress().getPort();
+	}
+
+	/**
+	 * Returns the shard that holds a game.
+	 *
+	 * @param id the id of the game
+	 * @return the shard
+	 */
+	private Shard shard(long id) {
+		return this.shards[(int) (id ^ (id >>> 32)) & this.shardMask];
+	}
+
+	/**
+	 * Answers one HTTP request.
+	 *
+	 * @param exchange the request and its response
+	 * @throws IOException if the request cannot be read or answered
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			String method = exchange.getRequestMethod();
+			String path = exchange.getRequestURI().getPath();
+
+			// The id, if any, follows "/games/"
+			boolean hint = path.endsWith("/hint");
+			if (hint)
+				path = path.substring(0, path.length() - "/hint".length());
+			long id = -1;
+			if (path.length() > "/games/".length()) {
+				try {
+					id = Long.parseLong(path.substring("/games/".length()));
+				} catch (NumberFormatException e) {
+					reply(exchange, 404, "No such game\n");
+					return;
+				}
+			}
+
+			if (hint) {
+				int jump = id >= 0 && method.equals("GET") ? this.hint(id) : NO_GAME;
+				if (jump == NO_GAME)
+					reply(exchange, 404, "No such game\n");
+				else if (jump == ILLEGAL)
+					reply(exchange, 200, "NONE\n");
+				else
+					reply(exchange, 200, PackedBoard.from(jump) / PackedBoard.SIZE + " "
+							+ PackedBoard.from(jump) % PackedBoard.SIZE + " " + PackedBoard.to(jump) / PackedBoard.SIZE
+							+ " " + PackedBoard.to(jump) % PackedBoard.SIZE + "\n");
+			} else if (id < 0 && method.equals("POST")) {
+				reply(exchange, 200, this.newGame() + "\n");
+			} else if (id >= 0 && method.equals("POST")) {
+				String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.US_ASCII);
+				byte[] jump = new byte[1];
+				int jumpId = SolutionVerifier.parse(body, 0, body.length(), jump) == 1 ? jump[0] & 0xFF : -1;
+				long board = this.move(id, jumpId);
+				if (board == NO_GAME)
+					reply(exchange, 404, "No such game\n");
+				else if (board == ILLEGAL)
+					reply(exchange, 409, "ILLEGAL\n");
+				else
+					reply(exchange, 200,
+							(PackedBoard.hasMove(board) ? "OK " : "OVER ") + PackedBoard.pegCount(board) + "\n");
+			} else if (id >= 0 && method.equals("GET")) {
+				String game = this.describe(id);
+				if (game == null)
+					reply(exchange, 404, "No such game\n");
+				else
+					reply(exchange, 200, game + "\n");
+			} else if (id >= 0 && method.equals("DELETE")) {
+				String query = exchange.getRequestURI().getQuery();
+				String player = query != null && query.startsWith("player=") ? query.substring("player=".length())
+						: null;
+				reply(exchange, this.endGame(id, player) == null ? 404 : 200, "\n");
+			} else {
+				reply(exchange, 405, "\n");
+			}
+		}
+	}
+
+	/**
+	 * Sends a short text answer.
+	 *
+	 * @param exchange the request being answered
+	 * @param status   the HTTP status code
+	 * @param text     the answer
+	 * @throws IOException if the answer cannot be sent
+	 */
+	private static void reply(HttpExchange exchange, int status, String text) throws IOException {
+		byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * A group of sessions sharing one lock.
+	 */
+	private static class Shard {
+		private HashMap<Long, GameSession> sessions = new HashMap<Long, GameSession>();
+	}
+}
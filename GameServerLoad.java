@@ -0,0 +1,138 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class measures the game server: how many sessions fit in a gigabyte
+ * of heap, and how many moves per second it can take.
+ *
+ * Usage: GameServerLoad [sessions] [threads] [seconds] [-http]
+ *
+ * Without -http the players call the server directly, which measures the
+ * session store. With -http every move is a request to the server's HTTP
+ * front end on localhost.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class GameServerLoad {
+	/**
+	 * Runs the load test.
+	 *
+	 * @param args command line arguments (see class comment)
+	 * @throws Exception if the test cannot be run
+	 */
+	public static void main(String[] args) throws Exception {
+		int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+		boolean http = args.length > 3 && args[3].equals("-http");
+
+		GameServer server = new GameServer();
+
+		// Memory: start every session, then compare heap use
+		long before = usedHeap();
+		long[] ids = new long[sessions];
+		for (int i = 0; i < sessions; i++)
+			ids[i] = server.newGame();
+		long after = usedHeap();
+		double bytesPerSession = Math.max(1, after - before) / (double) sessions;
+		System.out.printf("%d sessions: %.1f bytes each, %.0f sessions per GB%n", sessions, bytesPerSession,
+				(1L << 30) / bytesPerSession);
+
+		// Throughput: players pick random sessions and make random legal jumps
+		if (http)
+			server.start(0);
+		LongAdder moves = new LongAdder();
+		LongAdder games = new LongAdder();
+		long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		ExecutorService players = GameServer.newRequestExecutor();
+		HttpClient client = http ? HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build() : null;
+		for (int t = 0; t < threads; t++) {
+			players.execute(() -> {
+				try {
+					play(server, client, ids, end, moves, games);
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			});
+		}
+		players.shutdown();
+		players.awaitTermination(seconds + 60, TimeUnit.SECONDS);
+		server.stop();
+
+		System.out.printf("%d threads%s: %.0f moves/s, %d games finished%n", threads, http ? " over HTTP" : "",
+				moves.sum() / (double) seconds, games.sum());
+	}
+
+	/**
+	 * Plays random legal jumps until the time is up. A finished game is
+	 * replaced with a fresh one.
+	 *
+	 * @param server the server to play on
+	 * @param client the HTTP client, or null to call the server directly
+	 * @param ids    the ids of the games (shared by all players)
+	 * @param end    System.nanoTime() at which to stop
+	 * @param moves  counts the jumps made
+	 * @param games  counts the games finished
+	 * @throws Exception if an HTTP request fails
+	 */
+	private static void play(GameServer server, HttpClient client, long[] ids, long end, LongAdder moves,
+			LongAdder games) throws Exception {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int[] legal = new int[PackedBoard.JUMP_COUNT];
+		long made = 0;
+		while (System.nanoTime() < end) {
+			int slot = random.nextInt(ids.length);
+			long id = ids[slot];
+			long board = server.board(id);
+			if (board < 0)
+				continue; // another player is replacing this game
+
+			// Collect the legal jumps
+			int count = 0;
+			for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++)
+				if (PackedBoard.isLegal(board, jump))
+					legal[count++] = jump;
+
+			if (count == 0) {
+				// Game over: start a fresh one in its place
+				if (server.endGame(id) != null) {
+					ids[slot] = server.newGame();
+					games.increment();
+				}
+				continue;
+			}
+
+			int jump = legal[random.nextInt(count)];
+			if (client == null) {
+				server.move(id, jump);
+			} else {
+				int from = PackedBoard.from(jump);
+				int to = PackedBoard.to(jump);
+				String body = from / 7 + " " + from % 7 + " " + to / 7 + " " + to % 7;
+				client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/games/" + id))
+						.POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.discarding());
+			}
+			made++;
+		}
+		moves.add(made);
+	}
+
+	/**
+	 * Returns the heap in use after collecting garbage.
+	 *
+	 * @return used heap in bytes
+	 */
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++)
+			System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * This class holds one game on the game server: a packed board and the
+ * jumps made so far, one byte per jump. It is much smaller than a
+ * PegSolitaire with its PegBoard and is only used under its shard's lock.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class GameSession {
+	private long start; // the packed start position
+	private long board; // the packed current position
+	private byte[] journal; // the jump numbers made so far
+	private int moveCount; // number of jumps made so far
+	private long started; // System.currentTimeMillis() when the game began
+
+	/**
+	 * Constructs a session starting from a position.
+	 *
+	 * @param start the packed start position
+	 */
+	public GameSession(long start) {
+		this.start = start;
+		this.board = start;
+		this.started = System.currentTimeMillis();
+		// Every jump removes a peg, so a game can never have more jumps than this
+		this.journal = new byte[Math.max(0, PackedBoard.pegCount(start) - 1)];
+	}
+
+	/**
+	 * Makes a jump if it is legal.
+	 *
+	 * @param jump the jump number
+	 * @return true if the jump was made; false if it was not legal
+	 */
+	public boolean jump(int jump) {
+		if (jump < 0 || jump >= PackedBoard.JUMP_COUNT || !PackedBoard.isLegal(this.board, jump))
+			return false;
+		this.board = PackedBoard.apply(this.board, jump);
+		this.journal[this.moveCount++] = (byte) jump;
+		return true;
+	}
+
+	/** @return the packed current position */
+	public long getBoard() {
+		return this.board;
+	}
+
+	/** @return the number of jumps made so far */
+	public int getMoveCount() {
+		return this.moveCount;
+	}
+
+	/** @return System.currentTimeMillis() when the game began */
+	public long getStarted() {
+		return this.started;
+	}
+
+	/** @return true if no jump can be made */
+	public boolean isOver() {
+		return !PackedBoard.hasMove(this.board);
+	}
+
+	/** @return a record of the game so far */
+	public GameRecord toRecord() {
+		return new GameRecord(GameRecord.ENGLISH, this.start, this.journal, this.moveCount);
+	}
+}
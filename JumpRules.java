@@ -0,0 +1,344 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is a set of rules for which jumps may be made: the holes of a
+ * board and the directions a peg may jump in. Boards are packed as in
+ * PackedBoard, location (row, col) at bit row * 7 + col, so a board of any
+ * shape that fits in 7 by 7 can be used.
+ *
+ * When a rule set is made, every jump whose three locations are all on the
+ * board is numbered and stored in tables, the same way PackedBoard does for
+ * the standard game, so a legal jump costs two mask operations whatever the
+ * directions. Jumps are numbered by the location of the jumping peg, then in
+ * the order the directions were given. Whole-board questions (any move left,
+ * how many) shift the board once per direction, as BoardBatch does, and
+ * never look at single jumps.
+ *
+ * Three rule sets come ready:
+ * <ul>
+ * <li>ENGLISH: the standard game, up, down, left and right on the 33 hole
+ * board; its jump numbers are the same as PackedBoard's</li>
+ * <li>ENGLISH_DIAGONAL: the same board with the four diagonals as well</li>
+ * <li>TRIANGLE: the 15 hole triangle with its six directions, stored with
+ * row r holding columns 0 to r, so the third line of holes runs
+ * diagonally</li>
+ * </ul>
+ *
+ * Rule sets never change after they are made.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public final class JumpRules {
+	/** Up, down, left and right, as row and column steps */
+	public static final int[][] ORTHOGONAL = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+
+	/** The orthogonal directions and the four diagonals */
+	public static final int[][] EIGHT_WAY = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 }, { -1, -1 }, { -1, 1 },
+			{ 1, -1 }, { 1, 1 } };
+
+	/** The six directions of a triangle stored with rows left-aligned */
+	public static final int[][] HEX = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 }, { -1, -1 }, { 1, 1 } };
+
+	/** Side of the TRIANGLE board */
+	private static final int TRIANGLE_SIDE = 5;
+
+	/** The standard game */
+	public static final JumpRules ENGLISH = new JumpRules("english", PackedBoard.VALID, PackedBoard.START,
+			ORTHOGONAL);
+
+	/** The standard board with diagonal jumps too */
+	public static final JumpRules ENGLISH_DIAGONAL = new JumpRules("english-diagonal", PackedBoard.VALID,
+			PackedBoard.START, EIGHT_WAY);
+
+	/** The 15 hole triangle, starting with the top hole empty */
+	public static final JumpRules TRIANGLE;
+
+	static {
+		long triangle = 0;
+		for (int row = 0; row < TRIANGLE_SIDE; row++)
+			for (int col = 0; col <= row; col++)
+				triangle |= PackedBoard.bit(row, col);
+		TRIANGLE = new JumpRules("triangle", triangle, triangle & ~PackedBoard.bit(0, 0), HEX);
+	}
+
+	private final String name; // what the rule set is called
+	private final long valid; // bits of the holes of the board
+	private final long start; // the usual start position
+	private final int[] from, over, to; // bit index of the three locations of each jump
+	private final long[] pegs; // bits of the jumping and the jumped peg of each jump
+	private final long[] flip; // bits of all three locations of each jump
+	private final int[][] jumpsFrom; // jump numbers by the bit index of the jumping peg
+	private final int[] shifts; // bit index step of each direction
+	private final long[] sources; // bits where a jump in each direction can start
+
+	/**
+	 * Constructs a rule set and builds its jump tables.
+	 *
+	 * @param name       what the rule set is called
+	 * @param valid      bits of the holes of the board
+	 * @param start      the usual start position
+	 * @param directions row and column steps of the directions pegs may jump
+	 *                   in
+	 * @throws IllegalArgumentException if the start has pegs off the board
+	 *                                  or a direction does not move
+	 */
+	public JumpRules(String name, long valid, long start, int[][] directions) {
+		if ((start & ~valid) != 0)
+			throw new IllegalArgumentException("The start has pegs off the board");
+		this.name = name;
+		this.valid = valid;
+		this.start = start;
+		this.shifts = new int[directions.length];
+		this.sources = new long[directions.length];
+
+		int[] from = new int[PackedBoard.SIZE * PackedBoard.SIZE * directions.length];
+		int[] over = new int[from.length];
+		int[] to = new int[from.length];
+		this.jumpsFrom = new int[PackedBoard.SIZE * PackedBoard.SIZE][];
+		int count = 0;
+		for (int row = 0; row < PackedBoard.SIZE; row++) {
+			for (int col = 0; col < PackedBoard.SIZE; col++) {
+				int first = count;
+				for (int dir = 0; dir < directions.length; dir++) {
+					int dr = directions[dir][0];
+					int dc = directions[dir][1];
+					if (dr == 0 && dc == 0)
+						throw new IllegalArgumentException("Direction " + dir + " does not move");
+					this.shifts[dir] = dr * PackedBoard.SIZE + dc;
+					if (this.isOnBoard(row, col) && this.isOnBoard(row + dr, col + dc)
+							&& this.isOnBoard(row + 2 * dr, col + 2 * dc)) {
+						from[count] = PackedBoard.index(row, col);
+						over[count] = PackedBoard.index(row + dr, col + dc);
+						to[count] = PackedBoard.index(row + 2 * dr, col + 2 * dc);
+						this.sources[dir] |= PackedBoard.bit(row, col);
+						count++;
+					}
+				}
+				this.jumpsFrom[PackedBoard.index(row, col)] = new int[count - first];
+				for (int i = first; i < count; i++)
+					this.jumpsFrom[PackedBoard.index(row, col)][i - first] = i;
+			}
+		}
+
+		this.from = Arrays.copyOf(from, count);
+		this.over = Arrays.copyOf(over, count);
+		this.to = Arrays.copyOf(to, count);
+		this.pegs = new long[count];
+		this.flip = new long[count];
+		for (int i = 0; i < count; i++) {
+			this.pegs[i] = (1L << from[i]) | (1L << over[i]);
+			this.flip[i] = this.pegs[i] | (1L << to[i]);
+		}
+	}
+
+	/**
+	 * Prints the number of jumps of each ready rule set.
+	 *
+	 * @param args command line arguments (not used)
+	 */
+	public static void main(String[] args) {
+		for (JumpRules rules : ready())
+			System.out.println(rules + ": " + rules.getJumpCount() + " jumps, " + rules.moveCount(rules.start)
+					+ " from the start");
+	}
+
+	/** @return the rule sets that come ready */
+	public static JumpRules[] ready() {
+		return new JumpRules[] { ENGLISH, ENGLISH_DIAGONAL, TRIANGLE };
+	}
+
+	/**
+	 * Returns the ready rule set of a name.
+	 *
+	 * @param name what the rule set is called, such as "english"
+	 * @return the rule set
+	 * @throws IllegalArgumentException if no ready rule set has that name
+	 */
+	public static JumpRules named(String name) {
+		for (JumpRules rules : ready())
+			if (rules.name.equals(name))
+				return rules;
+		throw new IllegalArgumentException(
+				"Unknown rules " + name + ", expected one of " + Arrays.toString(ready()));
+	}
+
+	/** @return what the rule set is called */
+	public String getName() {
+		return this.name;
+	}
+
+	/** @return bits of the holes of the board */
+	public long getValid() {
+		return this.valid;
+	}
+
+	/** @return the usual start position */
+	public long getStart() {
+		return this.start;
+	}
+
+	/** @return the number of different jumps */
+	public int getJumpCount() {
+		return this.from.length;
+	}
+
+	/**
+	 * Determines if a location is a hole of the board.
+	 *
+	 * @param row the row of the location
+	 * @param col the column of the location
+	 * @return true if the location is on the board; false otherwise
+	 */
+	public boolean isOnBoard(int row, int col) {
+		return row >= 0 && row < PackedBoard.SIZE && col >= 0 && col < PackedBoard.SIZE
+				&& (this.valid & PackedBoard.bit(row, col)) != 0;
+	}
+
+	/**
+	 * Returns every jump a peg at a location could ever make.
+	 *
+	 * @param row the row of the location
+	 * @param col the column of the location
+	 * @return the jump numbers, in the order of the directions; empty if the
+	 *         location is off the board
+	 */
+	public int[] jumpsFrom(int row, int col) {
+		if (!this.isOnBoard(row, col))
+			return new int[0];
+		return this.jumpsFrom[PackedBoard.index(row, col)].clone();
+	}
+
+	/**
+	 * Returns how many jumps a peg at a location could ever make, without
+	 * the copy jumpsFrom makes.
+	 *
+	 * @param row the row of the location
+	 * @param col the column of the location
+	 * @return the number of jumps; 0 if the location is off the board
+	 */
+	public int jumpCountFrom(int row, int col) {
+		return this.isOnBoard(row, col) ? this.jumpsFrom[PackedBoard.index(row, col)].length : 0;
+	}
+
+	/**
+	 * Returns one of the jumps a peg at a location could ever make.
+	 *
+	 * @param row the row of the location, on the board
+	 * @param col the column of the location, on the board
+	 * @param i   which jump, from 0 to jumpCountFrom(row, col) - 1
+	 * @return the jump number
+	 */
+	public int jumpFrom(int row, int col, int i) {
+		return this.jumpsFrom[PackedBoard.index(row, col)][i];
+	}
+
+	/**
+	 * Returns the legal destinations of a peg.
+	 *
+	 * @param board the packed board
+	 * @param row   the row of the peg
+	 * @param col   the column of the peg
+	 * @return the destinations, in the order of the directions
+	 */
+	public List<Location> destinations(long board, int row, int col) {
+		List<Location> found = new ArrayList<Location>();
+		if (this.isOnBoard(row, col))
+			for (int jump : this.jumpsFrom[PackedBoard.index(row, col)])
+				if (this.isLegal(board, jump))
+					found.add(new Location(this.to[jump] / PackedBoard.SIZE, this.to[jump] % PackedBoard.SIZE));
+		return found;
+	}
+
+	/**
+	 * Determines if a jump can be made: the jumping and jumped pegs are
+	 * present and the destination is empty.
+	 *
+	 * @param board the packed board
+	 * @param jump  the jump number
+	 * @return true if the jump is legal; false otherwise
+	 */
+	public boolean isLegal(long board, int jump) {
+		return (board & this.flip[jump]) == this.pegs[jump];
+	}
+
+	/**
+	 * Makes a jump.
+	 * Precondition: isLegal(board, jump) is true.
+	 *
+	 * @param board the packed board
+	 * @param jump  the jump number
+	 * @return the packed board after the jump
+	 */
+	public long apply(long board, int jump) {
+		return board ^ this.flip[jump];
+	}
+
+	/**
+	 * Determines if any jump can be made.
+	 *
+	 * @param board the packed board
+	 * @return true if at least one jump is legal; false otherwise
+	 */
+	public boolean hasMove(long board) {
+		long holes = ~board & this.valid;
+		for (int dir = 0; dir < this.shifts.length; dir++)
+			if ((this.sources[dir] & board & toward(board, this.shifts[dir])
+					& toward(holes, 2 * this.shifts[dir])) != 0)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Counts the legal jumps.
+	 *
+	 * @param board the packed board
+	 * @return the number of legal jumps
+	 */
+	public int moveCount(long board) {
+		long holes = ~board & this.valid;
+		int count = 0;
+		for (int dir = 0; dir < this.shifts.length; dir++)
+			count += Long.bitCount(this.sources[dir] & board & toward(board, this.shifts[dir])
+					& toward(holes, 2 * this.shifts[dir]));
+		return count;
+	}
+
+	/** @return bit index of the jumping peg */
+	public int from(int jump) {
+		return this.from[jump];
+	}
+
+	/** @return bit index of the jumped peg */
+	public int over(int jump) {
+		return this.over[jump];
+	}
+
+	/** @return bit index of the destination */
+	public int to(int jump) {
+		return this.to[jump];
+	}
+
+	/**
+	 * Returns the rule set's name, such as "english".
+	 *
+	 * @return string representation of the rule set
+	 */
+	public String toString() {
+		return this.name;
+	}
+
+	/**
+	 * Moves every bit of a board to the location a step before it, so each
+	 * location holds what is a step away in that direction.
+	 *
+	 * @param bits the bits
+	 * @param step the bit index step, positive or negative
+	 * @return the moved bits
+	 */
+	private static long toward(long bits, int step) {
+		return step >= 0 ? bits >>> step : bits << -step;
+	}
+}
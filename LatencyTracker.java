@@ -0,0 +1,188 @@
+import java.awt.EventQueue;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+
+/**
+ * This class measures how long the GUI takes to answer a click. Each click
+ * is timed in two parts: from mousePressed to the end of the game logic
+ * (handleMouseClick), and from there to the end of the paint that shows the
+ * result. The last SAMPLES clicks are kept in rolling buffers.
+ *
+ * A watchdog thread also posts a tiny task to the event dispatch thread
+ * every PING_MILLIS and reports a stall when it waits longer than
+ * STALL_MILLIS to run.
+ *
+ * Turn it on with -Dpegsolitaire.latency=overlay (numbers drawn on the
+ * board) or -Dpegsolitaire.latency=log (numbers printed to standard error
+ * every LOG_EVERY clicks).
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class LatencyTracker {
+	/** Number of clicks kept for the percentiles */
+	private static final int SAMPLES = 512;
+
+	/** Clicks between log lines */
+	private static final int LOG_EVERY = 20;
+
+	/** Time between watchdog pings */
+	private static final long PING_MILLIS = 100;
+
+	/** A ping waiting longer than this is a stall */
+	private static final long STALL_MILLIS = 50;
+
+	private boolean overlay; // draw the numbers on the board
+	private boolean log; // print the numbers to standard error
+
+	// Written and read only on the event dispatch thread
+	private long clickNanos; // when the pending click was pressed, 0 if none
+	private long logicNanos; // when its game logic finished, 0 if not yet
+	private long[] logicSamples = new long[SAMPLES]; // click to end of logic
+	private long[] paintSamples = new long[SAMPLES]; // end of logic to painted
+	private long[] totalSamples = new long[SAMPLES]; // click to painted
+	private int count; // clicks measured so far
+
+	// Written by the watchdog, read by the event dispatch thread
+	private volatile long stalls; // pings that waited too long
+	private volatile long worstStallNanos; // longest wait of a ping
+
+	/**
+	 * Constructs a tracker set up from the pegsolitaire.latency property.
+	 * It does nothing if the property is not set.
+	 */
+	public LatencyTracker() {
+		String mode = System.getProperty("pegsolitaire.latency", "");
+		this.overlay = mode.equals("overlay");
+		this.log = mode.equals("log");
+		if (this.isEnabled())
+			this.startWatchdog();
+	}
+
+	/** @return true if clicks are being measured */
+	public boolean isEnabled() {
+		return this.overlay || this.log;
+	}
+
+	/** @return true if the numbers should be drawn on the board */
+	public boolean isOverlay() {
+		return this.overlay;
+	}
+
+	/**
+	 * Marks the start of a click. Call first thing in mousePressed.
+	 */
+	public void clickPressed() {
+		if (this.isEnabled()) {
+			this.clickNanos = System.nanoTime();
+			this.logicNanos = 0;
+		}
+	}
+
+	/**
+	 * Marks the end of the game logic for the pending click. Call at the end
+	 * of handleMouseClick.
+	 */
+	public void logicDone() {
+		if (this.clickNanos != 0)
+			this.logicNanos = System.nanoTime();
+	}
+
+	/**
+	 * Forgets the pending click without measuring it. Call when a click is
+	 * handled without anything on the board to paint.
+	 */
+	public void clickCancelled() {
+		this.clickNanos = 0;
+		this.logicNanos = 0;
+	}
+
+	/**
+	 * Marks the end of a paint. Completes the pending click, if its logic has
+	 * finished.
+	 */
+	public void painted() {
+		if (this.clickNanos == 0 || this.logicNanos == 0)
+			return;
+		long now = System.nanoTime();
+		int slot = this.count % SAMPLES;
+		this.logicSamples[slot] = this.logicNanos - this.clickNanos;
+		this.paintSamples[slot] = now - this.logicNanos;
+		this.totalSamples[slot] = now - this.clickNanos;
+		this.count++;
+		this.clickNanos = 0;
+		this.logicNanos = 0;
+
+		if (this.log && this.count % LOG_EVERY == 0)
+			System.err.println(this.summary());
+	}
+
+	/**
+	 * Returns one line with the percentiles of the measured clicks.
+	 *
+	 * @return the summary
+	 */
+	public String summary() {
+		return String.format("click-to-paint p50 %.1f ms p99 %.1f ms | logic p99 %.1f ms | paint p99 %.1f ms"
+				+ " | %d EDT stalls (worst %.0f ms)", percentile(this.totalSamples, 50),
+				percentile(this.totalSamples, 99), percentile(this.logicSamples, 99),
+				percentile(this.paintSamples, 99), this.stalls, this.worstStallNanos / 1e6);
+	}
+
+	/**
+	 * Returns a summary short enough to draw on the board.
+	 *
+	 * @return the short summary
+	 */
+	public String shortSummary() {
+		return String.format("click-to-paint p50 %.1f ms, p99 %.1f ms, %d EDT stalls",
+				percentile(this.totalSamples, 50), percentile(this.totalSamples, 99), this.stalls);
+	}
+
+	/**
+	 * Returns a percentile of the kept samples of one kind.
+	 *
+	 * @param samples the samples
+	 * @param p       the percentile, from 0 to 100
+	 * @return the percentile in milliseconds, 0 if nothing was measured
+	 */
+	private double percentile(long[] samples, int p) {
+		int kept = Math.min(this.count, SAMPLES);
+		if (kept == 0)
+			return 0;
+		long[] sorted = Arrays.copyOf(samples, kept);
+		Arrays.sort(sorted);
+		int rank = Math.min(kept - 1, (int) Math.ceil(p / 100.0 * kept) - 1);
+		return sorted[Math.max(0, rank)] / 1e6;
+	}
+
+	/**
+	 * Starts the thread that pings the event dispatch thread.
+	 */
+	private void startWatchdog() {
+		Thread watchdog = new Thread(() -> {
+			while (true) {
+				long posted = System.nanoTime();
+				try {
+					EventQueue.invokeAndWait(() -> {
+						long waited = System.nanoTime() - posted;
+						if (waited > STALL_MILLIS * 1_000_000) {
+							this.stalls++;
+							if (waited > this.worstStallNanos)
+								this.worstStallNanos = waited;
+							if (this.log)
+								System.err.printf("EDT stall: %.0f ms%n", waited / 1e6);
+						}
+					});
+					Thread.sleep(PING_MILLIS);
+				} catch (InterruptedException e) {
+					return;
+				} catch (InvocationTargetException e) {
+					// The ping itself cannot fail
+				}
+			}
+		}, "edt-watchdog");
+		watchdog.setDaemon(true);
+		watchdog.start();
+	}
+}
@@ -0,0 +1,656 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * This class keeps the results of finished games on disk and answers who
+ * did best: the top results on a board shape, and the best results of one
+ * player.
+ *
+ * Results are never changed once added, so they are kept in a log split
+ * into segment files in one directory. Each entry has its own CRC32C
+ * checksum; when the log is opened, every segment is read from start to end
+ * and the index is rebuilt, and an entry cut short by a crash is cut off.
+ *
+ * Only one process writes the log: the one holding the lock on the lock
+ * file in the directory. Another process that opens the log while the lock
+ * is held gets it read-only, with the results on disk when it was opened;
+ * it does not cut off a half-written entry, which may still be being
+ * written, and its results are not added.
+ *
+ * Adding a result only puts it on a queue, so game threads never wait for
+ * the disk. A writer thread takes everything on the queue, writes it and
+ * forces it to disk once for the whole batch, so the busier the log, the
+ * more entries share each fsync. Results show up in queries once they are
+ * on disk. If the writer falls so far behind that the queue is full, new
+ * results are dropped and counted rather than holding up a game.
+ *
+ * Any number of threads may add results and query at once.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class Leaderboard implements AutoCloseable {
+	/** Name of the leaderboard directory in the user's home directory */
+	public static final String DIRECTORY = ".pegsolitaire-leaderboard";
+
+	/** Game record file in the leaderboard directory, for records found by their offset */
+	public static final String GAMES = "games.bin";
+
+	/** File in the leaderboard directory locked by the process writing the log */
+	private static final String LOCK = "lock";
+
+	/** First int of a segment: "PGLB" */
+	private static final int MAGIC = 0x50474C42;
+
+	/** Version of the file format */
+	private static final int VERSION = 1;
+
+	/** Bytes of a segment header: magic, version */
+	private static final int HEADER_BYTES = 8;
+
+	/** Bytes of an entry around its player name: length, fields, checksum */
+	private static final int ENTRY_OVERHEAD = 4 + 30 + 4;
+
+	/** Longest player name kept, in bytes */
+	private static final int MAX_NAME_BYTES = 255;
+
+	/** Size at which a new segment is started */
+	private static final long SEGMENT_BYTES = 64L << 20;
+
+	/** Results that can wait for the writer */
+	private static final int QUEUE_CAPACITY = 1 << 16;
+
+	/** Entries written in one batch at most */
+	private static final int BATCH = 4096;
+
+	/** A result that tells the writer to stop */
+	private static final Entry STOP = new Entry("", (byte) 0, 0, 0, 0, 0, 0);
+
+	/**
+	 * Directories whose lock this JVM holds. Closing any channel on a locked
+	 * file can release the JVM's lock on it, so the lock file is not opened
+	 * again while its directory is here.
+	 */
+	private static final Set<Path> LOCKED = ConcurrentHashMap.newKeySet();
+
+	/** Best first: fewest pegs, then fastest, then earliest */
+	private static final Comparator<Entry> RANKING = Comparator.comparingInt(Entry::getPegs)
+			.thenComparingLong(Entry::getDurationMillis).thenComparingLong(Entry::getTime)
+			.thenComparingLong(entry -> entry.sequence);
+
+	private Path directory; // where the segments are
+	private FileLock lock; // the lock on the lock file, or null if read-only
+	private FileChannel channel; // the segment being written, or null if read-only
+	private int segment; // the number of the segment being written
+	private BlockingQueue<Entry> queue = new ArrayBlockingQueue<Entry>(QUEUE_CAPACITY); // results to write
+	private Thread writer; // writes queued results
+	private volatile IOException failure; // the first error of the writer, if any
+
+	private AtomicLong added = new AtomicLong(); // results queued
+	private AtomicLong dropped = new AtomicLong(); // results dropped because the queue was full
+	private volatile long durable; // results added since opening that are on disk
+	private final Object batchDone = new Object(); // notified by the writer after each batch or error
+	private long sequence; // the number given to the next entry indexed
+
+	// The index, only used under the lock of byShape
+	private Map<Byte, TreeSet<Entry>> byShape = new HashMap<Byte, TreeSet<Entry>>();
+	private Map<String, TreeSet<Entry>> byPlayer = new HashMap<String, TreeSet<Entry>>();
+	private int size;
+
+	/**
+	 * Adds random results from several threads and reports how fast they
+	 * went in, then opens the log again and reports how fast it was read.
+	 *
+	 * Usage: Leaderboard directory [results] [threads]
+	 *
+	 * @param args command line arguments
+	 * @throws Exception if the log cannot be used
+	 */
+	public static void main(String[] args) throws Exception {
+		Path directory = Paths.get(args[0]);
+		int results = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+		long started = System.nanoTime();
+		try (Leaderboard board = open(directory)) {
+			System.out.printf("Opened %d results in %.1f ms%n", board.size(), (System.nanoTime() - started) / 1e6);
+
+			started = System.nanoTime();
+			ExecutorService players = Executors.newFixedThreadPool(threads);
+			for (int t = 0; t < threads; t++) {
+				players.execute(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = 0; i < results / threads; i++) {
+						int pegs = 1 + random.nextInt(10);
+						board.add("player" + random.nextInt(1000), GameRecord.ENGLISH, pegs, 32 - pegs,
+								random.nextInt(600_000), random.nextLong(1L << 40));
+					}
+				});
+			}
+			players.shutdown();
+			players.awaitTermination(1, TimeUnit.HOURS);
+			double queued = (System.nanoTime() - started) / 1e9;
+			board.flush();
+			double written = (System.nanoTime() - started) / 1e9;
+			long dropped = board.getDropped();
+			System.out.printf("%d threads: queued at %.0f results/s, on disk at %.0f results/s, %d dropped (%.1f%%)%n",
+					threads, results / queued, (results - dropped) / written, dropped, 100.0 * dropped / results);
+			for (Entry entry : board.top(GameRecord.ENGLISH, 3))
+				System.out.println(entry);
+		}
+
+		started = System.nanoTime();
+		try (Leaderboard board = open(directory)) {
+			System.out.printf("Reopened %d results in %.1f ms%n", board.size(), (System.nanoTime() - started) / 1e6);
+		}
+	}
+
+	/**
+	 * Opens a leaderboard, reading back every result it holds, or creates it.
+	 * If another process is writing the leaderboard, it is opened read-only.
+	 *
+	 * @param directory the directory of the segments, made if missing
+	 * @return the leaderboard
+	 * @throws IOException if the segments cannot be read or written
+	 */
+	public static Leaderboard open(Path directory) throws IOException {
+		Files.createDirectories(directory);
+		Leaderboard board = new Leaderboard(directory);
+		board.lock = lock(directory);
+		try {
+			board.load();
+		} catch (IOException | RuntimeException e) {
+			board.closeFiles();
+			throw e;
+		}
+		if (board.lock != null)
+			board.writer.start();
+		return board;
+	}
+
+	/**
+	 * Takes the lock on a leaderboard directory if no one holds it.
+	 *
+	 * @param directory the directory
+	 * @return the lock, or null if this or another process holds it
+	 * @throws IOException if the lock file cannot be opened
+	 */
+	private static FileLock lock(Path directory) throws IOException {
+		Path key = directory.toAbsolutePath().normalize();
+		synchronized (LOCKED) {
+			if (LOCKED.contains(key))
+				return null;
+			FileChannel channel = FileChannel.open(key.resolve(LOCK), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE);
+			FileLock lock = null;
+			try {
+				lock = channel.tryLock();
+			} finally {
+				if (lock == null)
+					channel.close();
+			}
+			if (lock != null)
+				LOCKED.add(key);
+			return lock;
+		}
+	}
+
+	/**
+	 * Reads every segment into the index and, if this process holds the
+	 * lock, opens the last segment for appending.
+	 *
+	 * @throws IOException if the segments cannot be read or written
+	 */
+	private void load() throws IOException {
+		List<Path> segments = new ArrayList<Path>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "segment-*.log")) {
+			for (Path file : files)
+				segments.add(file);
+		}
+		segments.sort(null);
+
+		for (Path segment : segments)
+			this.scan(segment);
+		if (this.lock == null)
+			return;
+		int last = segments.isEmpty() ? 0 : segmentNumber(segments.get(segments.size() - 1));
+		this.openSegment(segments.isEmpty() || Files.size(segments.get(segments.size() - 1)) >= SEGMENT_BYTES
+				? last + 1 : last);
+	}
+
+	/**
+	 * Constructs a leaderboard with an empty index.
+	 *
+	 * @param directory the directory of the segments
+	 */
+	private Leaderboard(Path directory) {
+		this.directory = directory;
+		this.writer = new Thread(this::writeEntries, "leaderboard-writer");
+		this.writer.setDaemon(true);
+	}
+
+	/**
+	 * Adds the result of a game. Returns at once; the result is written by
+	 * another thread.
+	 *
+	 * @param player         the name of the player
+	 * @param shape          the board shape code (see GameRecord)
+	 * @param pegs           the pegs left at the end
+	 * @param moves          the jumps made
+	 * @param durationMillis how long the game took
+	 * @param record         where the game's record can be found, such as
+	 *                       its position in a game record file or its id on
+	 *                       the game server
+	 * @return true if the result was queued; false if it was dropped or the
+	 *         leaderboard is read-only
+	 * @throws UncheckedIOException if the log could not be written
+	 */
+	public boolean add(String player, byte shape, int pegs, int moves, long durationMillis, long record) {
+		if (this.lock == null)
+			return false;
+		if (this.failure != null)
+			throw new UncheckedIOException(this.failure);
+		Entry entry = new Entry(player, shape, pegs, moves, durationMillis, record, System.currentTimeMillis());
+		if (!this.queue.offer(entry)) {
+			this.dropped.incrementAndGet();
+			return false;
+		}
+		this.added.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Returns the best results on a board shape.
+	 *
+	 * @param shape the board shape code
+	 * @param count the most results to return
+	 * @return the results, best first
+	 */
+	public List<Entry> top(byte shape, int count) {
+		synchronized (this.byShape) {
+			return first(this.byShape.get(shape), count);
+		}
+	}
+
+	/**
+	 * Returns the best results of a player.
+	 *
+	 * @param player the name of the player
+	 * @param count  the most results to return
+	 * @return the results, best first
+	 */
+	public List<Entry> byPlayer(String player, int count) {
+		synchronized (this.byShape) {
+			return first(this.byPlayer.get(player), count);
+		}
+	}
+
+	/** @return the number of results on disk */
+	public int size() {
+		synchronized (this.byShape) {
+			return this.size;
+		}
+	}
+
+	/** @return the directory of the segments */
+	public Path getDirectory() {
+		return this.directory;
+	}
+
+	/** @return true if another process is writing the leaderboard, so results cannot be added */
+	public boolean isReadOnly() {
+		return this.lock == null;
+	}
+
+	/** @return the number of results dropped because the writer fell behind */
+	public long getDropped() {
+		return this.dropped.get();
+	}
+
+	/**
+	 * Waits until every result added so far is on disk.
+	 *
+	 * @throws IOException if the results could not be written
+	 */
+	public void flush() throws IOException {
+		long target = this.added.get();
+		try {
+			synchronized (this.batchDone) {
+				while (this.durable < target && this.failure == null)
+					this.batchDone.wait();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (this.failure != null)
+			throw this.failure;
+	}
+
+	/**
+	 * Writes every result added so far, closes the log and releases the lock.
+	 *
+	 * @throws IOException if the results could not be written
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (this.lock != null) {
+				this.queue.put(STOP);
+				this.writer.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			this.closeFiles();
+		}
+		if (this.failure != null)
+			throw this.failure;
+	}
+
+	/**
+	 * Closes the segment being written and the lock file, which releases the
+	 * lock.
+	 *
+	 * @throws IOException if a file cannot be closed
+	 */
+	private void closeFiles() throws IOException {
+		try {
+			if (this.channel != null)
+				this.channel.close();
+		} finally {
+			if (this.lock != null) {
+				synchronized (LOCKED) {
+					this.lock.channel().close();
+					LOCKED.remove(this.directory.toAbsolutePath().normalize());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs on the writer thread: writes the queued results in batches, forces
+	 * each batch to disk and then adds it to the index.
+	 */
+	private void writeEntries() {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BATCH * (ENTRY_OVERHEAD + MAX_NAME_BYTES));
+		CRC32C crc = new CRC32C();
+		List<Entry> batch = new ArrayList<Entry>(BATCH);
+		boolean stopping = false;
+		while (!stopping) {
+			try {
+				batch.add(this.queue.take());
+			} catch (InterruptedException e) {
+				return;
+			}
+			this.queue.drainTo(batch, BATCH - 1);
+			if (batch.get(batch.size() - 1) == STOP) {
+				batch.remove(batch.size() - 1);
+				stopping = true;
+			}
+
+			if (this.failure == null && !batch.isEmpty()) {
+				try {
+					buffer.clear();
+					for (Entry entry : batch)
+						encode(entry, buffer, crc);
+					buffer.flip();
+					while (buffer.hasRemaining())
+						this.channel.write(buffer);
+					this.channel.force(false);
+					if (this.channel.size() >= SEGMENT_BYTES) {
+						this.channel.close();
+						this.openSegment(this.segment + 1);
+					}
+					this.index(batch);
+					this.durable += batch.size();
+				} catch (IOException e) {
+					this.failure = e;
+				}
+				synchronized (this.batchDone) {
+					this.batchDone.notifyAll();
+				}
+			}
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Adds entries to the index.
+	 *
+	 * @param entries the entries, in the order of the log
+	 */
+	private void index(List<Entry> entries) {
+		synchronized (this.byShape) {
+			for (Entry entry : entries) {
+				entry.sequence = this.sequence++;
+				this.byShape.computeIfAbsent(entry.shape, shape -> new TreeSet<Entry>(RANKING)).add(entry);
+				this.byPlayer.computeIfAbsent(entry.player, player -> new TreeSet<Entry>(RANKING)).add(entry);
+				this.size++;
+			}
+		}
+	}
+
+	/**
+	 * Reads every entry of a segment into the index. A segment that ends in
+	 * a broken entry is cut back to the last good one, but only by the
+	 * process holding the lock: for the others it may be an entry still
+	 * being written.
+	 *
+	 * @param path the segment
+	 * @throws IOException if the segment cannot be read or is not a segment
+	 */
+	private void scan(Path path) throws IOException {
+		ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+		if (data.remaining() < HEADER_BYTES || data.getInt() != MAGIC || data.getInt() != VERSION)
+			throw new IOException(path + " is not a leaderboard segment");
+
+		List<Entry> entries = new ArrayList<Entry>();
+		CRC32C crc = new CRC32C();
+		while (data.remaining() >= ENTRY_OVERHEAD) {
+			int start = data.position();
+			int length = data.getInt(start);
+			if (length < ENTRY_OVERHEAD - 8 || length > ENTRY_OVERHEAD - 8 + MAX_NAME_BYTES
+					|| start + 8 + length > data.limit())
+				break;
+			crc.reset();
+			crc.update(data.duplicate().position(start + 4).limit(start + 4 + length));
+			if (data.getInt(start + 4 + length) != (int) crc.getValue())
+				break;
+
+			data.position(start + 4);
+			long time = data.getLong();
+			long durationMillis = data.getLong();
+			long record = data.getLong();
+			byte shape = data.get();
+			int pegs = data.get();
+			int moves = data.getShort() & 0xFFFF;
+			byte[] name = new byte[data.getShort() & 0xFFFF];
+			data.get(name);
+			data.getInt(); // the checksum
+			entries.add(new Entry(new String(name, StandardCharsets.UTF_8), shape, pegs, moves, durationMillis,
+					record, time));
+		}
+		this.index(entries);
+
+		// Drop whatever a crash left half written
+		if (this.lock != null && data.position() < data.limit()) {
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+				channel.truncate(data.position());
+			}
+		}
+	}
+
+	/**
+	 * Opens a segment for appending, creating it if it does not exist.
+	 *
+	 * @param number the number of the segment
+	 * @throws IOException if the segment cannot be opened
+	 */
+	private void openSegment(int number) throws IOException {
+		Path path = this.directory.resolve(String.format("segment-%08d.log", number));
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		if (this.channel.size() == 0) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+			while (header.hasRemaining())
+				this.channel.write(header);
+		}
+		this.segment = number;
+	}
+
+	/**
+	 * Appends one entry to a buffer: its length, its fields and the checksum
+	 * of the fields.
+	 *
+	 * @param entry  the entry
+	 * @param buffer where the entry is put
+	 * @param crc    the checksum to use
+	 */
+	private static void encode(Entry entry, ByteBuffer buffer, CRC32C crc) {
+		byte[] name = entry.player.getBytes(StandardCharsets.UTF_8);
+		if (name.length > MAX_NAME_BYTES)
+			name = Arrays.copyOf(name, MAX_NAME_BYTES);
+		int start = buffer.position();
+		buffer.putInt(ENTRY_OVERHEAD - 8 + name.length);
+		buffer.putLong(entry.time).putLong(entry.durationMillis).putLong(entry.record);
+		buffer.put(entry.shape).put((byte) entry.pegs).putShort((short) entry.moves);
+		buffer.putShort((short) name.length).put(name);
+		crc.reset();
+		crc.update(buffer.duplicate().position(start + 4).limit(buffer.position()));
+		buffer.putInt((int) crc.getValue());
+	}
+
+	/**
+	 * Returns the first entries of a set.
+	 *
+	 * @param entries the set, or null for none
+	 * @param count   the most entries to return
+	 * @return the entries, in order
+	 */
+	private static List<Entry> first(TreeSet<Entry> entries, int count) {
+		List<Entry> list = new ArrayList<Entry>(Math.max(0, Math.min(count, entries == null ? 0 : entries.size())));
+		if (entries != null)
+			for (Entry entry : entries)
+				if (list.size() < count)
+					list.add(entry);
+				else
+					break;
+		return list;
+	}
+
+	/**
+	 * Returns the number in a segment's file name.
+	 *
+	 * @param path the segment
+	 * @return its number
+	 */
+	private static int segmentNumber(Path path) {
+		String name = path.getFileName().toString();
+		return Integer.parseInt(name.substring("segment-".length(), name.length() - ".log".length()));
+	}
+
+	/**
+	 * One result on the leaderboard.
+	 */
+	public static final class Entry {
+		private final String player; // the name of the player
+		private final byte shape; // the board shape code
+		private final int pegs; // the pegs left at the end
+		private final int moves; // the jumps made
+		private final long durationMillis; // how long the game took
+		private final long record; // where the game's record can be found
+		private final long time; // when the result was added, in epoch milliseconds
+		private long sequence; // its place in the log, set when indexed
+
+		/**
+		 * Constructs a result.
+		 *
+		 * @param player         the name of the player
+		 * @param shape          the board shape code
+		 * @param pegs           the pegs left at the end
+		 * @param moves          the jumps made
+		 * @param durationMillis how long the game took
+		 * @param record         where the game's record can be found
+		 * @param time           when the result was added
+		 */
+		Entry(String player, byte shape, int pegs, int moves, long durationMillis, long record, long time) {
+			this.player = player;
+			this.shape = shape;
+			this.pegs = pegs;
+			this.moves = moves;
+			this.durationMillis = durationMillis;
+			this.record = record;
+			this.time = time;
+		}
+
+		/** @return the name of the player */
+		public String getPlayer() {
+			return this.player;
+		}
+
+		/** @return the board shape code */
+		public byte getShape() {
+			return this.shape;
+		}
+
+		/** @return the pegs left at the end */
+		public int getPegs() {
+			return this.pegs;
+		}
+
+		/** @return the jumps made */
+		public int getMoves() {
+			return this.moves;
+		}
+
+		/** @return how long the game took, in milliseconds */
+		public long getDurationMillis() {
+			return this.durationMillis;
+		}
+
+		/** @return where the game's record can be found */
+		public long getRecord() {
+			return this.record;
+		}
+
+		/** @return when the result was added, in epoch milliseconds */
+		public long getTime() {
+			return this.time;
+		}
+
+		/**
+		 * Returns the result in the form "alice 1 peg, 31 moves, 95.2 s".
+		 *
+		 * @return string representation of the result
+		 */
+		public String toString() {
+			return String.format("%s %d %s, %d moves, %.1f s", this.player, this.pegs, this.pegs == 1 ? "peg" : "pegs",
+					this.moves, this.durationMillis / 1000.0);
+		}
+	}
+}
@@ -0,0 +1,272 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * This class is an opening book: the best finish and a best jump of every
+ * position reachable in the first few jumps from the standard start. The
+ * early positions are the most expensive to search and their answers never
+ * change, so the book is built once (see main) and later looked up with no
+ * search at all.
+ *
+ * Positions are stored by their canonical form (see Symmetry) in a sorted
+ * array and found by binary search. The best jump is stored as it is made
+ * on the canonical form and mapped back onto the board asked about.
+ *
+ * The file is big-endian:
+ *
+ * <pre>
+ * magic "PGOB", version, depth, position count
+ * the canonical positions, sorted, as longs
+ * the best finish of each position, one byte each
+ * the best jump on each canonical position, one byte each (-1 if none)
+ * CRC32 of everything before it
+ * </pre>
+ *
+ * A book never changes once built, so any number of threads may use it.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public final class OpeningBook {
+	/** Name of the book file */
+	public static final String FILE = "opening-book.bin";
+
+	/** Result of bestFinish and bestJump for a position not in the book */
+	public static final int OUT_OF_BOOK = -1;
+
+	/** First int of the file: "PGOB" */
+	private static final int MAGIC = 0x50474F42;
+
+	/** Version of the file format */
+	private static final int VERSION = 1;
+
+	private int depth; // the number of jumps the book covers
+	private long[] positions; // canonical positions, sorted
+	private byte[] finishes; // best finish of each position
+	private byte[] jumps; // best jump on each canonical position, -1 if none
+
+	/**
+	 * Constructs a book from its tables.
+	 *
+	 * @param depth     the number of jumps the book covers
+	 * @param positions canonical positions, sorted
+	 * @param finishes  best finish of each position
+	 * @param jumps     best jump on each canonical position
+	 */
+	private OpeningBook(int depth, long[] positions, byte[] finishes, byte[] jumps) {
+		this.depth = depth;
+		this.positions = positions;
+		this.finishes = finishes;
+		this.jumps = jumps;
+	}
+
+	/**
+	 * Builds a book and writes it to a file.
+	 *
+	 * Usage: OpeningBook [depth] [file]
+	 *
+	 * @param args command line arguments: the number of jumps to cover
+	 *             (default 10) and where to write (opening-book.bin)
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		Path path = Paths.get(args.length > 1 ? args[1] : FILE);
+		long started = System.nanoTime();
+		OpeningBook book = build(PackedBoard.START, depth);
+		book.write(path);
+		System.out.printf("Wrote %s: %d positions to %d jumps, %d bytes, %.1f s%n", path, book.size(), depth,
+				Files.size(path), (System.nanoTime() - started) / 1e9);
+	}
+
+	/**
+	 * Builds a book by searching every position reachable from a start.
+	 *
+	 * @param start the packed start position
+	 * @param depth the number of jumps to cover
+	 * @return the book
+	 */
+	public static OpeningBook build(long start, int depth) {
+		// Collect the canonical positions one jump at a time
+		long[][] levels = new long[depth + 1][];
+		levels[0] = new long[] { Symmetry.canonical(start) };
+		int total = 1;
+		for (int ply = 1; ply <= depth; ply++) {
+			long[] next = new long[levels[ply - 1].length * 16];
+			int count = 0;
+			for (long board : levels[ply - 1]) {
+				for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++) {
+					if (PackedBoard.isLegal(board, jump)) {
+						if (count == next.length)
+							next = Arrays.copyOf(next, count * 2);
+						next[count++] = Symmetry.canonical(PackedBoard.apply(board, jump));
+					}
+				}
+			}
+			Arrays.sort(next, 0, count);
+			levels[ply] = distinct(next, count);
+			total += levels[ply].length;
+		}
+
+		// Jumps never add pegs, so no position is on two levels
+		long[] positions = new long[total];
+		int at = 0;
+		for (long[] level : levels) {
+			System.arraycopy(level, 0, positions, at, level.length);
+			at += level.length;
+		}
+		Arrays.sort(positions);
+
+		// Search the deepest positions first, so the shallow ones find their answers cached
+		PegSolver solver = new PegSolver();
+		for (int ply = depth; ply >= 0; ply--)
+			for (long board : levels[ply])
+				solver.bestFinish(board);
+		byte[] finishes = new byte[total];
+		byte[] jumps = new byte[total];
+		for (int i = 0; i < total; i++) {
+			long board = positions[i];
+			int best = solver.bestFinish(board);
+			finishes[i] = (byte) best;
+			jumps[i] = -1;
+			for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++) {
+				if (PackedBoard.isLegal(board, jump) && solver.bestFinish(PackedBoard.apply(board, jump)) == best) {
+					jumps[i] = (byte) jump;
+					break;
+				}
+			}
+		}
+		return new OpeningBook(depth, positions, finishes, jumps);
+	}
+
+	/**
+	 * Reads a book from a file.
+	 *
+	 * @param path the file
+	 * @return the book
+	 * @throws IOException if the file cannot be read or is not a valid book
+	 */
+	public static OpeningBook read(Path path) throws IOException {
+		byte[] bytes = Files.readAllBytes(path);
+		ByteBuffer data = ByteBuffer.wrap(bytes);
+		if (bytes.length < 20 || data.getInt() != MAGIC || data.getInt() != VERSION)
+			throw new IOException("Not an opening book: " + path);
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length - 4);
+		int depth = data.getInt();
+		int count = data.getInt();
+		if (count < 0 || bytes.length != 16 + count * 10L + 4 || data.getInt(bytes.length - 4) != (int) crc.getValue())
+			throw new IOException("Damaged opening book: " + path);
+
+		long[] positions = new long[count];
+		data.asLongBuffer().get(positions);
+		data.position(data.position() + count * 8);
+		byte[] finishes = new byte[count];
+		byte[] jumps = new byte[count];
+		data.get(finishes).get(jumps);
+		return new OpeningBook(depth, positions, finishes, jumps);
+	}
+
+	/**
+	 * Writes the book to a file.
+	 *
+	 * @param path the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path path) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + this.positions.length * 10 + 4);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(this.depth);
+			out.writeInt(this.positions.length);
+			for (long board : this.positions)
+				out.writeLong(board);
+			out.write(this.finishes);
+			out.write(this.jumps);
+			CRC32 crc = new CRC32();
+			crc.update(bytes.toByteArray());
+			out.writeInt((int) crc.getValue());
+		}
+		Files.write(path, bytes.toByteArray());
+	}
+
+	/**
+	 * Returns the fewest pegs that can be left from a position.
+	 *
+	 * @param board the packed position
+	 * @return the fewest pegs that can be left, or OUT_OF_BOOK
+	 */
+	public int bestFinish(long board) {
+		int i = Arrays.binarySearch(this.positions, Symmetry.canonical(board));
+		return i < 0 ? OUT_OF_BOOK : this.finishes[i];
+	}
+
+	/**
+	 * Returns a jump that keeps the best finish of a position.
+	 *
+	 * @param board the packed position
+	 * @return the jump number, or OUT_OF_BOOK if the position is not in the
+	 *         book or has no jumps
+	 */
+	public int bestJump(long board) {
+		// Find the symmetry that takes the board to its canonical form
+		long canonical = Symmetry.canonical(board);
+		int i = Arrays.binarySearch(this.positions, canonical);
+		if (i < 0 || this.jumps[i] < 0)
+			return OUT_OF_BOOK;
+		int sym = 0;
+		while (Symmetry.transform(board, sym) != canonical)
+			sym++;
+
+		// The jump on the board is the one that lands on the book's jump
+		int best = this.jumps[i];
+		for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++)
+			if (Symmetry.map(PackedBoard.from(jump), sym) == PackedBoard.from(best)
+					&& Symmetry.map(PackedBoard.to(jump), sym) == PackedBoard.to(best))
+				return jump;
+		return OUT_OF_BOOK;
+	}
+
+	/**
+	 * Determines if a position is in the book.
+	 *
+	 * @param board the packed position
+	 * @return true if the book has its answers; false otherwise
+	 */
+	public boolean contains(long board) {
+		return Arrays.binarySearch(this.positions, Symmetry.canonical(board)) >= 0;
+	}
+
+	/** @return the number of jumps from the start the book covers */
+	public int getDepth() {
+		return this.depth;
+	}
+
+	/** @return the number of canonical positions in the book */
+	public int size() {
+		return this.positions.length;
+	}
+
+	/**
+	 * Removes repeats from the start of a sorted array.
+	 *
+	 * @param sorted the array, sorted up to count
+	 * @param count  the number of values in use
+	 * @return the distinct values, in order
+	 */
+	private static long[] distinct(long[] sorted, int count) {
+		int kept = 0;
+		for (int i = 0; i < count; i++)
+			if (kept == 0 || sorted[i] != sorted[kept - 1])
+				sorted[kept++] = sorted[i];
+		return Arrays.copyOf(sorted, kept);
+	}
+}
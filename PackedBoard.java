@@ -0,0 +1,278 @@
+import java.util.Arrays;
+
+/**
+ * This class packs a peg board into a single long, one bit per location,
+ * and numbers every possible jump on the board so that a move fits in one
+ * byte.
+ *
+ * Location (row, col) is bit row * 7 + col. A set bit is a peg. Jumps are
+ * numbered by the location of the jumping peg, then in the order up, down,
+ * left, right, which is the order openValidLocations lists them in.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public final class PackedBoard {
+	/** The side length of the square board */
+	public static final int SIZE = 7;
+
+	/** Bits of all locations on the board */
+	public static final long VALID;
+
+	/** The standard start: every location has a peg except the center */
+	public static final long START;
+
+	/** Row and column steps for up, down, left and right */
+	private static final int[][] DIRECTIONS = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+
+	/** Number of different jumps on the board */
+	public static final int JUMP_COUNT;
+
+	/** Bit index of the jumping peg, the jumped peg and the destination */
+	private static final int[] JUMP_FROM, JUMP_OVER, JUMP_TO;
+
+	/** Bits of the jumping peg and the jumped peg */
+	private static final long[] JUMP_PEGS;
+
+	/** Bits of all three locations in a jump */
+	private static final long[] JUMP_FLIP;
+
+	/** Jump number by bit index * 4 + direction, or -1 if off the board */
+	private static final int[] JUMP_BY_DIRECTION;
+
+	static {
+		PegBoard shape = new PegBoard();
+
+		// Mark every location on the board
+		long valid = 0;
+		for (int row = 0; row < SIZE; row++)
+			for (int col = 0; col < SIZE; col++)
+				if (shape.isValidLocation(row, col))
+					valid |= bit(row, col);
+		VALID = valid;
+		START = valid & ~bit(3, 3);
+
+		// Number every jump whose three locations are all on the board
+		int[] from = new int[SIZE * SIZE * 4];
+		int[] over = new int[from.length];
+		int[] to = new int[from.length];
+		int[] byDirection = new int[from.length];
+		int count = 0;
+		for (int row = 0; row < SIZE; row++) {
+			for (int col = 0; col < SIZE; col++) {
+				for (int dir = 0; dir < DIRECTIONS.length; dir++) {
+					int dr = DIRECTIONS[dir][0];
+					int dc = DIRECTIONS[dir][1];
+					int slot = (row * SIZE + col) * 4 + dir;
+					byDirection[slot] = -1;
+					if (shape.isValidLocation(row, col) && shape.isValidLocation(row + dr, col + dc)
+							&& shape.isValidLocation(row + 2 * dr, col + 2 * dc)) {
+						from[count] = index(row, col);
+						over[count] = index(row + dr, col + dc);
+						to[count] = index(row + 2 * dr, col + 2 * dc);
+						byDirection[slot] = count;
+						count++;
+					}
+				}
+			}
+		}
+
+		JUMP_COUNT = count;
+		JUMP_FROM = Arrays.copyOf(from, count);
+		JUMP_OVER = Arrays.copyOf(over, count);
+		JUMP_TO = Arrays.copyOf(to, count);
+		JUMP_BY_DIRECTION = byDirection;
+		JUMP_PEGS = new long[count];
+		JUMP_FLIP = new long[count];
+		for (int i = 0; i < count; i++) {
+			JUMP_PEGS[i] = (1L << JUMP_FROM[i]) | (1L << JUMP_OVER[i]);
+			JUMP_FLIP[i] = JUMP_PEGS[i] | (1L << JUMP_TO[i]);
+		}
+	}
+
+	/* no instances */
+	private PackedBoard() {
+	}
+
+	/**
+	 * Returns the bit index of a location.
+	 *
+	 * @param row the row of the location
+	 * @param col the column of the location
+	 * @return the bit index of the location
+	 */
+	public static int index(int row, int col) {
+		return row * SIZE + col;
+	}
+
+	/**
+	 * Returns the bit of a location.
+	 *
+	 * @param row the row of the location
+	 * @param col the column of the location
+	 * @return a long with only the bit of the location set
+	 */
+	public static long bit(int row, int col) {
+		return 1L << index(row, col);
+	}
+
+	/**
+	 * Packs a board into a long.
+	 *
+	 * @param board the board to pack
+	 * @return the packed board
+	 */
+	public static long pack(PegBoard board) {
+		long packed = 0;
+		for (int row = 0; row < SIZE; row++)
+			for (int col = 0; col < SIZE; col++)
+				if (board.isValidLocation(row, col) && board.isPeg(row, col))
+					packed |= bit(row, col);
+		return packed;
+	}
+
+	/**
+	 * Unpacks a long into a new board.
+	 *
+	 * @param packed the packed board
+	 * @return a board with the same pegs
+	 */
+	public static PegBoard unpack(long packed) {
+		PegBoard board = new PegBoard();
+		for (int row = 0; row < SIZE; row++) {
+			for (int col = 0; col < SIZE; col++) {
+				if (board.isValidLocation(row, col)) {
+					if ((packed & bit(row, col)) != 0)
+						board.putPeg(row, col);
+					else
+						board.removePeg(row, col);
+				}
+			}
+		}
+		return board;
+	}
+
+	/**
+	 * Returns the number of pegs on a packed board.
+	 *
+	 * @param packed the packed board
+	 * @return number of pegs
+	 */
+	public static int pegCount(long packed) {
+		return Long.bitCount(packed);
+	}
+
+	/**
+	 * Returns the number of the jump between two locations.
+	 *
+	 * @param fromRow the row of the jumping peg
+	 * @param fromCol the column of the jumping peg
+	 * @param toRow   the row of the destination
+	 * @param toCol   the column of the destination
+	 * @return the jump number, or -1 if there is no such jump on the board
+	 */
+	public static int jumpNumber(int fromRow, int fromCol, int toRow, int toCol) {
+		if (fromRow < 0 || fromRow >= SIZE || fromCol < 0 || fromCol >= SIZE)
+			return -1;
+		int dir;
+		if (toRow == fromRow - 2 && toCol == fromCol)
+			dir = 0;
+		else if (toRow == fromRow + 2 && toCol == fromCol)
+			dir = 1;
+		else if (toRow == fromRow && toCol == fromCol - 2)
+			dir = 2;
+		else if (toRow == fromRow && toCol == fromCol + 2)
+			dir = 3;
+		else
+			return -1;
+		return JUMP_BY_DIRECTION[index(fromRow, fromCol) * 4 + dir];
+	}
+
+	/**
+	 * Determines if a jump can be made on a packed board: the jumping and
+	 * jumped pegs are present and the destination is empty.
+	 *
+	 * @param packed the packed board
+	 * @param jump   the jump number
+	 * @return true if the jump is legal; false otherwise
+	 */
+	public static boolean isLegal(long packed, int jump) {
+		return (packed & JUMP_FLIP[jump]) == JUMP_PEGS[jump];
+	}
+
+	/**
+	 * Makes a jump on a packed board.
+	 * Precondition: isLegal(packed, jump) is true.
+	 *
+	 * @param packed the packed board
+	 * @param jump   the jump number
+	 * @return the packed board after the jump
+	 */
+	public static long apply(long packed, int jump) {
+		return packed ^ JUMP_FLIP[jump];
+	}
+
+	/**
+	 * Determines if a jump can be undone on a packed board: its destination
+	 * holds a peg and the other two holes are empty.
+	 *
+	 * @param packed the packed board
+	 * @param jump   the jump number
+	 * @return true if the jump can be undone; false otherwise
+	 */
+	public static boolean canUndo(long packed, int jump) {
+		return (packed & JUMP_FLIP[jump]) == 1L << JUMP_TO[jump];
+	}
+
+	/**
+	 * Takes back a jump on a packed board, putting the jumping and the jumped
+	 * peg back and emptying the destination.
+	 * Precondition: canUndo(packed, jump) is true.
+	 *
+	 * @param packed the packed board
+	 * @param jump   the jump number
+	 * @return the packed board before the jump
+	 */
+	public static long undo(long packed, int jump) {
+		return packed ^ JUMP_FLIP[jump];
+	}
+
+	/**
+	 * Determines if any jump can be made on a packed board.
+	 *
+	 * @param packed the packed board
+	 * @return true if at least one jump is legal; false otherwise
+	 */
+	public static boolean hasMove(long packed) {
+		for (int jump = 0; jump < JUMP_COUNT; jump++)
+			if ((packed & JUMP_FLIP[jump]) == JUMP_PEGS[jump])
+				return true;
+		return false;
+	}
+
+	/** @return bit index of the jumping peg */
+	public static int from(int jump) {
+		return JUMP_FROM[jump];
+	}
+
+	/** @return bit index of the jumped peg */
+	public static int over(int jump) {
+		return JUMP_OVER[jump];
+	}
+
+	/** @return bit index of the destination */
+	public static int to(int jump) {
+		return JUMP_TO[jump];
+	}
+
+	/**
+	 * Returns a jump in the form "(row, col) -> (row, col)".
+	 *
+	 * @param jump the jump number
+	 * @return string representation of the jump
+	 */
+	public static String jumpToString(int jump) {
+		return "(" + JUMP_FROM[jump] / SIZE + ", " + JUMP_FROM[jump] % SIZE + ") -> (" + JUMP_TO[jump] / SIZE
+				+ ", " + JUMP_TO[jump] % SIZE + ")";
+	}
+}
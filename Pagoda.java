@@ -0,0 +1,144 @@
+/**
+ * This class holds pagoda functions for finishing on one hole. A pagoda
+ * function gives every location a weight so that no jump can raise the
+ * total weight of the pegs. If the pegs on a board already weigh less than a
+ * single peg on the target hole, the board can never finish there.
+ *
+ * The weights are Fibonacci numbers that shrink with the distance from the
+ * target: F(n) = F(n - 1) + F(n - 2) means a jump straight towards the
+ * target keeps the total, and every other jump lowers it. Three distances
+ * are used: rows plus columns, rows only and columns only.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class Pagoda {
+	/** Number of pagoda functions checked */
+	private static final int FUNCTIONS = 3;
+
+	/** Fibonacci numbers, FIB[n] = F(n) */
+	private static final int[] FIB = new int[16];
+
+	static {
+		FIB[1] = 1;
+		for (int n = 2; n < FIB.length; n++)
+			FIB[n] = FIB[n - 1] + FIB[n - 2];
+	}
+
+	private int target; // bit index of the target hole
+	private int[][][] rowWeights; // [function][row][bits of the row] = weight
+	private int[] targetWeights; // weight of a single peg on the target
+
+	/**
+	 * Constructs the pagoda functions for a target hole.
+	 *
+	 * @param target the bit index of the target hole
+	 */
+	public Pagoda(int target) {
+		this.target = target;
+		int targetRow = target / PackedBoard.SIZE;
+		int targetCol = target % PackedBoard.SIZE;
+
+		// Weight of each location for each function
+		int[][] weights = new int[FUNCTIONS][49];
+		for (int row = 0; row < PackedBoard.SIZE; row++) {
+			for (int col = 0; col < PackedBoard.SIZE; col++) {
+				int rows = Math.abs(row - targetRow);
+				int cols = Math.abs(col - targetCol);
+				int index = PackedBoard.index(row, col);
+				weights[0][index] = FIB[14 - rows - cols];
+				weights[1][index] = FIB[8 - rows];
+				weights[2][index] = FIB[8 - cols];
+			}
+		}
+		this.init(weights);
+	}
+
+	/**
+	 * Builds the row tables from location weights.
+	 *
+	 * @param weights weights[function][bit index] for each function
+	 */
+	private void init(int[][] weights) {
+		this.rowWeights = new int[weights.length][PackedBoard.SIZE][128];
+		this.targetWeights = new int[weights.length];
+		for (int f = 0; f < weights.length; f++) {
+			this.targetWeights[f] = weights[f][this.target];
+			for (int row = 0; row < PackedBoard.SIZE; row++)
+				for (int bits = 0; bits < 128; bits++)
+					for (int col = 0; col < PackedBoard.SIZE; col++)
+						if ((bits & (1 << col)) != 0)
+							this.rowWeights[f][row][bits] += weights[f][PackedBoard.index(row, col)];
+		}
+	}
+
+	/** @return the bit index of the target hole */
+	public int getTarget() {
+		return this.target;
+	}
+
+	/**
+	 * Returns the weight of a location under one function.
+	 *
+	 * @param function the function, from 0
+	 * @param index    the bit index of the location
+	 * @return the weight
+	 */
+	public int weight(int function, int index) {
+		return this.rowWeights[function][index / PackedBoard.SIZE][1 << (index % PackedBoard.SIZE)];
+	}
+
+	/** @return the number of functions checked */
+	public int functionCount() {
+		return this.rowWeights.length;
+	}
+
+	/**
+	 * Determines if a board might still finish with one peg on one of some
+	 * holes: it is not ruled out by the pagoda functions of at least one.
+	 *
+	 * @param board   the packed board
+	 * @param targets packed holes the last peg may end on
+	 * @return false if the board can never finish on any of the holes
+	 */
+	public static boolean canReach(long board, long targets) {
+		for (long left = targets; left != 0; left &= left - 1)
+			if (!Holes.PAGODAS[Long.numberOfTrailingZeros(left)].rulesOut(board))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Determines if a board can be ruled out: its pegs weigh less than a
+	 * single peg on the target under one of the functions.
+	 *
+	 * @param board the packed board
+	 * @return true if the board can never finish with one peg on the target
+	 */
+	public boolean rulesOut(long board) {
+		for (int f = 0; f < this.rowWeights.length; f++) {
+			int[][] table = this.rowWeights[f];
+			int total = table[0][(int) board & 127] + table[1][(int) (board >>> 7) & 127]
+					+ table[2][(int) (board >>> 14) & 127] + table[3][(int) (board >>> 21) & 127]
+					+ table[4][(int) (board >>> 28) & 127] + table[5][(int) (board >>> 35) & 127]
+					+ table[6][(int) (board >>> 42) & 127];
+			if (total < this.targetWeights[f])
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * The pagoda functions of every hole, built the first time canReach is
+	 * called.
+	 */
+	private static class Holes {
+		private static final Pagoda[] PAGODAS = new Pagoda[49];
+
+		static {
+			for (int index = 0; index < PAGODAS.length; index++)
+				if ((PackedBoard.VALID & 1L << index) != 0)
+					PAGODAS[index] = new Pagoda(index);
+		}
+	}
+}
@@ -0,0 +1,348 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/**
+ * This class judges a position without searching it: it predicts how many
+ * pegs will be left at the end of the game. The board is looked at through
+ * every 3 x 3 window, and each window's pegs pick one weight from that
+ * window's table. The prediction is the sum of the weights, so evaluating a
+ * position costs 25 table lookups.
+ *
+ * The weights are learned by self-play (see train). Games are played from
+ * the standard start on a pool of threads by a player that takes the jump
+ * whose position the current table likes best, and now and then a random
+ * one so that other positions are seen too. Every position of a game is
+ * then pulled toward the number of pegs the game ended with. Each round
+ * plays its games with the table frozen, adds up every thread's
+ * corrections and applies them once, so the result does not depend on how
+ * the games were spread over threads.
+ *
+ * The file written by main is big-endian:
+ *
+ * <pre>
+ * magic "PGPT", version, number of windows
+ * bias, then 512 weights per window, as floats
+ * CRC32 of everything before it
+ * </pre>
+ *
+ * A table is only changed while training, so once trained any number of
+ * threads may evaluate with it.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class PatternTable {
+	/** Name of the table file */
+	public static final String FILE = "patterns.bin";
+
+	/** Windows across and down: every 3 x 3 window on the 7 x 7 grid */
+	private static final int SPAN = PackedBoard.SIZE - 2;
+
+	/** Number of windows */
+	private static final int WINDOWS = SPAN * SPAN;
+
+	/** Weights of each window, one for every way its 9 holes can be filled */
+	private static final int PATTERNS = 1 << 9;
+
+	/** First int of the file: "PGPT" */
+	private static final int MAGIC = 0x50475054;
+
+	/** Version of the file format */
+	private static final int VERSION = 1;
+
+	/** Share of jumps made at random while training */
+	private static final double EXPLORE = 0.1;
+
+	private float bias; // prediction before any window is looked at
+	private float[] weights = new float[WINDOWS * PATTERNS]; // weights[window * PATTERNS + pattern]
+
+	/**
+	 * Constructs a table that predicts the same for every position.
+	 *
+	 * @param bias the prediction
+	 */
+	public PatternTable(float bias) {
+		this.bias = bias;
+	}
+
+	/**
+	 * Trains a table by self-play, writes it and compares its player with
+	 * the greedy one.
+	 *
+	 * Usage: PatternTable [games per round] [rounds] [threads] [file]
+	 *
+	 * @param args command line arguments
+	 * @throws Exception if the table cannot be written
+	 */
+	public static void main(String[] args) throws Exception {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		Path path = Paths.get(args.length > 3 ? args[3] : FILE);
+
+		PatternTable table = new PatternTable(PackedBoard.pegCount(PackedBoard.START) / 4f);
+		SplittableRandom random = new SplittableRandom(1);
+		long started = System.nanoTime();
+		for (int round = 1; round <= rounds; round++) {
+			double[] stats = table.train(games, threads, random.split());
+			System.out.printf("round %d: %.2f pegs left, prediction error %.2f pegs, %.1f s%n", round, stats[0],
+					Math.sqrt(stats[1]), (System.nanoTime() - started) / 1e9);
+		}
+		table.write(path);
+		System.out.println("Wrote " + path);
+
+		Tournament tournament = new Tournament(JumpRules.ENGLISH, Tournament.randomStarts(JumpRules.ENGLISH, 2000, 2),
+				threads);
+		tournament.add("greedy", Strategy::greedy);
+		tournament.add("patterns", () -> Strategy.pattern(table));
+		for (Tournament.Standing standing : tournament.play())
+			System.out.println(standing);
+	}
+
+	/**
+	 * Reads a table from a file.
+	 *
+	 * @param path the file
+	 * @return the table
+	 * @throws IOException if the file cannot be read or is not a valid table
+	 */
+	public static PatternTable read(Path path) throws IOException {
+		byte[] bytes = Files.readAllBytes(path);
+		ByteBuffer data = ByteBuffer.wrap(bytes);
+		if (bytes.length != 12 + 4 + WINDOWS * PATTERNS * 4 + 4 || data.getInt() != MAGIC || data.getInt() != VERSION
+				|| data.getInt() != WINDOWS)
+			throw new IOException("Not a pattern table: " + path);
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length - 4);
+		if (data.getInt(bytes.length - 4) != (int) crc.getValue())
+			throw new IOException("Damaged pattern table: " + path);
+
+		PatternTable table = new PatternTable(data.getFloat());
+		data.asFloatBuffer().get(table.weights);
+		return table;
+	}
+
+	/**
+	 * Writes the table to a file.
+	 *
+	 * @param path the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path path) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(WINDOWS);
+			out.writeFloat(this.bias);
+			for (float weight : this.weights)
+				out.writeFloat(weight);
+			CRC32 crc = new CRC32();
+			crc.update(bytes.toByteArray());
+			out.writeInt((int) crc.getValue());
+		}
+		Files.write(path, bytes.toByteArray());
+	}
+
+	/**
+	 * Predicts how many pegs will be left at the end of a game.
+	 *
+	 * @param board the packed position
+	 * @return the predicted number of pegs
+	 */
+	public float evaluate(long board) {
+		float sum = this.bias;
+		int window = 0;
+		for (int row = 0; row < SPAN; row++) {
+			long rows = board >>> row * PackedBoard.SIZE;
+			for (int col = 0; col < SPAN; col++)
+				sum += this.weights[window++ * PATTERNS + pattern(rows, col)];
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the jump whose position is predicted to leave the fewest pegs,
+	 * taking the first on a tie.
+	 *
+	 * @param board the packed position
+	 * @return the jump number, or -1 if no jump can be made
+	 */
+	public int bestJump(long board) {
+		int best = -1;
+		float bestValue = Float.POSITIVE_INFINITY;
+		for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++) {
+			if (PackedBoard.isLegal(board, jump)) {
+				float value = this.evaluate(PackedBoard.apply(board, jump));
+				if (value < bestValue) {
+					best = jump;
+					bestValue = value;
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Plays one round of self-play and applies what it learned.
+	 *
+	 * @param games   the number of games to play
+	 * @param threads the number of threads to play on
+	 * @param random  the source of the round's random jumps
+	 * @return the average pegs left and the mean squared prediction error
+	 * @throws InterruptedException if interrupted while waiting for games
+	 */
+	public double[] train(int games, int threads, SplittableRandom random) throws InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "self-play");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			// Each thread plays its share with its own random numbers and its own sums
+			List<Future<Corrections>> parts = new ArrayList<Future<Corrections>>();
+			for (int t = 0; t < threads; t++) {
+				SplittableRandom own = random.split();
+				int share = games / threads + (t < games % threads ? 1 : 0);
+				parts.add(pool.submit(() -> this.selfPlay(share, own)));
+			}
+			Corrections total = new Corrections();
+			for (Future<Corrections> part : parts)
+				total.add(part.get());
+			this.apply(total);
+			return new double[] { total.pegs / (double) Math.max(1, total.games),
+					total.squaredError / Math.max(1, total.positions) };
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Plays games with the table as it is and sums how far each prediction
+	 * was from the end of its game.
+	 *
+	 * @param games  the number of games
+	 * @param random the source of random jumps
+	 * @return the sums
+	 */
+	private Corrections selfPlay(int games, SplittableRandom random) {
+		Corrections sums = new Corrections();
+		long[] positions = new long[64];
+		int[] legal = new int[PackedBoard.JUMP_COUNT];
+		for (int game = 0; game < games; game++) {
+			long board = PackedBoard.START;
+			int plies = 0;
+			while (true) {
+				positions[plies++] = board;
+				int count = 0;
+				for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++)
+					if (PackedBoard.isLegal(board, jump))
+						legal[count++] = jump;
+				if (count == 0)
+					break;
+				int jump = random.nextDouble() < EXPLORE ? legal[random.nextInt(count)] : this.bestJump(board);
+				board = PackedBoard.apply(board, jump);
+			}
+
+			int pegs = PackedBoard.pegCount(board);
+			sums.games++;
+			sums.pegs += pegs;
+			for (int ply = 0; ply < plies; ply++)
+				sums.add(this, positions[ply], pegs);
+		}
+		return sums;
+	}
+
+	/**
+	 * Moves every weight by the average error of the positions that used it,
+	 * shared over the windows.
+	 *
+	 * @param sums the errors of a round
+	 */
+	private void apply(Corrections sums) {
+		this.bias -= (float) (sums.biasError / Math.max(1, sums.positions) / (WINDOWS + 1));
+		for (int i = 0; i < this.weights.length; i++)
+			if (sums.uses[i] > 0)
+				this.weights[i] -= (float) (sums.errors[i] / sums.uses[i] / (WINDOWS + 1));
+	}
+
+	/**
+	 * Returns which way a window's 9 holes are filled.
+	 *
+	 * @param rows the packed board shifted so the window's top row is first
+	 * @param col  the window's left column
+	 * @return the pattern, from 0 to 511
+	 */
+	private static int pattern(long rows, int col) {
+		return (int) (rows >>> col & 7) | (int) (rows >>> PackedBoard.SIZE + col & 7) << 3
+				| (int) (rows >>> 2 * PackedBoard.SIZE + col & 7) << 6;
+	}
+
+	/**
+	 * The prediction errors of some games, summed by weight.
+	 */
+	private static class Corrections {
+		private double[] errors = new double[WINDOWS * PATTERNS]; // summed errors of the positions using a weight
+		private long[] uses = new long[WINDOWS * PATTERNS]; // positions that used a weight
+		private double biasError; // summed errors of all positions
+		private double squaredError; // summed squared errors of all positions
+		private long positions; // positions seen
+		private long games; // games played
+		private long pegs; // pegs left by all games
+
+		/**
+		 * Adds the error of one position.
+		 *
+		 * @param table the table being trained
+		 * @param board the packed position
+		 * @param pegs  the pegs its game ended with
+		 */
+		void add(PatternTable table, long board, int pegs) {
+			double error = table.evaluate(board) - pegs;
+			this.biasError += error;
+			this.squaredError += error * error;
+			this.positions++;
+			int window = 0;
+			for (int row = 0; row < SPAN; row++) {
+				long rows = board >>> row * PackedBoard.SIZE;
+				for (int col = 0; col < SPAN; col++) {
+					int i = window++ * PATTERNS + pattern(rows, col);
+					this.errors[i] += error;
+					this.uses[i]++;
+				}
+			}
+		}
+
+		/**
+		 * Adds the sums of other games.
+		 *
+		 * @param other the other sums
+		 */
+		void add(Corrections other) {
+			for (int i = 0; i < this.errors.length; i++) {
+				this.errors[i] += other.errors[i];
+				this.uses[i] += other.uses[i];
+			}
+			this.biasError += other.biasError;
+			this.squaredError += other.squaredError;
+			this.positions += other.positions;
+			this.games += other.games;
+			this.pegs += other.pegs;
+		}
+	}
+}
@@ -1,7 +1,8 @@
 /**
  * This class represents the board for the Peg Solitaire game.
- * It is a 7x7 board with the corners removed, representing the
- * standard English version of the game.
+ * By default it is a 7x7 board with the corners removed, representing the
+ * standard English version of the game. Boards of other shapes that fit
+ * in 7x7 can be made from the bits of their holes (see JumpRules).
  *
  * @author Aarav Goyal
  * @since September 30, 2025
@@ -13,8 +14,12 @@ public class PegBoard {
 
 	private final int BOARD_SIZE = 7; // the side length of the square board
 
+	private final long holes; // bits of the locations on the board, (row, col) at bit row * 7 + col
+
 	/* constructor */
 	public PegBoard() {
+		holes = englishHoles();
+
 		// initialize board
 		board = new char[BOARD_SIZE][BOARD_SIZE];
 
@@ -45,10 +50,42 @@ public class PegBoard {
 		removePeg(3, 3);
 	}
 
+	/**
+	 * Constructs a board of any shape that fits in 7x7.
+	 * 
+	 * @param holes bits of the locations on the board, (row, col) at bit
+	 *              row * 7 + col
+	 * @param pegs  bits of the locations that hold a peg
+	 */
+	public PegBoard(long holes, long pegs) {
+		this.holes = holes;
+		board = new char[BOARD_SIZE][BOARD_SIZE];
+		for (int row = 0; row < BOARD_SIZE; row++)
+			for (int col = 0; col < BOARD_SIZE; col++)
+				if ((pegs & holes & 1L << (row * BOARD_SIZE + col)) != 0)
+					putPeg(row, col);
+				else
+					removePeg(row, col);
+	}
+
+	/** @return bits of the locations of the standard board, the square without its corners */
+	private static long englishHoles() {
+		long holes = 0;
+		for (int row = 0; row < 7; row++)
+			for (int col = 0; col < 7; col++)
+				if (!((row < 2 || row > 4) && (col < 2 || col > 4)))
+					holes |= 1L << (row * 7 + col);
+		return holes;
+	}
+
 	/**
 	 * Print the peg board to the screen.
 	 */
 	public void printBoard() {
+		if (holes != englishHoles()) {
+			printShape();
+			return;
+		}
 		System.out.println();
 		System.out.println(" col 0   1   2   3   4   5   6");
 		System.out.println("row        -------------");
@@ -83,6 +120,24 @@ public class PegBoard {
 		System.out.println();
 	}
 
+	/**
+	 * Print a board of another shape as a grid, with '.' for an empty hole.
+	 */
+	private void printShape() {
+		System.out.println();
+		System.out.print(" col");
+		for (int col = 0; col < BOARD_SIZE; col++)
+			System.out.print(" " + col);
+		System.out.println();
+		for (int row = 0; row < BOARD_SIZE; row++) {
+			System.out.printf(" %d  ", row);
+			for (int col = 0; col < BOARD_SIZE; col++)
+				System.out.print(" " + (!isValidLocation(row, col) ? ' ' : isPeg(row, col) ? 'P' : '.'));
+			System.out.println();
+		}
+		System.out.println();
+	}
+
 	/**
 	 * Returns a count of the number of pegs still on the board.
 	 * 
@@ -108,11 +163,8 @@ public class PegBoard {
 		// locations outside the square
 		if (row < 0 || row > 6 || col < 0 || col > 6)
 			return false;
-		// locations inside corners
-		if ((row == 0 || row == 1 || row == 5 || row == 6) &&
-				(col < 2 || col > 4))
-			return false;
-		return true;
+		// locations missing from the shape, such as the corners
+		return (holes & 1L << (row * BOARD_SIZE + col)) != 0;
 	}
 
 	/**
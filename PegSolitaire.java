@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList; // For using ArrayList
 import javax.swing.SwingUtilities;
 
@@ -9,26 +12,52 @@ import javax.swing.SwingUtilities;
  * @since September 30, 2025
  */
 public class PegSolitaire {
+	/** The jumps the game allows */
+	private final JumpRules rules;
+
 	/** The game board containing all peg positions */
-	private PegBoard board = new PegBoard();
+	private PegBoard board;
+
+	/**
+	 * The current position with the jumps that led to it, replaced after
+	 * every jump so other threads can read it without locks
+	 */
+	private volatile BoardSnapshot snapshot;
 
 	/**
 	 * Default constructor for PegSolitaire.
-	 * Initializes a new game with a fresh board.
+	 * Initializes a new game of the standard rules with a fresh board.
 	 */
 	public PegSolitaire() {
-		this.board = new PegBoard(); // Initialize board here
+		this(JumpRules.ENGLISH);
+	}
+
+	/**
+	 * Constructs a game of any rules (see JumpRules), starting from their
+	 * usual start.
+	 * 
+	 * @param rules the jumps the game allows
+	 */
+	public PegSolitaire(JumpRules rules) {
+		this.rules = rules;
+		this.resetGame();
 	}
 
 	/**
 	 * Main entry point for the Peg Solitaire application.
 	 * Creates a new game instance and starts the GUI.
 	 * 
-	 * @param args command line arguments (not used)
+	 * Usage: PegSolitaire [rules]
+	 * 
+	 * The rules are one of english (the default), english-diagonal and
+	 * triangle.
+	 * 
+	 * @param args command line arguments
+	 * @throws IllegalArgumentException if the rules have no such name
 	 */
 	public static void main(String[] args) {
 		// Create a new instance of the game
-		PegSolitaire game = new PegSolitaire();
+		PegSolitaire game = new PegSolitaire(args.length > 0 ? JumpRules.named(args[0]) : JumpRules.ENGLISH);
 
 		// Start the GUI
 		SwingUtilities.invokeLater(() -> {
@@ -37,6 +66,15 @@ public class PegSolitaire {
 		});
 	}
 
+	/**
+	 * Returns the rules of the game.
+	 * 
+	 * @return the jumps the game allows
+	 */
+	public JumpRules getRules() {
+		return this.rules;
+	}
+
 	/**
 	 * Returns the current game board.
 	 * 
@@ -46,11 +84,77 @@ public class PegSolitaire {
 		return this.board;
 	}
 
+	/**
+	 * Returns the current position as a snapshot that never changes. It is
+	 * safe to read from any thread, and a new one is published after every
+	 * jump.
+	 * 
+	 * @return the latest snapshot
+	 */
+	public BoardSnapshot getSnapshot() {
+		return this.snapshot;
+	}
+
 	/**
 	 * Resets the game to its initial state.
 	 */
 	public void resetGame() {
-		this.board = new PegBoard(); // Create a new board
+		this.snapshot = BoardSnapshot.of(this.rules, this.rules.getStart());
+		this.board = this.snapshot.toPegBoard(); // Create a new board
+	}
+
+	/**
+	 * Returns a record of the current game.
+	 * 
+	 * @return the start position and every jump made so far
+	 * @throws IllegalStateException if the game is not of the standard rules
+	 */
+	public GameRecord getRecord() {
+		return this.snapshot.toRecord();
+	}
+
+	/**
+	 * Saves the current game to a file, replacing anything already in it.
+	 * 
+	 * @param path the file to save to
+	 * @throws IOException if the file cannot be written or the game is not
+	 *                     of the standard rules
+	 */
+	public void saveGame(Path path) throws IOException {
+		if (this.rules != JumpRules.ENGLISH)
+			throw new IOException("Only games of the standard rules can be saved, not " + this.rules);
+		Files.deleteIfExists(path);
+		try (GameRecordWriter writer = GameRecordWriter.open(path)) {
+			writer.write(this.getRecord());
+		}
+	}
+
+	/**
+	 * Loads a game from a file and continues it from its last position.
+	 * 
+	 * @param path the file to load from
+	 * @throws IOException if the file cannot be read or holds no valid game
+	 *                     of the rules of this game
+	 */
+	public void loadGame(Path path) throws IOException {
+		if (this.rules != JumpRules.ENGLISH)
+			throw new IOException("Saved games are of the standard rules, not " + this.rules);
+		GameRecord record;
+		try (GameRecordReader reader = GameRecordReader.open(path)) {
+			if (!reader.next())
+				throw new IOException("No game in " + path);
+			record = reader.toRecord();
+		}
+
+		BoardSnapshot loaded;
+		try {
+			loaded = BoardSnapshot.of(record);
+		} catch (IllegalArgumentException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+
+		this.board = loaded.toPegBoard();
+		this.snapshot = loaded;
 	}
 
 	/**
@@ -69,8 +173,12 @@ public class PegSolitaire {
 	 * @param startRow    the row position of the peg to move
 	 * @param startCol    the column position of the peg to move
 	 * @param destination the Location object representing the jump destination
+	 * @throws IllegalArgumentException if the jump is not legal on the board
 	 */
 	public void playPeg(int startRow, int startCol, Location destination) {
+		long started = System.nanoTime();
+		BoardSnapshot next = this.snapshot.withJump(this.jumpNumber(startRow, startCol, destination));
+
 		// Execute the jump:
 		// 1. Remove the peg that was jumped over (midpoint between start and end)
 		this.board.removePeg((startRow + destination.getRow()) / 2, (startCol + destination.getCol()) / 2);
@@ -80,6 +188,29 @@ public class PegSolitaire {
 
 		// 3. Place the peg at its destination
 		this.board.putPeg(destination.getRow(), destination.getCol());
+
+		// 4. Record the jump and publish the new position
+		this.snapshot = next;
+
+		EngineMetrics.recordCall(EngineMetrics.Call.PLAY_PEG, started);
+	}
+
+	/**
+	 * Finds the rules' number of a jump.
+	 * 
+	 * @param startRow    the row of the jumping peg
+	 * @param startCol    the column of the jumping peg
+	 * @param destination where the peg lands
+	 * @return the jump number, or -1 if the rules have no such jump
+	 */
+	private int jumpNumber(int startRow, int startCol, Location destination) {
+		int to = PackedBoard.index(destination.getRow(), destination.getCol());
+		for (int i = 0; i < this.rules.jumpCountFrom(startRow, startCol); i++) {
+			int jump = this.rules.jumpFrom(startRow, startCol, i);
+			if (this.rules.to(jump) == to)
+				return jump;
+		}
+		return -1;
 	}
 
 	/**
@@ -91,98 +222,60 @@ public class PegSolitaire {
 	 * - An empty space two positions away in that direction
 	 * - All positions must be valid board locations
 	 * 
-	 * This method checks all four directions: up, down, left, right.
+	 * This method checks every jump direction of the rules (see JumpRules).
 	 * 
 	 * @param row the row position of the peg to check
 	 * @param col the column position of the peg to check
 	 * @return ArrayList of Location objects representing valid jump destinations
 	 */
 	public ArrayList<Location> openValidLocations(int row, int col) {
+		long started = System.nanoTime();
+
 		// List to store all valid jump destinations
 		ArrayList<Location> validLocations = new ArrayList<Location>();
 
-		// Check jump UP (row - 2)
+		// Check each jump the rules allow from here
 		// Requires: destination empty, middle peg exists, both locations valid
-		if (this.board.isValidLocation(row - 2, col) && !this.board.isPeg(row - 2, col)
-				&& this.board.isPeg(row - 1, col)) {
-			validLocations.add(new Location(row - 2, col));
-		}
-
-		// Check jump DOWN (row + 2)
-		// Requires: destination empty, middle peg exists, both locations valid
-		if (this.board.isValidLocation(row + 2, col) && !this.board.isPeg(row + 2, col)
-				&& this.board.isPeg(row + 1, col)) {
-			validLocations.add(new Location(row + 2, col));
-		}
-
-		// Check jump LEFT (col - 2)
-		// Requires: destination empty, middle peg exists, both locations valid
-		if (this.board.isValidLocation(row, col - 2) && !this.board.isPeg(row, col - 2)
-				&& this.board.isPeg(row, col - 1)) {
-			validLocations.add(new Location(row, col - 2));
-		}
-
-		// Check jump RIGHT (col + 2)
-		// Requires: destination empty, middle peg exists, both locations valid
-		if (this.board.isValidLocation(row, col + 2) && !this.board.isPeg(row, col + 2)
-				&& this.board.isPeg(row, col + 1)) {
-			validLocations.add(new Location(row, col + 2));
+		int count = this.rules.jumpCountFrom(row, col);
+		for (int i = 0; i < count; i++) {
+			int jump = this.rules.jumpFrom(row, col, i);
+			int over = this.rules.over(jump);
+			int to = this.rules.to(jump);
+			if (!this.board.isPeg(to / PackedBoard.SIZE, to % PackedBoard.SIZE)
+					&& this.board.isPeg(over / PackedBoard.SIZE, over % PackedBoard.SIZE)) {
+				validLocations.add(new Location(to / PackedBoard.SIZE, to % PackedBoard.SIZE));
+			}
 		}
 
 		// Return the list of valid jump destinations
+		EngineMetrics.recordCall(EngineMetrics.Call.OPEN_VALID_LOCATIONS, started);
 		return validLocations;
 	}
 
 	/**
 	 * Checks if any valid moves remain on the board.
 	 * 
-	 * This method scans the entire board looking for any empty space
-	 * that could be the destination of a valid jump. For each empty space,
-	 * it checks all four directions (up, down, left, right) to see if
-	 * there are two consecutive pegs that could jump into that space.
+	 * This method checks the whole board at once for a peg that has a peg
+	 * beside it and an empty space beyond, in every direction of the rules
+	 * (see JumpRules).
 	 * 
 	 * @return true if at least one valid move exists, false otherwise
 	 */
 	public boolean hasValidMove() {
-		// Scan every position on the board
-		for (int row = 0; row < this.board.getBoardSize(); ++row) {
-			for (int col = 0; col < this.board.getBoardSize(); ++col) {
-				// Only check empty spaces as potential jump destinations
-				if (this.board.isValidLocation(row, col) && !this.board.isPeg(row, col)) {
-
-					// Check if a peg can jump DOWN into this empty space
-					// Requires: peg at row-2 and peg at row-1 (to be jumped over)
-					if (this.board.isValidLocation(row - 2, col) && this.board.isValidLocation(row - 1, col)
-							&& this.board.isPeg(row - 2, col) && this.board.isPeg(row - 1, col)) {
-						return true;
-					}
-
-					// Check if a peg can jump UP into this empty space
-					// Requires: peg at row+2 and peg at row+1 (to be jumped over)
-					if (this.board.isValidLocation(row + 2, col) && this.board.isValidLocation(row + 1, col)
-							&& this.board.isPeg(row + 2, col) && this.board.isPeg(row + 1, col)) {
-						return true;
-					}
-
-					// Check if a peg can jump RIGHT into this empty space
-					// Requires: peg at col-2 and peg at col-1 (to be jumped over)
-					if (this.board.isValidLocation(row, col - 2) && this.board.isValidLocation(row, col - 1)
-							&& this.board.isPeg(row, col - 2) && this.board.isPeg(row, col - 1)) {
-						return true;
-					}
-
-					// Check if a peg can jump LEFT into this empty space
-					// Requires: peg at col+2 and peg at col+1 (to be jumped over)
-					if (this.board.isValidLocation(row, col + 2) && this.board.isValidLocation(row, col + 1)
-							&& this.board.isPeg(row, col + 2) && this.board.isPeg(row, col + 1)) {
-						return true;
-					}
-				}
-			}
-		}
+		long started = System.nanoTime();
+		boolean found = this.findValidMove();
+		EngineMetrics.recordCall(EngineMetrics.Call.HAS_VALID_MOVE, started);
+		return found;
+	}
 
-		// No valid moves found anywhere on the board
-		return false;
+	/**
+	 * Scans the board for a valid move (see hasValidMove).
+	 * 
+	 * @return true if at least one valid move exists, false otherwise
+	 */
+	private boolean findValidMove() {
+		// Pack the board once and let the rules check every direction at once
+		return this.rules.hasMove(PackedBoard.pack(this.board));
 	}
 
 	/**
@@ -0,0 +1,119 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * This class is the entry point for scripts: quick solves and checks that
+ * print their answer and exit. Unlike PegSolitaire.main it never loads
+ * java.awt or javax.swing, so it starts as fast as the JVM allows; with the
+ * class-data archive built by headless.sh it starts faster still.
+ *
+ * Commands:
+ * <ul>
+ * <li>solve [row col]: jumps from the standard start to one peg, on a hole
+ * or anywhere</li>
+ * <li>best: the fewest pegs that can be left from the standard start</li>
+ * <li>check "r c r c ...": replays a solution written as text from the
+ * standard start</li>
+ * <li>verify file...: replays every game in game record files</li>
+ * </ul>
+ *
+ * The exit status is 0 on success, 1 if a solution or game is not a win and
+ * 2 for a usage error.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class PegSolitaireCli {
+	/**
+	 * Runs one command.
+	 *
+	 * @param args command line arguments: the command and its arguments
+	 * @throws IOException if a game record file cannot be read
+	 */
+	public static void main(String[] args) throws IOException {
+		int status = args.length == 0 ? usage(System.err) : run(args, System.out);
+		System.out.flush();
+		if (status != 0)
+			System.exit(status);
+	}
+
+	/**
+	 * Runs one command.
+	 *
+	 * @param args the command and its arguments
+	 * @param out  where to print the answer
+	 * @return the exit status
+	 * @throws IOException if a game record file cannot be read
+	 */
+	public static int run(String[] args, PrintStream out) throws IOException {
+		switch (args[0]) {
+		case "solve": {
+			int target = args.length > 2 ? PackedBoard.index(Integer.parseInt(args[1]), Integer.parseInt(args[2]))
+					: -1;
+			byte[] solution = new PegSolver().solve(PackedBoard.START, target);
+			if (solution == null) {
+				out.println("No solution");
+				return 1;
+			}
+			for (int ply = 0; ply < solution.length; ply++)
+				out.println((ply + 1) + ": " + PackedBoard.jumpToString(solution[ply] & 0xFF));
+			return 0;
+		}
+		case "best":
+			out.println(new PegSolver().bestFinish(PackedBoard.START));
+			return 0;
+		case "check": {
+			String text = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+			byte[] moves = new byte[PackedBoard.JUMP_COUNT];
+			int result = SolutionVerifier.verifyText(text, 0, text.length(), moves);
+			out.println(describe(result));
+			return SolutionVerifier.isSolved(result) ? 0 : 1;
+		}
+		case "verify": {
+			int status = 0;
+			for (int i = 1; i < args.length; i++) {
+				try (GameRecordReader reader = GameRecordReader.open(Paths.get(args[i]))) {
+					for (int game = 1; reader.next(); game++) {
+						int result = SolutionVerifier.verify(reader.toRecord());
+						out.println(args[i] + " #" + game + ": " + describe(result));
+						if (!SolutionVerifier.isSolved(result))
+							status = 1;
+					}
+				}
+			}
+			return status;
+		}
+		default:
+			return usage(System.err);
+		}
+	}
+
+	/**
+	 * Returns a check result in words.
+	 *
+	 * @param result the result of SolutionVerifier.verify
+	 * @return the words, such as "solved" or "illegal jump 4"
+	 */
+	private static String describe(int result) {
+		if (result == SolutionVerifier.MALFORMED)
+			return "not a list of jumps";
+		if (result == SolutionVerifier.EMPTY)
+			return "no pegs at the start";
+		if (result < 0)
+			return "illegal jump " + -result;
+		return SolutionVerifier.isSolved(result) ? "solved" : result + " pegs left";
+	}
+
+	/**
+	 * Prints how to use the launcher.
+	 *
+	 * @param err where to print
+	 * @return the exit status of a usage error
+	 */
+	private static int usage(PrintStream err) {
+		err.println("Usage: PegSolitaireCli solve [row col] | best | check \"r c r c ...\" | verify file...");
+		return 2;
+	}
+}
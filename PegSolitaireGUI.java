@@ -1,7 +1,17 @@
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import javax.swing.*;
 
 public class PegSolitaireGUI extends JFrame {
@@ -13,12 +23,33 @@ public class PegSolitaireGUI extends JFrame {
 
     private Location selectedPeg = null; // To store the currently selected peg for a jump
 
+    private LatencyTracker latency = new LatencyTracker(); // Click-to-paint timing, off unless asked for
+
+    private GameAnalyzer analyzer = new GameAnalyzer(); // Finds the blunders when a game is lost
+
+    // Does the leaderboard's disk work, one task at a time, off the event thread
+    private ExecutorService recorder = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "leaderboard");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Leaderboard leaderboard; // Keeps the result of every finished game, or null; only used by the recorder
+    private long gameStarted = System.currentTimeMillis(); // When the current game began
+
     public PegSolitaireGUI(PegSolitaire game) {
         this.game = game;
         this.board = game.getBoard(); // Assuming PegSolitaire has a getBoard() method
 
+        recorder.execute(this::openLeaderboard);
+
         setTitle("Peg Solitaire");
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                exit();
+            }
+        });
         setResizable(false);
 
         // Main panel to hold the board and messages
@@ -50,6 +81,7 @@ public class PegSolitaireGUI extends JFrame {
             addMouseListener(new MouseAdapter() {
                 @Override
                 public void mousePressed(MouseEvent e) {
+                    latency.clickPressed();
                     int col = (e.getX() - BOARD_OFFSET_X) / CELL_SIZE;
                     int row = (e.getY() - BOARD_OFFSET_Y) / CELL_SIZE;
 
@@ -99,12 +131,21 @@ public class PegSolitaireGUI extends JFrame {
                     }
                 }
             }
+
+            // Show the click latency in the corner when asked for
+            if (latency.isOverlay()) {
+                g2d.setColor(Color.WHITE);
+                g2d.setFont(new Font("Monospaced", Font.PLAIN, 11));
+                g2d.drawString(latency.shortSummary(), 5, getHeight() - 8);
+            }
+            latency.painted();
         }
     }
 
     private void handleMouseClick(int row, int col) {
         if (!board.isValidLocation(row, col)) {
             messageLabel.setText("Invalid board location. Please click within the board.");
+            latency.clickCancelled(); // nothing on the board changes, so no paint would finish the sample
             return;
         }
 
@@ -161,6 +202,7 @@ public class PegSolitaireGUI extends JFrame {
             }
         }
         boardPanel.repaint(); // Redraw the board to reflect changes
+        latency.logicDone();
     }
 
     private void updateGameStatus() {
@@ -168,16 +210,46 @@ public class PegSolitaireGUI extends JFrame {
         int pegCount = board.pegCount();
         if (pegCount == 1) {
             messageLabel.setText("Congratulations! You won with 1 peg remaining!");
-            showGameOverDialog("You Won!", "Congratulations! You finished with 1 peg remaining.");
+            // After this click is timed and painted, so the latency sample leaves out the modal dialog
+            SwingUtilities.invokeLater(
+                    () -> showGameOverDialog("You Won!", "Congratulations! You finished with 1 peg remaining."));
         } else if (!game.hasValidMove()) {
             messageLabel.setText("Game Over! No more valid moves. Your score: " + pegCount + " pegs remaining.");
-            showGameOverDialog("Game Over", "No more valid moves. Your score: " + pegCount + " pegs remaining.");
+            showAnalysis(pegCount);
         } else {
             messageLabel.setText("Pegs remaining: " + pegCount + ". Select a peg to move.");
         }
     }
 
+    // Finds the blunders of the game off the event thread, then shows them with the score. The analyzer
+    // only knows the standard rules, so other games just get the score.
+    private void showAnalysis(int pegCount) {
+        if (game.getRules() != JumpRules.ENGLISH) {
+            showGameOverDialog("Game Over", "No more valid moves. Your score: " + pegCount + " pegs remaining.");
+            return;
+        }
+        GameRecord record = game.getRecord();
+        new SwingWorker<GameAnalyzer.Analysis, Void>() {
+            @Override
+            protected GameAnalyzer.Analysis doInBackground() throws Exception {
+                return analyzer.analyze(record);
+            }
+
+            @Override
+            protected void done() {
+                String message = "No more valid moves. Your score: " + pegCount + " pegs remaining.";
+                try {
+                    message += "\n\n" + get();
+                } catch (Exception e) {
+                    // Show the score without the analysis
+                }
+                showGameOverDialog("Game Over", message);
+            }
+        }.execute();
+    }
+
     private void showGameOverDialog(String title, String message) {
+        recordResult();
         JOptionPane.showMessageDialog(this, message, title, JOptionPane.INFORMATION_MESSAGE);
         // Optionally, offer to restart the game
         int choice = JOptionPane.showConfirmDialog(this, "Do you want to play again?", "Play Again?",
@@ -185,13 +257,71 @@ public class PegSolitaireGUI extends JFrame {
         if (choice == JOptionPane.YES_OPTION) {
             game.resetGame();
             this.board = game.getBoard(); // Update the GUI's board reference
+            gameStarted = System.currentTimeMillis();
             selectedPeg = null;
             updateGameStatus();
         } else {
-            System.exit(0);
+            exit();
         }
     }
 
+    // Writes the queued results and closes the leaderboard, waiting a few seconds at most, then exits
+    private void exit() {
+        recorder.execute(() -> {
+            if (leaderboard != null) {
+                try {
+                    leaderboard.close();
+                } catch (IOException e) {
+                    // Nothing more can be done about it on the way out
+                }
+            }
+        });
+        recorder.shutdown();
+        try {
+            recorder.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.exit(0);
+    }
+
+    // Opens the leaderboard in the home directory; the game still plays without one. Runs on the recorder.
+    private void openLeaderboard() {
+        try {
+            leaderboard = Leaderboard.open(Paths.get(System.getProperty("user.home"), Leaderboard.DIRECTORY));
+        } catch (IOException e) {
+            leaderboard = null;
+        }
+    }
+
+    // Has the recorder append the finished game to the leaderboard's games and add its result, found by its
+    // offset there. Only the process holding the leaderboard's lock writes, so no one else moves the offset.
+    // Records only hold the standard board, so games of other rules are not kept.
+    private void recordResult() {
+        if (game.getRules() != JumpRules.ENGLISH) {
+            return;
+        }
+        GameRecord record = game.getRecord();
+        String player = System.getProperty("user.name");
+        int pegs = board.pegCount();
+        long duration = System.currentTimeMillis() - gameStarted;
+        recorder.execute(() -> {
+            if (leaderboard == null || leaderboard.isReadOnly()) {
+                return;
+            }
+            Path games = leaderboard.getDirectory().resolve(Leaderboard.GAMES);
+            try {
+                long offset = Files.exists(games) ? Files.size(games) : 0;
+                try (GameRecordWriter writer = GameRecordWriter.open(games)) {
+                    writer.write(record);
+                }
+                leaderboard.add(player, record.getShape(), pegs, record.getMoveCount(), duration, offset);
+            } catch (IOException | UncheckedIOException e) {
+                // The game is over either way; only its place on the leaderboard is lost
+            }
+        });
+    }
+
     // Constants for board size (should be accessible from PegBoard)
     private final int BOARD_SIZE = 7; // This should ideally come from PegBoard
 
@@ -0,0 +1,250 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class replays move scripts without prompts or board printing, and
+ * reports the result of each game.
+ *
+ * A script holds one jump per line as four numbers,
+ * "fromRow fromCol toRow toCol". Games are separated by blank lines, and
+ * anything after a '#' is a comment. Scripts are read in large blocks and
+ * parsed directly from the character buffer, so no line strings are built.
+ *
+ * Each game is reported on one line:
+ *
+ * <pre>
+ * game 1: 31 moves, 1 pegs remaining, WON
+ * game 2: 12 moves, 20 pegs remaining, UNFINISHED
+ * game 3: 4 moves, 28 pegs remaining, INVALID move 5 (line 19)
+ * </pre>
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class BatchRunner {
+	private PegSolitaire game; // the game that moves are applied to
+	private PrintStream out; // where reports are written
+	private StringBuilder report; // reports waiting to be written
+
+	private int gameNumber; // number of the current game, starting at 1
+	private int moves; // moves applied in the current game
+	private int invalidMove; // number of the first illegal move, 0 if none
+	private int invalidLine; // script line of the first illegal move
+	private boolean inGame; // true once the current game has a move line
+
+	private long totalGames; // games reported so far
+	private long totalMoves; // moves applied so far
+	private long totalWins; // games that finished with one peg
+
+	private int[] numbers = new int[4]; // numbers read on the current line
+	private int count; // how many numbers are on the current line
+	private int lineNumber; // current line of the script
+
+	/**
+	 * Constructs a runner that writes reports to the given stream.
+	 *
+	 * @param out the stream to write reports to
+	 */
+	public BatchRunner(PrintStream out) {
+		this.game = new PegSolitaire();
+		this.out = out;
+		this.report = new StringBuilder(8192);
+	}
+
+	/**
+	 * Replays the scripts named on the command line, or standard input if
+	 * none are named ("-" also means standard input).
+	 *
+	 * @param args the script files to replay
+	 */
+	public static void main(String[] args) {
+		BatchRunner runner = new BatchRunner(System.out);
+		long start = System.nanoTime();
+		try {
+			if (args.length == 0) {
+				runner.run(System.in);
+			} else {
+				for (String name : args) {
+					if (name.equals("-")) {
+						runner.run(System.in);
+					} else {
+						try (InputStream in = new FileInputStream(name)) {
+							runner.run(in);
+						}
+					}
+				}
+			}
+		} catch (IOException e) {
+			System.err.println("ERROR: could not read script: " + e.getMessage());
+		}
+		runner.printSummary((System.nanoTime() - start) / 1e9);
+	}
+
+	/**
+	 * Replays every game in one script. Each script starts a new game, even
+	 * if the previous script did not end with a blank line.
+	 *
+	 * @param in the script to read
+	 * @throws IOException if the script cannot be read
+	 */
+	public void run(InputStream in) throws IOException {
+		Reader reader = new InputStreamReader(in, StandardCharsets.US_ASCII);
+		char[] buffer = new char[1 << 16];
+		boolean comment = false; // inside a '#' comment
+		boolean inNumber = false; // inside a number
+		boolean badLine = false; // line holds something other than numbers
+		int value = 0; // number being read
+
+		this.lineNumber = 1;
+		this.count = 0;
+		int read;
+		while ((read = reader.read(buffer)) > 0) {
+			for (int i = 0; i < read; i++) {
+				char c = buffer[i];
+				if (c == '\n') {
+					// End of line: finish the number and handle the line
+					if (inNumber)
+						badLine |= !this.addNumber(value);
+					this.endLine(badLine);
+					comment = false;
+					inNumber = false;
+					badLine = false;
+					this.lineNumber++;
+				} else if (comment) {
+					// Skip the rest of a comment
+				} else if (c >= '0' && c <= '9') {
+					value = inNumber ? value * 10 + (c - '0') : c - '0';
+					inNumber = true;
+				} else {
+					// Any other character ends a number
+					if (inNumber)
+						badLine |= !this.addNumber(value);
+					inNumber = false;
+					if (c == '#')
+						comment = true;
+					else if (c != ' ' && c != '\t' && c != '\r' && c != ',')
+						badLine = true;
+				}
+			}
+		}
+
+		// The last line may have no newline, and the last game no blank line
+		if (inNumber)
+			badLine |= !this.addNumber(value);
+		this.endLine(badLine);
+		this.endGame();
+		this.flush();
+	}
+
+	/**
+	 * Writes a summary of all games replayed so far.
+	 *
+	 * @param seconds the time taken to replay them
+	 */
+	public void printSummary(double seconds) {
+		this.report.append(this.totalGames).append(" games, ").append(this.totalWins).append(" won, ")
+				.append(this.totalMoves).append(" moves in ").append(String.format("%.3f", seconds)).append(" s");
+		if (seconds > 0)
+			this.report.append(" (").append((long) (this.totalMoves / seconds)).append(" moves/s)");
+		this.report.append('\n');
+		this.flush();
+	}
+
+	/**
+	 * Stores a number read on the current line.
+	 *
+	 * @param value the number read
+	 * @return false if the line already holds four numbers
+	 */
+	private boolean addNumber(int value) {
+		if (this.count == this.numbers.length)
+			return false;
+		this.numbers[this.count++] = value;
+		return true;
+	}
+
+	/**
+	 * Handles one finished line: a blank line ends the game, a line of four
+	 * numbers is a jump.
+	 *
+	 * @param badLine true if the line held anything other than four numbers
+	 */
+	private void endLine(boolean badLine) {
+		int found = this.count;
+		this.count = 0;
+
+		if (found == 0 && !badLine) {
+			// A blank or comment-only line separates games
+			if (this.inGame)
+				this.endGame();
+			return;
+		}
+
+		this.inGame = true;
+
+		// Once a move is invalid, ignore the rest of the game
+		if (this.invalidMove > 0)
+			return;
+
+		int[] n = this.numbers;
+		if (!badLine && found == 4 && this.game.isValidJump(n[0], n[1], n[2], n[3])) {
+			this.game.jump(n[0], n[1], n[2], n[3]);
+			this.moves++;
+		} else {
+			this.invalidMove = this.moves + 1;
+			this.invalidLine = this.lineNumber;
+		}
+	}
+
+	/**
+	 * Reports the current game and starts a fresh one.
+	 */
+	private void endGame() {
+		if (!this.inGame)
+			return;
+
+		PegBoard board = this.game.getBoard();
+		int pegs = board.pegCount();
+		this.gameNumber++;
+		this.report.append("game ").append(this.gameNumber).append(": ").append(this.moves).append(" moves, ")
+				.append(pegs).append(" pegs remaining, ");
+		if (this.invalidMove > 0) {
+			this.report.append("INVALID move ").append(this.invalidMove).append(" (line ").append(this.invalidLine)
+					.append(')');
+		} else if (pegs == 1) {
+			this.report.append("WON");
+			this.totalWins++;
+		} else if (!this.game.hasValidMove()) {
+			this.report.append("NO MOVES");
+		} else {
+			this.report.append("UNFINISHED");
+		}
+		this.report.append('\n');
+
+		this.totalGames++;
+		this.totalMoves += this.moves;
+
+		// Write reports in large blocks rather than one line at a time
+		if (this.report.length() > 8000)
+			this.flush();
+
+		this.game.resetGame();
+		this.moves = 0;
+		this.invalidMove = 0;
+		this.inGame = false;
+	}
+
+	/**
+	 * Writes any waiting reports with one call.
+	 */
+	private void flush() {
+		this.out.print(this.report);
+		this.out.flush();
+		this.report.setLength(0);
+	}
+}
@@ -0,0 +1,170 @@
+import java.io.PrintStream;
+
+/**
+ * This class draws the peg board to a console. The whole frame is built in
+ * a reused buffer and written with a single call, so that a board costs one
+ * write and one flush instead of dozens.
+ *
+ * In ANSI mode the first frame is pinned to the top of the terminal and the
+ * text below it scrolls on its own. Later frames only redraw the cells that
+ * changed since the last one.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class BoardRenderer {
+	/** The escape character that starts every ANSI control sequence */
+	private static final char ESC = (char) 27;
+
+	/** Number of text lines in one frame (see appendFrame) */
+	private static final int FRAME_LINES = 18;
+
+	private PrintStream out; // where frames are written
+	private boolean ansi; // true to redraw changed cells in place
+	private StringBuilder frame; // reused text of the frame being built
+	private byte[] bytes; // reused encoding of the frame
+	private char[][] shown; // the cells as they were last drawn (ANSI mode)
+	private boolean drawn; // true once a full ANSI frame is on screen
+
+	/**
+	 * Constructs a renderer that writes plain frames to the given stream.
+	 *
+	 * @param out the stream to write frames to
+	 */
+	public BoardRenderer(PrintStream out) {
+		this(out, false);
+	}
+
+	/**
+	 * Constructs a renderer that writes to the given stream.
+	 *
+	 * @param out  the stream to write frames to
+	 * @param ansi true to redraw only changed cells using ANSI escapes
+	 */
+	public BoardRenderer(PrintStream out, boolean ansi) {
+		this.out = out;
+		this.ansi = ansi;
+		this.frame = new StringBuilder(1024);
+		this.bytes = new byte[1024];
+		this.shown = new char[7][7];
+		this.drawn = false;
+	}
+
+	/**
+	 * Draws the board. The first ANSI frame and every plain frame are drawn in
+	 * full; later ANSI frames only update the cells that changed.
+	 *
+	 * @param board the board to draw
+	 */
+	public void render(PegBoard board) {
+		// Reuse the same buffer for every frame
+		this.frame.setLength(0);
+
+		if (!this.ansi) {
+			this.appendFrame(board);
+		} else if (!this.drawn) {
+			// Clear the screen and draw the frame at the top
+			this.frame.append(ESC).append("[2J").append(ESC).append("[H");
+			this.appendFrame(board);
+
+			// Keep the frame in place by scrolling only the lines below it
+			this.frame.append(ESC).append('[').append(FRAME_LINES + 1).append('r');
+			this.frame.append(ESC).append('[').append(FRAME_LINES + 1).append(";1H");
+			this.drawn = true;
+		} else {
+			this.appendChangedCells(board);
+		}
+
+		this.write();
+	}
+
+	/**
+	 * Gives the terminal back its full scrolling region. Only needed after
+	 * frames have been drawn in ANSI mode.
+	 */
+	public void close() {
+		if (this.ansi && this.drawn) {
+			this.frame.setLength(0);
+			this.frame.append(ESC).append("[r").append(ESC).append('[').append(FRAME_LINES + 1).append(";1H");
+			this.write();
+			this.drawn = false;
+		}
+	}
+
+	/**
+	 * Appends a full frame of the board in the same layout as the original
+	 * PegBoard.printBoard output.
+	 *
+	 * @param board the board to draw
+	 */
+	private void appendFrame(PegBoard board) {
+		this.frame.append('\n');
+		this.frame.append(" col 0   1   2   3   4   5   6\n");
+		this.frame.append("row        -------------\n");
+		for (int row = 0; row < 7; row++) {
+			// Short rows at the top and bottom, long rows in the middle
+			boolean shortRow = row < 2 || row > 4;
+			this.frame.append(' ').append(row).append(shortRow ? "         |" : " |");
+			for (int col = shortRow ? 2 : 0; col < (shortRow ? 5 : 7); col++) {
+				char cell = this.cell(board, row, col);
+				this.frame.append(' ').append(cell).append(" |");
+				this.shown[row][col] = cell;
+			}
+
+			// Separator below the row is long only between two long rows
+			boolean shortLine = row < 1 || row > 4;
+			this.frame.append(shortLine ? "\n           -------------\n" : "\n   -----------------------------\n");
+		}
+		this.frame.append('\n');
+	}
+
+	/**
+	 * Appends cursor moves and characters for only the cells that differ from
+	 * what is on screen. The cursor is saved and restored around the updates.
+	 *
+	 * @param board the board to draw
+	 */
+	private void appendChangedCells(PegBoard board) {
+		this.frame.append(ESC).append('7');
+		for (int row = 0; row < 7; row++) {
+			for (int col = 0; col < 7; col++) {
+				if (board.isValidLocation(row, col)) {
+					char cell = this.cell(board, row, col);
+					if (cell != this.shown[row][col]) {
+						// Board row r is screen line 4 + 2r, column c is screen column 6 + 4c
+						this.frame.append(ESC).append('[').append(4 + 2 * row).append(';').append(6 + 4 * col)
+								.append('H').append(cell);
+						this.shown[row][col] = cell;
+					}
+				}
+			}
+		}
+		this.frame.append(ESC).append('8');
+	}
+
+	/**
+	 * Returns the character drawn for a location.
+	 *
+	 * @param board the board to read
+	 * @param row   the row of the location
+	 * @param col   the column of the location
+	 * @return 'P' for a peg, ' ' for a hole
+	 */
+	private char cell(PegBoard board, int row, int col) {
+		return board.isPeg(row, col) ? 'P' : ' ';
+	}
+
+	/**
+	 * Writes the frame with a single call and flushes once. The frame is all
+	 * ASCII so each character is stored as one byte.
+	 */
+	private void write() {
+		int length = this.frame.length();
+		if (this.bytes.length < length)
+			this.bytes = new byte[Math.max(length, 2 * this.bytes.length)];
+		for (int i = 0; i < length; i++)
+			this.bytes[i] = (byte) this.frame.charAt(i);
+		this.out.write(this.bytes, 0, length);
+		this.out.flush();
+	}
+}
@@ -13,6 +13,8 @@ public class PegBoard {
 
 	private final int BOARD_SIZE = 7; // the side length of the square board
 
+	private static BoardRenderer renderer; // shared plain renderer for printBoard
+
 	/* constructor */
 	public PegBoard() {
 		// initialize board
@@ -47,40 +49,12 @@ public class PegBoard {
 
 	/**
 	 * Print the peg board to the screen.
+	 * The frame is built in one buffer and written with a single call.
 	 */
 	public void printBoard() {
-		System.out.println();
-		System.out.println(" col 0   1   2   3   4   5   6");
-		System.out.println("row        -------------");
-		System.out.print(" 0         |");
-		for (int a = 2; a < 5; a++)
-			System.out.printf(" %c |", board[0][a]);
-		System.out.println("\n           -------------");
-		System.out.print(" 1         |");
-		for (int a = 2; a < 5; a++)
-			System.out.printf(" %c |", board[1][a]);
-		System.out.println("\n   -----------------------------");
-		System.out.print(" 2 |");
-		for (int a = 0; a < 7; a++)
-			System.out.printf(" %c |", board[2][a]);
-		System.out.println("\n   -----------------------------");
-		System.out.print(" 3 |");
-		for (int a = 0; a < 7; a++)
-			System.out.printf(" %c |", board[3][a]);
-		System.out.println("\n   -----------------------------");
-		System.out.print(" 4 |");
-		for (int a = 0; a < 7; a++)
-			System.out.printf(" %c |", board[4][a]);
-		System.out.println("\n   -----------------------------");
-		System.out.print(" 5         |");
-		for (int a = 2; a < 5; a++)
-			System.out.printf(" %c |", board[5][a]);
-		System.out.println("\n           -------------");
-		System.out.print(" 6         |");
-		for (int a = 2; a < 5; a++)
-			System.out.printf(" %c |", board[6][a]);
-		System.out.println("\n           -------------");
-		System.out.println();
+		if (renderer == null)
+			renderer = new BoardRenderer(System.out);
+		renderer.render(this);
 	}
 
 	/**
@@ -1,4 +1,5 @@
 import java.util.ArrayList; // For using ArrayList
+import java.util.Arrays; // For passing on the batch arguments
 
 /**
  * This class is the main controller for the Peg Solitaire game. It manages
@@ -11,27 +12,66 @@ public class PegSolitaire {
 	/** The game board containing all peg positions */
 	private PegBoard board = new PegBoard();
 
+	/** Draws the board after every move */
+	private BoardRenderer renderer;
+
 	/**
 	 * Default constructor for PegSolitaire.
 	 * Initializes a new game with a fresh board.
 	 */
 	public PegSolitaire() {
+		this(new BoardRenderer(System.out));
+	}
+
+	/**
+	 * Constructs a game that draws its board with the given renderer.
+	 * 
+	 * @param renderer the renderer used to draw the board
+	 */
+	public PegSolitaire(BoardRenderer renderer) {
+		this.renderer = renderer;
 	}
 
 	/**
 	 * Main entry point for the Peg Solitaire application.
 	 * Creates a new game instance and starts the game loop.
 	 * 
-	 * @param args command line arguments (not used)
+	 * @param args command line arguments; "-ansi" redraws the board in place,
+	 *             "-batch [file ...]" replays move scripts (stdin if no file)
 	 */
 	public static void main(String[] args) {
+		// Replay move scripts without prompts or board printing
+		if (args.length > 0 && args[0].equals("-batch")) {
+			BatchRunner.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+
+		// Redraw only changed cells when the terminal understands ANSI escapes
+		boolean ansi = args.length > 0 && args[0].equals("-ansi");
+
 		// Create a new instance of the game
-		PegSolitaire game = new PegSolitaire();
+		PegSolitaire game = new PegSolitaire(new BoardRenderer(System.out, ansi));
 
 		// Start the game
 		game.run();
 	}
 
+	/**
+	 * Returns the current game board.
+	 * 
+	 * @return the PegBoard instance
+	 */
+	public PegBoard getBoard() {
+		return this.board;
+	}
+
+	/**
+	 * Resets the game to its initial state.
+	 */
+	public void resetGame() {
+		this.board = new PegBoard();
+	}
+
 	/**
 	 * Main game loop that controls the flow of the game.
 	 * 
@@ -51,7 +91,7 @@ public class PegSolitaire {
 		this.printIntroduction();
 
 		// Show the initial board state
-		this.board.printBoard();
+		this.renderer.render(this.board);
 
 		// Flag to track if the game should end
 		boolean gameOver = false;
@@ -66,6 +106,7 @@ public class PegSolitaire {
 					// Display final score (lower is better)
 					System.out.println("\nYour score: " + this.board.pegCount() + " pegs remaining\n");
 					System.out.println("\nThanks for playing Peg Solitaire!\n");
+					this.renderer.close();
 					return;
 				}
 
@@ -89,7 +130,7 @@ public class PegSolitaire {
 				}
 
 				// Display updated board after the move
-				this.board.printBoard();
+				this.renderer.render(this.board);
 
 				// Continue game loop while:
 				// - At least 2 pegs remain (need 2 to make a jump)
@@ -232,16 +273,52 @@ public class PegSolitaire {
 				destination = (Location) validMoves.get(0);
 			}
 
-			// Execute the jump:
-			// 1. Remove the peg that was jumped over (midpoint between start and end)
-			this.board.removePeg((row + destination.getRow()) / 2, (col + destination.getCol()) / 2);
+			// Execute the jump
+			this.jump(row, col, destination.getRow(), destination.getCol());
+		}
+	}
 
-			// 2. Remove the peg from its starting position
-			this.board.removePeg(row, col);
+	/**
+	 * Executes a peg jump without asking the player anything.
+	 * Precondition: isValidJump(row, col, toRow, toCol) is true.
+	 * 
+	 * @param row   the row position of the peg to move
+	 * @param col   the column position of the peg to move
+	 * @param toRow the row position of the jump destination
+	 * @param toCol the column position of the jump destination
+	 */
+	public void jump(int row, int col, int toRow, int toCol) {
+		// 1. Remove the peg that was jumped over (midpoint between start and end)
+		this.board.removePeg((row + toRow) / 2, (col + toCol) / 2);
 
-			// 3. Place the peg at its destination
-			this.board.putPeg(destination.getRow(), destination.getCol());
-		}
+		// 2. Remove the peg from its starting position
+		this.board.removePeg(row, col);
+
+		// 3. Place the peg at its destination
+		this.board.putPeg(toRow, toCol);
+	}
+
+	/**
+	 * Determines if a single jump is legal, using the same rules as
+	 * openValidLocations but without building a list.
+	 * 
+	 * @param row   the row position of the peg to move
+	 * @param col   the column position of the peg to move
+	 * @param toRow the row position of the jump destination
+	 * @param toCol the column position of the jump destination
+	 * @return true if the jump is legal; false otherwise
+	 */
+	public boolean isValidJump(int row, int col, int toRow, int toCol) {
+		// The jump must be exactly two holes up, down, left or right
+		int rowStep = Math.abs(toRow - row);
+		int colStep = Math.abs(toCol - col);
+		if (!((rowStep == 2 && colStep == 0) || (rowStep == 0 && colStep == 2)))
+			return false;
+
+		// Requires: jumper peg, middle peg, empty destination, all on the board
+		return this.board.isValidLocation(row, col) && this.board.isValidLocation(toRow, toCol)
+				&& this.board.isPeg(row, col) && this.board.isPeg((row + toRow) / 2, (col + toCol) / 2)
+				&& !this.board.isPeg(toRow, toCol);
 	}
 
 	/**
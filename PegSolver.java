@@ -0,0 +1,505 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class searches peg solitaire positions exactly, on packed boards
+ * (see PackedBoard).
+ *
+ * Two questions can be asked:
+ * <ul>
+ * <li>solve: find jumps that leave one peg, on a chosen hole or anywhere</li>
+ * <li>bestFinish: the fewest pegs that can be left from a position, and
+ * bestLine, jumps that leave that many</li>
+ * </ul>
+ *
+ * Positions already searched are remembered by their canonical form (see
+ * Symmetry), so a position and its mirror images are only searched once.
+ * When aiming for a hole, positions in the wrong class and positions ruled
+ * out by a pagoda function are skipped. bestFinish stops looking below a
+ * position once it has the fewest pegs the class and the pagoda functions
+ * allow (see lowerBound).
+ *
+ * A solver is used by one thread at a time. Its caches may be shared.
+ * Several solvers can also work out one best finish together, each on its
+ * own thread (see bestFinish with a busy table): a solver puts off any
+ * position another is in the middle of and comes back to it last, by which
+ * time it is usually finished and cached.
+ *
+ * The progress of solve and bestFinish can be followed while they run (see
+ * SearchProgress); the share done is not known.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class PegSolver {
+	/** Location classes on the two diagonal directions, (r + c) % 3 and (r - c) % 3 */
+	private static final long[] DIAGONALS = new long[6];
+
+	/** Nodes between progress reports, less one */
+	private static final long REPORT_MASK = (1 << 12) - 1;
+
+	/** Jumps from the root below which positions are no longer marked busy */
+	private static final int BUSY_DEPTH = 12;
+
+	/** Fewest pegs a board of each class can have */
+	private static final int[] CLASS_FLOOR = new int[16];
+
+	/** Holes a single peg of each class can be on */
+	private static final long[] CLASS_HOLES = new long[16];
+
+	static {
+		for (int row = 0; row < PackedBoard.SIZE; row++) {
+			for (int col = 0; col < PackedBoard.SIZE; col++) {
+				long bit = PackedBoard.bit(row, col) & PackedBoard.VALID;
+				DIAGONALS[(row + col) % 3] |= bit;
+				DIAGONALS[3 + (row - col + 9) % 3] |= bit;
+			}
+		}
+
+		for (int index = 0; index < 49; index++)
+			if ((PackedBoard.VALID & 1L << index) != 0)
+				CLASS_HOLES[positionClass(1L << index)] |= 1L << index;
+
+		// Every class has a board of one or two pegs
+		Arrays.fill(CLASS_FLOOR, 3);
+		for (int a = 0; a < 49; a++) {
+			for (int b = a; b < 49; b++) {
+				long board = (1L << a | 1L << b) & PackedBoard.VALID;
+				if (board != 0) {
+					int cls = positionClass(board);
+					CLASS_FLOOR[cls] = Math.min(CLASS_FLOOR[cls], Long.bitCount(board));
+				}
+			}
+		}
+	}
+
+	private PositionCache finishes; // best finish of each canonical position
+	private PositionCache dead; // positions known not to solve for deadTarget
+	private int deadTarget = Integer.MIN_VALUE; // the target dead belongs to
+	private volatile boolean stopped; // set by stop(); ends a search without an answer
+	private long budget = Long.MAX_VALUE; // positions bestFinish may still visit before it stops
+	private SearchProgress progress; // where progress is reported, or null
+	private AtomicLongArray busy; // positions being searched by solvers sharing it, or null
+	private int[][] putOff; // putOff[depth] = jumps put off at that depth
+
+	private byte[] line = new byte[64]; // jumps of the current search path
+	private int target; // bit index of the target hole, or -1 for any
+	private int targetSyms; // symmetries that leave the target in place
+	private Pagoda pagoda; // pagoda functions for the target, or null
+
+	// Work counted in plain fields and added to EngineMetrics at the end
+	private long nodes;
+	private long hits;
+	private long misses;
+	private long[] prunes = new long[EngineMetrics.Prune.values().length];
+	private long[] depths = new long[EngineMetrics.MAX_DEPTH + 1];
+
+	/**
+	 * Constructs a solver with caches of its own.
+	 */
+	public PegSolver() {
+		this(new PositionCache());
+	}
+
+	/**
+	 * Constructs a solver that shares a cache of best finishes.
+	 *
+	 * @param finishes the cache of best finishes, may be shared by solvers
+	 */
+	public PegSolver(PositionCache finishes) {
+		this.finishes = finishes;
+		this.dead = new PositionCache(1);
+	}
+
+	/**
+	 * Solves the standard start and prints the jumps and the engine metrics.
+	 *
+	 * Usage: PegSolver [row col] [-progress]
+	 *
+	 * @param args command line arguments: an optional target "row col"
+	 */
+	public static void main(String[] args) {
+		int target = args.length > 1 && !args[0].equals("-progress")
+				? PackedBoard.index(Integer.parseInt(args[0]), Integer.parseInt(args[1]))
+				: -1;
+		PegSolver solver = new PegSolver();
+		byte[] solution;
+		if (args.length > 0 && args[args.length - 1].equals("-progress")) {
+			try (SearchProgress progress = new SearchProgress("solve")) {
+				progress.subscribe(SearchProgress.printer(System.err));
+				solver.setProgress(progress);
+				solution = solver.solve(PackedBoard.START, target);
+			}
+		} else {
+			solution = solver.solve(PackedBoard.START, target);
+		}
+		if (solution == null) {
+			System.out.println("No solution");
+		} else {
+			for (int ply = 0; ply < solution.length; ply++)
+				System.out.println((ply + 1) + ": " + PackedBoard.jumpToString(solution[ply] & 0xFF));
+		}
+		EngineMetrics.dump(System.out);
+	}
+
+	/**
+	 * Returns the class of a position. Jumps never change it, so only
+	 * positions in the same class as the finish can reach it.
+	 *
+	 * @param board the packed board
+	 * @return the class, from 0 to 15
+	 */
+	public static int positionClass(long board) {
+		int a = Long.bitCount(board & DIAGONALS[0]) + Long.bitCount(board & DIAGONALS[1]);
+		int b = Long.bitCount(board & DIAGONALS[1]) + Long.bitCount(board & DIAGONALS[2]);
+		int c = Long.bitCount(board & DIAGONALS[3]) + Long.bitCount(board & DIAGONALS[4]);
+		int d = Long.bitCount(board & DIAGONALS[4]) + Long.bitCount(board & DIAGONALS[5]);
+		return (a & 1) | (b & 1) << 1 | (c & 1) << 2 | (d & 1) << 3;
+	}
+
+	/**
+	 * Returns a number of pegs that no position reachable from a board can
+	 * go below, because jumps never change the class.
+	 *
+	 * @param board the packed board
+	 * @return the fewest pegs possible, 1 or more
+	 */
+	public static int fewestPossible(long board) {
+		return CLASS_FLOOR[positionClass(board)];
+	}
+
+	/**
+	 * Returns a number of pegs that no position reachable from a board can
+	 * go below: the class floor (see fewestPossible), raised to 2 when the
+	 * pagoda functions rule out one peg on every hole of the class.
+	 *
+	 * @param board the packed board
+	 * @return the fewest pegs possible, 1 or more
+	 */
+	public static int lowerBound(long board) {
+		int cls = positionClass(board);
+		if (CLASS_FLOOR[cls] == 1 && !Pagoda.canReach(board, CLASS_HOLES[cls]))
+			return 2;
+		return CLASS_FLOOR[cls];
+	}
+
+	/**
+	 * Finds jumps that leave a single peg.
+	 *
+	 * @param board  the packed start position
+	 * @param target the bit index of the hole to finish on, or -1 for any
+	 * @return the jumps, or null if there is no solution
+	 */
+	public byte[] solve(long board, int target) {
+		long started = System.nanoTime();
+		this.startCounting();
+		this.setTarget(target);
+		if (this.progress != null)
+			this.progress.start();
+
+		byte[] solution = null;
+		if (target >= 0 && positionClass(board) != positionClass(1L << target)) {
+			this.prunes[EngineMetrics.Prune.CLASS.ordinal()]++;
+		} else if (this.solveFrom(board, 0)) {
+			solution = Arrays.copyOf(this.line, PackedBoard.pegCount(board) - 1);
+		}
+
+		this.finishCounting("solve", started, solution == null ? 0 : 1);
+		if (this.progress != null)
+			this.progress.finish(this.nodes, -1);
+		return solution;
+	}
+
+	/**
+	 * Returns the fewest pegs that can be left from a position.
+	 *
+	 * @param board the packed position
+	 * @return the fewest pegs that can be left
+	 */
+	public int bestFinish(long board) {
+		long started = System.nanoTime();
+		this.startCounting();
+		if (this.progress != null)
+			this.progress.start();
+		int best = this.bestFrom(board, 0);
+		this.finishCounting("bestFinish", started, best);
+		if (this.progress != null)
+			this.progress.finish(this.nodes, best);
+		return best;
+	}
+
+	/**
+	 * Returns the fewest pegs that can be left from a position, working
+	 * together with other solvers that share the cache of best finishes and
+	 * the busy table and search the same position on other threads. Any of
+	 * them gives the answer; the others can then be stopped.
+	 *
+	 * @param board the packed position
+	 * @param busy  the busy table, its length a power of two; a mark that is
+	 *              overwritten only costs some repeated work
+	 * @return the fewest pegs that can be left
+	 */
+	public int bestFinish(long board, AtomicLongArray busy) {
+		this.busy = busy;
+		if (this.putOff == null)
+			this.putOff = new int[BUSY_DEPTH][PackedBoard.JUMP_COUNT];
+		try {
+			return this.bestFinish(board);
+		} finally {
+			this.busy = null;
+		}
+	}
+
+	/**
+	 * Finds jumps that leave the fewest pegs possible.
+	 *
+	 * @param board the packed position
+	 * @return the jumps, in order
+	 */
+	public byte[] bestLine(long board) {
+		int best = this.bestFinish(board);
+		byte[] jumps = new byte[PackedBoard.pegCount(board) - best];
+		// The rest is answered from the cache, so it is not reported as searches of its own
+		SearchProgress progress = this.progress;
+		this.progress = null;
+		try {
+			for (int ply = 0; ply < jumps.length; ply++) {
+				// Follow a jump whose position still reaches the best finish
+				for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++) {
+					if (PackedBoard.isLegal(board, jump)) {
+						long next = PackedBoard.apply(board, jump);
+						if (this.bestFinish(next) == best) {
+							jumps[ply] = (byte) jump;
+							board = next;
+							break;
+						}
+					}
+				}
+			}
+		} finally {
+			this.progress = progress;
+		}
+		return jumps;
+	}
+
+	/**
+	 * Stops a bestFinish running on another thread. It returns soon after,
+	 * with a meaningless answer, and caches nothing it had not finished; the
+	 * solver stays stopped.
+	 */
+	public void stop() {
+		this.stopped = true;
+	}
+
+	/**
+	 * Limits the positions bestFinish may visit, over all the searches of the
+	 * solver from now on. Once they are used up the solver stops as by stop().
+	 *
+	 * @param positions the positions it may visit
+	 */
+	public void setBudget(long positions) {
+		this.budget = positions;
+	}
+
+	/**
+	 * Sets where the progress of each solve and bestFinish is reported.
+	 *
+	 * @param progress the publisher, or null for none
+	 */
+	public void setProgress(SearchProgress progress) {
+		this.progress = progress;
+	}
+
+	/** @return true if the solver was stopped or used up its budget */
+	public boolean isStopped() {
+		return this.stopped;
+	}
+
+	/** @return the cache of best finishes */
+	public PositionCache getFinishes() {
+		return this.finishes;
+	}
+
+	/**
+	 * Searches for a single peg finish below a position.
+	 *
+	 * @param board the packed position
+	 * @param depth the number of jumps made so far
+	 * @return true if a solution was found (its jumps are in line)
+	 */
+	private boolean solveFrom(long board, int depth) {
+		this.nodes++;
+		this.depths[Math.min(depth, EngineMetrics.MAX_DEPTH)]++;
+		if ((this.nodes & REPORT_MASK) == 0 && this.progress != null)
+			this.progress.report(this.nodes, -1, Double.NaN);
+
+		if (PackedBoard.pegCount(board) == 1)
+			return this.target < 0 || board == 1L << this.target;
+
+		if (this.pagoda != null && this.pagoda.rulesOut(board)) {
+			this.prunes[EngineMetrics.Prune.PAGODA.ordinal()]++;
+			return false;
+		}
+
+		long key = Symmetry.canonical(board, this.targetSyms);
+		if (this.dead.get(key) != PositionCache.MISSING) {
+			this.hits++;
+			this.prunes[EngineMetrics.Prune.CACHE.ordinal()]++;
+			return false;
+		}
+		this.misses++;
+
+		for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++) {
+			if (PackedBoard.isLegal(board, jump)) {
+				this.line[depth] = (byte) jump;
+				if (this.solveFrom(PackedBoard.apply(board, jump), depth + 1))
+					return true;
+			}
+		}
+
+		this.dead.put(key, 0);
+		return false;
+	}
+
+	/**
+	 * Works out the fewest pegs that can be left below a position.
+	 *
+	 * @param board the packed position
+	 * @param depth the number of jumps made so far
+	 * @return the fewest pegs that can be left
+	 */
+	private int bestFrom(long board, int depth) {
+		this.nodes++;
+		if (--this.budget < 0)
+			this.stopped = true;
+		this.depths[Math.min(depth, EngineMetrics.MAX_DEPTH)]++;
+		if ((this.nodes & REPORT_MASK) == 0 && this.progress != null)
+			this.progress.report(this.nodes, -1, Double.NaN);
+
+		int pegs = PackedBoard.pegCount(board);
+		if (pegs <= 1)
+			return pegs;
+
+		long key = Symmetry.canonical(board);
+		int known = this.finishes.get(key);
+		if (known != PositionCache.MISSING) {
+			this.hits++;
+			this.prunes[EngineMetrics.Prune.CACHE.ordinal()]++;
+			return known;
+		}
+		this.misses++;
+
+		// The search can stop at the fewest pegs the class allows, or at two once
+		// the pagodas rule out one; they are only asked when two has been found
+		int floor = fewestPossible(board);
+		boolean pagodaAsked = false;
+
+		// Near the root, tell other solvers this position is taken
+		boolean shared = this.busy != null && depth < BUSY_DEPTH;
+		int slot = shared ? (int) PositionCache.mix(key) & this.busy.length() - 1 : 0;
+		if (shared)
+			this.busy.set(slot, key);
+
+		// With no jumps left, every peg stays
+		int best = pegs;
+		int putOff = 0;
+		for (int jump = 0; jump < PackedBoard.JUMP_COUNT && best > floor; jump++) {
+			if (PackedBoard.isLegal(board, jump)) {
+				long next = PackedBoard.apply(board, jump);
+				if (shared && depth + 1 < BUSY_DEPTH && this.isBusy(next)) {
+					this.putOff[depth][putOff++] = jump;
+					continue;
+				}
+				best = Math.min(best, this.bestFrom(next, depth + 1));
+				if (this.stopped)
+					break;
+				if (best == 2 && floor == 1 && !pagodaAsked) {
+					pagodaAsked = true;
+					floor = this.pagodaFloor(board);
+				}
+			}
+		}
+		// By now another solver has usually finished these
+		for (int i = 0; i < putOff && best > floor && !this.stopped; i++) {
+			best = Math.min(best, this.bestFrom(PackedBoard.apply(board, this.putOff[depth][i]), depth + 1));
+			if (best == 2 && floor == 1 && !pagodaAsked) {
+				pagodaAsked = true;
+				floor = this.pagodaFloor(board);
+			}
+		}
+
+		if (shared)
+			this.busy.compareAndSet(slot, key, 0);
+		if (this.stopped)
+			return pegs; // not cached, and every caller returns the same way
+		if (best <= floor && best < pegs)
+			this.prunes[EngineMetrics.Prune.CUTOFF.ordinal()]++;
+		this.finishes.put(key, best);
+		return best;
+	}
+
+	/**
+	 * Returns the lower bound of a board whose class allows one peg, counting
+	 * a pagoda prune when the pagodas raise it.
+	 *
+	 * @param board the packed board
+	 * @return 2 if the pagodas rule out one peg; 1 otherwise
+	 */
+	private int pagodaFloor(long board) {
+		int floor = lowerBound(board);
+		if (floor == 2)
+			this.prunes[EngineMetrics.Prune.PAGODA.ordinal()]++;
+		return floor;
+	}
+
+	/**
+	 * Determines if another solver sharing the busy table is searching a
+	 * position.
+	 *
+	 * @param board the packed position
+	 * @return true if it is marked busy
+	 */
+	private boolean isBusy(long board) {
+		long key = Symmetry.canonical(board);
+		return this.busy.get((int) PositionCache.mix(key) & this.busy.length() - 1) == key;
+	}
+
+	/**
+	 * Prepares the pruning for a target hole. The dead positions of an
+	 * earlier search are kept if it had the same target.
+	 *
+	 * @param target the bit index of the target hole, or -1 for any
+	 */
+	private void setTarget(int target) {
+		this.target = target;
+		this.targetSyms = Symmetry.symmetriesFixing(target);
+		if (target != this.deadTarget) {
+			this.dead.clear();
+			this.deadTarget = target;
+			this.pagoda = target < 0 ? null : new Pagoda(target);
+		}
+	}
+
+	/**
+	 * Clears the work counters before a search.
+	 */
+	private void startCounting() {
+		this.nodes = 0;
+		this.hits = 0;
+		this.misses = 0;
+		Arrays.fill(this.prunes, 0);
+		Arrays.fill(this.depths, 0);
+	}
+
+	/**
+	 * Adds the work of a search to the engine metrics.
+	 *
+	 * @param kind    what sort of search it was
+	 * @param started System.nanoTime() when the search started
+	 * @param result  the answer of the search
+	 */
+	private void finishCounting(String kind, long started, int result) {
+		EngineMetrics.recordSearch(kind, started, this.nodes, this.hits, this.misses, this.prunes, this.depths,
+				result);
+	}
+}
@@ -0,0 +1,164 @@
+import java.util.Arrays;
+
+/**
+ * This class remembers a small value (0 to 127) for each of many packed
+ * positions, such as the best finish found from a position. Keys and values
+ * live in plain arrays, so no Long or Byte objects are created.
+ *
+ * The table is split into segments that each have their own lock, so many
+ * search threads can share one cache.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class PositionCache {
+	/** Value returned by get for a position that is not in the cache */
+	public static final int MISSING = -1;
+
+	private Segment[] segments; // the parts of the table
+	private int segmentMask; // segments.length - 1
+
+	/**
+	 * Constructs a cache with about two segments per core.
+	 */
+	public PositionCache() {
+		this(Math.min(64, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) * 2));
+	}
+
+	/**
+	 * Constructs a cache with a number of segments.
+	 *
+	 * @param segmentCount the number of segments, a power of two up to 64
+	 */
+	public PositionCache(int segmentCount) {
+		if (Integer.bitCount(segmentCount) != 1 || segmentCount > 64)
+			throw new IllegalArgumentException("Segment count must be a power of two up to 64: " + segmentCount);
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++)
+			this.segments[i] = new Segment();
+		this.segmentMask = segmentCount - 1;
+	}
+
+	/**
+	 * Returns the value stored for a position.
+	 *
+	 * @param key the packed position, not 0
+	 * @return the value, or MISSING
+	 */
+	public int get(long key) {
+		long hash = mix(key);
+		Segment segment = this.segments[(int) (hash >>> 58) & this.segmentMask];
+		synchronized (segment) {
+			return segment.get(key, hash);
+		}
+	}
+
+	/**
+	 * Stores a value for a position, replacing any value already stored.
+	 *
+	 * @param key   the packed position, not 0
+	 * @param value the value, from 0 to 127
+	 */
+	public void put(long key, int value) {
+		long hash = mix(key);
+		Segment segment = this.segments[(int) (hash >>> 58) & this.segmentMask];
+		synchronized (segment) {
+			segment.put(key, hash, (byte) value);
+		}
+	}
+
+	/** @return the number of positions stored */
+	public long size() {
+		long size = 0;
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				size += segment.size;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Forgets every position.
+	 */
+	public void clear() {
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * Spreads the bits of a position so that similar positions land in
+	 * different slots.
+	 *
+	 * @param key the packed position
+	 * @return the hash
+	 */
+	static long mix(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return key;
+	}
+
+	/**
+	 * One open-addressing table of keys and values. A key of 0 marks an empty
+	 * slot; no search stores the empty board.
+	 */
+	private static class Segment {
+		private long[] keys = new long[1 << 10];
+		private byte[] values = new byte[1 << 10];
+		private int size;
+
+		int get(long key, long hash) {
+			int mask = this.keys.length - 1;
+			for (int slot = (int) hash & mask;; slot = (slot + 1) & mask) {
+				long found = this.keys[slot];
+				if (found == key)
+					return this.values[slot];
+				if (found == 0)
+					return MISSING;
+			}
+		}
+
+		void put(long key, long hash, byte value) {
+			// Grow when the table is half full
+			if (2 * (this.size + 1) > this.keys.length)
+				this.grow();
+			int mask = this.keys.length - 1;
+			for (int slot = (int) hash & mask;; slot = (slot + 1) & mask) {
+				long found = this.keys[slot];
+				if (found == key) {
+					this.values[slot] = value;
+					return;
+				}
+				if (found == 0) {
+					this.keys[slot] = key;
+					this.values[slot] = value;
+					this.size++;
+					return;
+				}
+			}
+		}
+
+		void grow() {
+			long[] oldKeys = this.keys;
+			byte[] oldValues = this.values;
+			this.keys = new long[oldKeys.length * 2];
+			this.values = new byte[oldValues.length * 2];
+			this.size = 0;
+			for (int i = 0; i < oldKeys.length; i++)
+				if (oldKeys[i] != 0)
+					this.put(oldKeys[i], mix(oldKeys[i]), oldValues[i]);
+		}
+
+		void clear() {
+			Arrays.fill(this.keys, 0);
+			this.size = 0;
+		}
+	}
+}
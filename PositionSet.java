@@ -0,0 +1,589 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * This class is a sorted set of packed positions that takes a few bytes per
+ * position, for sets of hundreds of millions of positions such as every
+ * position reachable from a start. It never changes once built.
+ *
+ * The positions are stored with Elias-Fano coding. Each position is split
+ * into its low bits, about log2(universe / size) of them, which are kept as
+ * they are, and its high bits, which are kept as gaps in unary in a bit
+ * array of about two bits per position. Every 512th one and zero of that bit
+ * array is sampled, and the ones before every 512-bit block are counted, so
+ * finding a position's bucket or the position at an index reads one sample,
+ * a short binary search of the counts and a few words, however clustered
+ * the positions are. Within a bucket the low bits are searched in halves.
+ *
+ * A set can be written to a file and read back onto the heap, or mapped
+ * into memory so that only the parts used are loaded. The file is
+ * big-endian:
+ *
+ * <pre>
+ * magic "PGEF", version, size, universe, high bit count, low bit width
+ * word counts of the low bits, high bits, zero samples, one samples and counts
+ * the low bits, high bits, zero samples, one samples and counts, as longs
+ * </pre>
+ *
+ * Unlike the smaller engine files it has no checksum, since checking one
+ * would read the whole file and undo the point of mapping it. Each of its
+ * five parts must be under 2 GB to be mapped, which allows about 700
+ * million positions of the English board.
+ *
+ * Any number of threads may use a set.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public final class PositionSet implements Iterable<Long> {
+	/** Universe of every packed board: positions are below it */
+	public static final long BOARDS = 1L << 49;
+
+	/** Ones or zeros of the high bits between samples */
+	private static final int SAMPLE = 512;
+
+	/** Words of the high bits in a counted block */
+	private static final int BLOCK_WORDS = 8;
+
+	/** First int of the file: "PGEF" */
+	private static final int MAGIC = 0x50474546;
+
+	/** Version of the file format */
+	private static final int VERSION = 1;
+
+	/** Bytes of the file header */
+	private static final int HEADER_BYTES = 80;
+
+	private long size; // the number of positions
+	private long universe; // every position is below this
+	private int lowBits; // low bits kept per position
+	private long lowMask; // (1 << lowBits) - 1
+	private long highLength; // bits of the high bit array
+	private LongBuffer lows; // low bits, packed
+	private LongBuffer highs; // high bits: position i sets bit (high part + i)
+	private LongBuffer zeroSamples; // zeroSamples[k] is where zero number k * SAMPLE is
+	private LongBuffer oneSamples; // oneSamples[k] is where one number k * SAMPLE is
+	private LongBuffer counts; // counts[b] is the number of ones before block b of the high bits
+
+	/**
+	 * Constructs a set over its parts.
+	 *
+	 * @param size        the number of positions
+	 * @param universe    every position is below this
+	 * @param lowBits     low bits kept per position
+	 * @param highLength  bits of the high bit array
+	 * @param lows        the low bits
+	 * @param highs       the high bits
+	 * @param zeroSamples where every SAMPLE-th zero is
+	 * @param oneSamples  where every SAMPLE-th one is
+	 * @param counts      the ones before each block
+	 */
+	private PositionSet(long size, long universe, int lowBits, long highLength, LongBuffer lows, LongBuffer highs,
+			LongBuffer zeroSamples, LongBuffer oneSamples, LongBuffer counts) {
+		this.size = size;
+		this.universe = universe;
+		this.lowBits = lowBits;
+		this.lowMask = (1L << lowBits) - 1;
+		this.highLength = highLength;
+		this.lows = lows;
+		this.highs = highs;
+		this.zeroSamples = zeroSamples;
+		this.oneSamples = oneSamples;
+		this.counts = counts;
+	}
+
+	/**
+	 * Builds the set of canonical positions reachable from the standard start
+	 * level by level, merging each level in, and reports its size, a lookup
+	 * benchmark and a file round trip.
+	 *
+	 * Usage: PositionSet [jumps] [file]
+	 *
+	 * @param args command line arguments: how many jumps deep to go (default
+	 *             12) and a file to write and map back
+	 * @throws IOException if the file cannot be written or mapped
+	 */
+	public static void main(String[] args) throws IOException {
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+		long started = System.nanoTime();
+		long[] level = { Symmetry.canonical(PackedBoard.START) };
+		PositionSet all = of(level);
+		for (int ply = 1; ply <= depth; ply++) {
+			long[] next = new long[level.length * 12];
+			int count = 0;
+			for (long board : level) {
+				for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++) {
+					if (PackedBoard.isLegal(board, jump)) {
+						if (count == next.length)
+							next = Arrays.copyOf(next, count * 2);
+						next[count++] = Symmetry.canonical(PackedBoard.apply(board, jump));
+					}
+				}
+			}
+			Arrays.sort(next, 0, count);
+			int kept = 0;
+			for (int i = 0; i < count; i++)
+				if (kept == 0 || next[i] != next[kept - 1])
+					next[kept++] = next[i];
+			PositionSet found = of(Arrays.copyOf(next, kept));
+			level = found.toArray();
+			all = all.union(found);
+		}
+		System.out.printf("%d positions to %d jumps: %.2f bytes each (a long[] takes 8), %.1f s%n", all.size(), depth,
+				all.byteSize() / (double) all.size(), (System.nanoTime() - started) / 1e9);
+
+		// Look up every position, and as many that are not in the set
+		long[] probes = all.toArray();
+		started = System.nanoTime();
+		long hits = 0;
+		for (long board : probes)
+			if (all.contains(board) && !all.contains(board ^ 1L << 24))
+				hits++;
+		System.out.printf("%d of %d found, %.0f ns per lookup%n", hits, probes.length,
+				(System.nanoTime() - started) / (2.0 * probes.length));
+
+		if (args.length > 1) {
+			Path path = Paths.get(args[1]);
+			all.write(path);
+			PositionSet mapped = map(path);
+			System.out.println("Mapped " + path + ": " + (Arrays.equals(mapped.toArray(), probes) ? "same" : "DIFFERENT"));
+		}
+	}
+
+	/**
+	 * Returns the set of some packed positions.
+	 *
+	 * @param sorted the positions in increasing order, without repeats
+	 * @return the set
+	 * @throws IllegalArgumentException if the positions are not in order
+	 */
+	public static PositionSet of(long[] sorted) {
+		Builder builder = new Builder(sorted.length, BOARDS);
+		for (long board : sorted)
+			builder.add(board);
+		return builder.build();
+	}
+
+	/**
+	 * Reads a set from a file onto the heap.
+	 *
+	 * @param path the file
+	 * @return the set
+	 * @throws IOException if the file cannot be read or is not a set
+	 */
+	public static PositionSet read(Path path) throws IOException {
+		return open(path, false);
+	}
+
+	/**
+	 * Maps a set in a file into memory. Only the parts that are used are
+	 * read from the file.
+	 *
+	 * @param path the file
+	 * @return the set
+	 * @throws IOException if the file cannot be mapped or is not a set
+	 */
+	public static PositionSet map(Path path) throws IOException {
+		return open(path, true);
+	}
+
+	/**
+	 * Writes the set to a file.
+	 *
+	 * @param path the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			header.putInt(MAGIC).putInt(VERSION).putLong(this.size).putLong(this.universe).putLong(this.highLength)
+					.putInt(this.lowBits).putInt(0);
+			for (LongBuffer part : this.parts())
+				header.putLong(part.limit());
+			header.flip();
+			while (header.hasRemaining())
+				channel.write(header);
+
+			// Copy each part through a buffer, since parts can be far bigger than any one write
+			ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+			for (LongBuffer part : this.parts()) {
+				LongBuffer words = part.duplicate().clear();
+				while (words.hasRemaining()) {
+					buffer.clear();
+					LongBuffer chunk = buffer.asLongBuffer();
+					int count = Math.min(chunk.capacity(), words.remaining());
+					chunk.put(words.slice().limit(count));
+					words.position(words.position() + count);
+					buffer.limit(count * 8);
+					while (buffer.hasRemaining())
+						channel.write(buffer);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Determines if a position is in the set.
+	 *
+	 * @param board the packed position
+	 * @return true if it is in the set; false otherwise
+	 */
+	public boolean contains(long board) {
+		if (board < 0 || board >= this.universe || this.size == 0)
+			return false;
+		long high = board >>> this.lowBits;
+		long low = board & this.lowMask;
+
+		// The positions with this high part are the ones between zero number high - 1 and zero number high
+		long first = high == 0 ? 0 : this.select(high - 1, false) + 1 - high;
+		long end = this.select(high, false) - high;
+
+		// Clustered positions can share a high part by the thousand, so search their low parts
+		while (first < end) {
+			long middle = (first + end) >>> 1;
+			long found = this.low(middle);
+			if (found < low)
+				first = middle + 1;
+			else if (found > low)
+				end = middle;
+			else
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the position at an index in order.
+	 *
+	 * @param index the index, from 0 to size() - 1
+	 * @return the packed position
+	 * @throws IndexOutOfBoundsException if there is no such index
+	 */
+	public long get(long index) {
+		if (index < 0 || index >= this.size)
+			throw new IndexOutOfBoundsException("Index " + index + " of " + this.size);
+		return (this.select(index, true) - index) << this.lowBits | this.low(index);
+	}
+
+	/**
+	 * Returns the positions that are in this set or another.
+	 *
+	 * @param other the other set
+	 * @return the union
+	 */
+	public PositionSet union(PositionSet other) {
+		Builder builder = new Builder(this.size + other.size, Math.max(this.universe, other.universe));
+		PrimitiveIterator.OfLong a = this.iterator();
+		PrimitiveIterator.OfLong b = other.iterator();
+		long x = a.hasNext() ? a.nextLong() : -1;
+		long y = b.hasNext() ? b.nextLong() : -1;
+		while (x >= 0 || y >= 0) {
+			if (y < 0 || (x >= 0 && x < y)) {
+				builder.add(x);
+				x = a.hasNext() ? a.nextLong() : -1;
+			} else {
+				builder.add(y);
+				if (x == y)
+					x = a.hasNext() ? a.nextLong() : -1;
+				y = b.hasNext() ? b.nextLong() : -1;
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns the positions in increasing order.
+	 *
+	 * @return an iterator over the packed positions
+	 */
+	@Override
+	public PrimitiveIterator.OfLong iterator() {
+		return new PrimitiveIterator.OfLong() {
+			private long index; // index of the next position
+			private long at = -1; // bit of the high bits of the last position
+
+			@Override
+			public boolean hasNext() {
+				return this.index < PositionSet.this.size;
+			}
+
+			@Override
+			public long nextLong() {
+				if (!this.hasNext())
+					throw new NoSuchElementException();
+				// Find the next one of the high bits
+				long at = this.at + 1;
+				long word = PositionSet.this.highs.get((int) (at >>> 6)) & -1L << at;
+				while (word == 0) {
+					at = (at | 63) + 1;
+					word = PositionSet.this.highs.get((int) (at >>> 6));
+				}
+				this.at = (at & ~63L) + Long.numberOfTrailingZeros(word);
+				long board = (this.at - this.index) << PositionSet.this.lowBits | PositionSet.this.low(this.index);
+				this.index++;
+				return board;
+			}
+		};
+	}
+
+	/**
+	 * Returns the positions in an array. Only for sets that fit in one.
+	 *
+	 * @return the packed positions in increasing order
+	 */
+	public long[] toArray() {
+		long[] boards = new long[Math.toIntExact(this.size)];
+		PrimitiveIterator.OfLong positions = this.iterator();
+		for (int i = 0; i < boards.length; i++)
+			boards[i] = positions.nextLong();
+		return boards;
+	}
+
+	/** @return the number of positions */
+	public long size() {
+		return this.size;
+	}
+
+	/** @return the bytes the set takes, in memory or in its file */
+	public long byteSize() {
+		long words = 0;
+		for (LongBuffer part : this.parts())
+			words += part.limit();
+		return HEADER_BYTES + words * 8;
+	}
+
+	/**
+	 * Returns the low bits of the position at an index.
+	 *
+	 * @param index the index
+	 * @return the low bits
+	 */
+	private long low(long index) {
+		if (this.lowBits == 0)
+			return 0;
+		long bit = index * this.lowBits;
+		int word = (int) (bit >>> 6);
+		int offset = (int) (bit & 63);
+		long value = this.lows.get(word) >>> offset;
+		if (offset + this.lowBits > 64)
+			value |= this.lows.get(word + 1) << (64 - offset);
+		return value & this.lowMask;
+	}
+
+	/**
+	 * Returns where a one or a zero of the high bits is.
+	 *
+	 * @param rank which one or zero, counting from 0
+	 * @param ones true to find a one; false to find a zero
+	 * @return the bit index
+	 */
+	private long select(long rank, boolean ones) {
+		// The samples either side bound the block; search the counts between them
+		LongBuffer samples = ones ? this.oneSamples : this.zeroSamples;
+		int sample = (int) (rank / SAMPLE);
+		int low = (int) (samples.get(sample) >>> 6) / BLOCK_WORDS;
+		int high = sample + 1 < samples.limit() ? (int) (samples.get(sample + 1) >>> 6) / BLOCK_WORDS
+				: this.counts.limit() - 1;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (this.before(middle, ones) <= rank)
+				low = middle;
+			else
+				high = middle - 1;
+		}
+		long left = rank - this.before(low, ones);
+
+		// Count whole words from the block, then find the bit within the last
+		int word = low * BLOCK_WORDS;
+		long bits = ones ? this.highs.get(word) : ~this.highs.get(word);
+		int count = Long.bitCount(bits);
+		while (left >= count) {
+			left -= count;
+			word++;
+			bits = ones ? this.highs.get(word) : ~this.highs.get(word);
+			count = Long.bitCount(bits);
+		}
+		for (; left > 0; left--)
+			bits &= bits - 1;
+		return (long) word << 6 | Long.numberOfTrailingZeros(bits);
+	}
+
+	/**
+	 * Returns the number of ones or zeros of the high bits before a block.
+	 *
+	 * @param block the block
+	 * @param ones  true to count ones; false to count zeros
+	 * @return the count
+	 */
+	private long before(int block, boolean ones) {
+		long count = this.counts.get(block);
+		return ones ? count : (long) block * BLOCK_WORDS * 64 - count;
+	}
+
+	/** @return the low bits, high bits, zero samples, one samples and counts */
+	private LongBuffer[] parts() {
+		return new LongBuffer[] { this.lows, this.highs, this.zeroSamples, this.oneSamples, this.counts };
+	}
+
+	/**
+	 * Reads or maps a set from a file.
+	 *
+	 * @param path the file
+	 * @param map  true to map the file; false to read it onto the heap
+	 * @return the set
+	 * @throws IOException if the file cannot be used or is not a set
+	 */
+	private static PositionSet open(Path path, boolean map) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			while (header.hasRemaining())
+				if (channel.read(header) < 0)
+					throw new IOException("Not a position set: " + path);
+			header.flip();
+			if (header.getInt() != MAGIC || header.getInt() != VERSION)
+				throw new IOException("Not a position set: " + path);
+			long size = header.getLong();
+			long universe = header.getLong();
+			long highLength = header.getLong();
+			int lowBits = header.getInt();
+			header.getInt();
+
+			LongBuffer[] parts = new LongBuffer[5];
+			long position = HEADER_BYTES;
+			for (int i = 0; i < parts.length; i++) {
+				long words = header.getLong(40 + 8 * i);
+				if (words < 0 || words * 8 > Integer.MAX_VALUE || position + words * 8 > channel.size())
+					throw new IOException("Damaged position set: " + path);
+				ByteBuffer bytes;
+				if (map) {
+					bytes = channel.map(FileChannel.MapMode.READ_ONLY, position, words * 8);
+				} else {
+					bytes = ByteBuffer.allocate((int) (words * 8));
+					while (bytes.hasRemaining())
+						if (channel.read(bytes, position + bytes.position()) < 0)
+							throw new IOException("Damaged position set: " + path);
+					bytes.flip();
+				}
+				parts[i] = bytes.asLongBuffer();
+				position += words * 8;
+			}
+			return new PositionSet(size, universe, lowBits, highLength, parts[0], parts[1], parts[2], parts[3],
+					parts[4]);
+		}
+	}
+
+	/**
+	 * Builds a set from positions given in increasing order.
+	 */
+	public static class Builder {
+		private long capacity; // the most positions that may be added
+		private long universe; // every position is below this
+		private int lowBits; // low bits kept per position
+		private long highLength; // bits of the high bit array
+		private long[] lows; // low bits, packed
+		private long[] highs; // high bits
+		private long count; // positions added so far
+		private long last = -1; // the last position added
+
+		/**
+		 * Constructs a builder.
+		 *
+		 * @param capacity the most positions that will be added; the set is
+		 *                 smallest when this is exact
+		 * @param universe every position will be below this, such as BOARDS
+		 */
+		public Builder(long capacity, long universe) {
+			this.capacity = capacity;
+			this.universe = universe;
+			this.lowBits = Math.max(0, 63 - Long.numberOfLeadingZeros(universe / Math.max(1, capacity)));
+			this.highLength = capacity + (universe >>> this.lowBits) + 1;
+			this.lows = new long[Math.toIntExact((capacity * this.lowBits + 63) >>> 6)];
+			this.highs = new long[Math.toIntExact((this.highLength + 63) >>> 6)];
+		}
+
+		/**
+		 * Adds a position.
+		 *
+		 * @param board the packed position, above every one added before
+		 * @throws IllegalArgumentException if it is out of order, out of the
+		 *                                  universe or over capacity
+		 */
+		public void add(long board) {
+			if (board <= this.last || board >= this.universe || this.count == this.capacity)
+				throw new IllegalArgumentException("Position " + board + " out of order, range or capacity");
+			if (this.lowBits > 0) {
+				long bit = this.count * this.lowBits;
+				int word = (int) (bit >>> 6);
+				int offset = (int) (bit & 63);
+				long low = board & ((1L << this.lowBits) - 1);
+				this.lows[word] |= low << offset;
+				if (offset + this.lowBits > 64)
+					this.lows[word + 1] |= low >>> (64 - offset);
+			}
+			long at = (board >>> this.lowBits) + this.count;
+			this.highs[(int) (at >>> 6)] |= 1L << at;
+			this.count++;
+			this.last = board;
+		}
+
+		/**
+		 * Records where the sampled set bits of one word are.
+		 *
+		 * @param bits    the word
+		 * @param before  set bits in the words before it
+		 * @param word    the index of the word
+		 * @param samples where every SAMPLE-th set bit is recorded
+		 * @return set bits up to and including the word
+		 */
+		private static long sample(long bits, long before, int word, long[] samples) {
+			long next = (before + SAMPLE - 1) / SAMPLE * SAMPLE;
+			long after = before + Long.bitCount(bits);
+			for (; next < after; next += SAMPLE) {
+				long rest = bits;
+				for (long skip = next - before; skip > 0; skip--)
+					rest &= rest - 1;
+				samples[(int) (next / SAMPLE)] = (long) word << 6 | Long.numberOfTrailingZeros(rest);
+			}
+			return after;
+		}
+
+		/**
+		 * Builds the set. The builder must not be used afterwards.
+		 *
+		 * @return the set
+		 */
+		public PositionSet build() {
+			// Positions never added leave high bits unused at the end
+			long highLength = this.highLength - (this.capacity - this.count);
+			long[] lows = Arrays.copyOf(this.lows, Math.toIntExact((this.count * this.lowBits + 63) >>> 6));
+			long[] highs = Arrays.copyOf(this.highs, Math.toIntExact((highLength + 63) >>> 6));
+
+			// Sample every SAMPLE-th one and zero, a word at a time
+			long[] oneSamples = new long[Math.toIntExact(this.count / SAMPLE + 1)];
+			long[] zeroSamples = new long[Math.toIntExact((highLength - this.count) / SAMPLE + 1)];
+			long[] counts = new long[(highs.length + BLOCK_WORDS - 1) / BLOCK_WORDS];
+			long ones = 0;
+			long zeros = 0;
+			for (int word = 0; word < highs.length; word++) {
+				if (word % BLOCK_WORDS == 0)
+					counts[word / BLOCK_WORDS] = ones;
+				long bits = highs[word];
+				long valid = word == highs.length - 1 && (highLength & 63) != 0 ? -1L >>> -highLength : -1L;
+				ones = sample(bits, ones, word, oneSamples);
+				zeros = sample(~bits & valid, zeros, word, zeroSamples);
+			}
+			return new PositionSet(this.count, this.universe, this.lowBits, highLength, LongBuffer.wrap(lows),
+					LongBuffer.wrap(highs), LongBuffer.wrap(zeroSamples), LongBuffer.wrap(oneSamples),
+					LongBuffer.wrap(counts));
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ * This class holds a generated puzzle: a start position, the hole the last
+ * peg must finish on, and a solution that proves it can be done.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class Puzzle {
+	private long start; // the packed start position
+	private int target; // bit index of the finishing hole
+	private byte[] solution; // jump numbers that solve the puzzle
+
+	/**
+	 * Constructs a puzzle.
+	 *
+	 * @param start    the packed start position
+	 * @param target   the bit index of the finishing hole
+	 * @param solution the jump numbers that solve it
+	 */
+	public Puzzle(long start, int target, byte[] solution) {
+		this.start = start;
+		this.target = target;
+		this.solution = solution;
+	}
+
+	/** @return the packed start position */
+	public long getStart() {
+		return this.start;
+	}
+
+	/** @return the bit index of the finishing hole */
+	public int getTarget() {
+		return this.target;
+	}
+
+	/** @return the jump numbers that solve the puzzle */
+	public byte[] getSolution() {
+		return this.solution.clone();
+	}
+
+	/**
+	 * Determines if the solution really solves the puzzle: every jump is
+	 * legal and the last peg is on the target.
+	 *
+	 * @return true if the solution is correct
+	 */
+	public boolean verify() {
+		if (SolutionVerifier.verify(this.start, this.solution, 0, this.solution.length) != 1)
+			return false;
+		return GameReplay.positionAt(this.start, this.solution, this.solution.length) == 1L << this.target;
+	}
+
+	/** @return the start and solution as a game record */
+	public GameRecord toRecord() {
+		return new GameRecord(this.start, this.solution);
+	}
+
+	/**
+	 * Returns a key that is the same for this puzzle and for every mirror
+	 * image or rotation of it.
+	 *
+	 * @return the key, never 0
+	 */
+	public long symmetryKey() {
+		return Symmetry.canonicalWith(this.start, this.target);
+	}
+
+	/**
+	 * Returns the board with the target hole, one line per row: 'P' for a
+	 * peg, '.' for a hole and 'T' for the empty target.
+	 *
+	 * @return string representation of the puzzle
+	 */
+	public String toString() {
+		StringBuilder text = new StringBuilder();
+		for (int row = 0; row < PackedBoard.SIZE; row++) {
+			for (int col = 0; col < PackedBoard.SIZE; col++) {
+				long bit = PackedBoard.bit(row, col);
+				if ((PackedBoard.VALID & bit) == 0)
+					text.append(' ');
+				else if ((this.start & bit) != 0)
+					text.append('P');
+				else if (PackedBoard.index(row, col) == this.target)
+					text.append('T');
+				else
+					text.append('.');
+			}
+			text.append('\n');
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,284 @@
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class generates starting positions that are sure to be solvable,
+ * each with a solution as a certificate.
+ *
+ * Puzzles are built backwards from the finish: starting with one peg on the
+ * target, jumps are undone at random until the board has the wanted number
+ * of pegs. Every step of that walk, read in reverse, is a legal jump, so the
+ * walk itself is the solution. Holes that must be empty at the start may be
+ * filled along the way, but a walk backs up as soon as more of them hold
+ * pegs than it has jumps left to undo, since each undo empties one hole.
+ * If a walk gets stuck it backs up and tries other jumps, and after too many
+ * steps it starts again.
+ *
+ * Generation runs on every core. Puzzles that are mirror images or
+ * rotations of one already found are thrown away. Its progress can be
+ * followed while it runs (see SearchProgress): the nodes are the steps of
+ * the walks, the best answer the puzzles found and the share done the share
+ * of the puzzles wanted.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class PuzzleGenerator {
+	/** Steps one backward walk may take before starting again */
+	private static final int STEP_LIMIT = 20_000;
+
+	/** Walks a thread makes between progress reports */
+	private static final int REPORT_EVERY = 64;
+
+	private int pegs; // pegs wanted on the start position
+	private int target; // bit index of the finish hole, or -1 to pick at random
+	private long vacancies; // holes that must be empty at the start
+	private long seed; // seed for the random walks
+	private SearchProgress progress; // where progress is reported, or null
+
+	/**
+	 * Constructs a generator.
+	 *
+	 * @param pegs      the number of pegs on each start position, from 2
+	 * @param target    the bit index of the finish hole, or -1 for any
+	 * @param vacancies packed holes that must be empty at the start
+	 * @param seed      seed for the random walks
+	 */
+	public PuzzleGenerator(int pegs, int target, long vacancies, long seed) {
+		// With no vacancies given, one hole must still be left empty
+		int room = PackedBoard.pegCount(PackedBoard.VALID & ~vacancies) - (vacancies == 0 ? 1 : 0);
+		if (pegs < 1 || pegs > room)
+			throw new IllegalArgumentException("Cannot place " + pegs + " pegs with those vacancies");
+		this.pegs = pegs;
+		this.target = target;
+		this.vacancies = vacancies;
+		this.seed = seed;
+	}
+
+	/**
+	 * Generates puzzles from the command line and writes them as game records.
+	 *
+	 * Usage: PuzzleGenerator count pegs [targetRow targetCol] [-v row,col ...] [-t seconds] [-o file]
+	 * [-progress]
+	 *
+	 * Each row,col after -v is a hole that must be empty at the start.
+	 *
+	 * @param args command line arguments
+	 * @throws Exception if the puzzles cannot be written
+	 */
+	public static void main(String[] args) throws Exception {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		int pegs = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+		int target = -1;
+		long vacancies = 0;
+		String output = null;
+		int seconds = 60;
+		boolean progress = false;
+		for (int i = 2; i < args.length; i++) {
+			if (args[i].equals("-o"))
+				output = args[++i];
+			else if (args[i].equals("-progress"))
+				progress = true;
+			else if (args[i].equals("-t"))
+				seconds = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-v")) {
+				while (i + 1 < args.length && args[i + 1].contains(",")) {
+					String[] hole = args[++i].split(",");
+					vacancies |= PackedBoard.bit(Integer.parseInt(hole[0].trim()), Integer.parseInt(hole[1].trim()));
+				}
+			} else
+				target = PackedBoard.index(Integer.parseInt(args[i]), Integer.parseInt(args[++i]));
+		}
+
+		PuzzleGenerator generator = new PuzzleGenerator(pegs, target, vacancies, new Random().nextLong());
+		long started = System.nanoTime();
+		List<Puzzle> puzzles;
+		try (SearchProgress publisher = progress ? new SearchProgress("generate", 1000) : null) {
+			if (publisher != null) {
+				publisher.subscribe(SearchProgress.printer(System.err));
+				generator.setProgress(publisher);
+			}
+			puzzles = generator.generate(count, Runtime.getRuntime().availableProcessors(), seconds * 1000L);
+		}
+		double elapsed = (System.nanoTime() - started) / 1e9;
+
+		if (output == null) {
+			for (Puzzle puzzle : puzzles)
+				System.out.println(puzzle);
+		} else {
+			Files.deleteIfExists(Paths.get(output));
+			try (GameRecordWriter writer = GameRecordWriter.open(Paths.get(output))) {
+				for (Puzzle puzzle : puzzles)
+					writer.write(puzzle.toRecord());
+			}
+		}
+		System.err.printf("%d puzzles in %.2f s%n", puzzles.size(), elapsed);
+	}
+
+	/**
+	 * Sets where the progress of each generate is reported.
+	 *
+	 * @param progress the publisher, or null for none
+	 */
+	public void setProgress(SearchProgress progress) {
+		this.progress = progress;
+	}
+
+	/**
+	 * Generates distinct puzzles on a number of threads. Some settings have
+	 * only a few distinct puzzles (32 pegs finishing in the center has one),
+	 * so generation also stops when time runs out.
+	 *
+	 * @param count         the number of puzzles wanted
+	 * @param threads       the number of threads to use
+	 * @param timeoutMillis the most time to spend
+	 * @return the puzzles found, each checked against its solution
+	 * @throws InterruptedException  if interrupted while waiting
+	 * @throws IllegalStateException if a thread fails
+	 */
+	public List<Puzzle> generate(int count, int threads, long timeoutMillis) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		List<Puzzle> puzzles = new ArrayList<Puzzle>();
+		PositionCache seen = new PositionCache(); // symmetry keys of puzzles kept
+		AtomicInteger found = new AtomicInteger();
+		AtomicLong steps = new AtomicLong(); // steps of every walk, for progress
+		SplittableRandom seeds = new SplittableRandom(this.seed);
+		SearchProgress progress = this.progress;
+		if (progress != null)
+			progress.start();
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<?>> workers = new ArrayList<Future<?>>();
+		for (int t = 0; t < threads; t++) {
+			SplittableRandom random = seeds.split();
+			workers.add(pool.submit(() -> {
+				Walk walk = new Walk(random);
+				for (int walks = 1; found.get() < count && System.nanoTime() < deadline; walks++) {
+					Puzzle puzzle = walk.next();
+					steps.addAndGet(walk.steps);
+					if (progress != null && walks % REPORT_EVERY == 0)
+						progress.report(steps.get(), found.get(), found.get() / (double) count);
+					if (puzzle == null || !puzzle.verify())
+						continue;
+
+					// Keep only the first of a set of symmetric puzzles
+					long key = puzzle.symmetryKey();
+					synchronized (puzzles) {
+						if (seen.get(key) != PositionCache.MISSING || found.get() >= count)
+							continue;
+						seen.put(key, 1);
+						puzzles.add(puzzle);
+						found.incrementAndGet();
+					}
+				}
+			}));
+		}
+		pool.shutdown();
+		try {
+			for (Future<?> worker : workers)
+				worker.get();
+		} catch (ExecutionException e) {
+			pool.shutdownNow();
+			throw new IllegalStateException(e.getCause());
+		}
+		if (progress != null)
+			progress.finish(steps.get(), puzzles.size());
+		return puzzles;
+	}
+
+	/**
+	 * One thread's backward walk, with its own random numbers and buffers.
+	 */
+	private class Walk {
+		private SplittableRandom random;
+		private byte[] undone = new byte[64]; // jumps undone, last jump first
+		private int[] order = new int[PackedBoard.JUMP_COUNT]; // jumps in random order
+		private int steps; // steps taken by the current walk
+		private PositionCache dead = new PositionCache(1); // boards no walk can finish from
+
+		Walk(SplittableRandom random) {
+			this.random = random;
+			for (int i = 0; i < this.order.length; i++)
+				this.order[i] = i;
+		}
+
+		/**
+		 * Makes one walk from a single peg.
+		 *
+		 * @return a puzzle, or null if the walk took too many steps
+		 */
+		Puzzle next() {
+			int finish = PuzzleGenerator.this.target;
+			if (finish < 0) {
+				// Pick any hole; one that must start empty is emptied by the first undo
+				do {
+					finish = this.random.nextInt(49);
+				} while ((PackedBoard.VALID & 1L << finish) == 0);
+			}
+
+			this.steps = 0;
+			long start = this.extend(1L << finish, 0);
+			if (start == 0)
+				return null;
+
+			// The undone jumps, last first, are the solution in reverse
+			int length = PuzzleGenerator.this.pegs - 1;
+			byte[] solution = new byte[length];
+			for (int ply = 0; ply < length; ply++)
+				solution[ply] = this.undone[length - 1 - ply];
+			return new Puzzle(start, finish, solution);
+		}
+
+		/**
+		 * Undoes jumps until the board has enough pegs.
+		 *
+		 * @param board the packed board so far
+		 * @param depth the number of jumps undone so far
+		 * @return the start position, or 0 if none was found within the limit
+		 */
+		private long extend(long board, int depth) {
+			int left = PuzzleGenerator.this.pegs - 1 - depth;
+			if (Long.bitCount(board & PuzzleGenerator.this.vacancies) > left
+					|| this.dead.get(board) != PositionCache.MISSING)
+				return 0;
+			if (left == 0)
+				return board;
+			if (++this.steps > STEP_LIMIT)
+				return 0;
+
+			// Try the jumps in a fresh random order at every step
+			int[] jumps = this.order;
+			for (int i = jumps.length - 1; i > 0; i--) {
+				int j = this.random.nextInt(i + 1);
+				int swap = jumps[i];
+				jumps[i] = jumps[j];
+				jumps[j] = swap;
+			}
+			int[] mine = jumps.clone();
+
+			for (int jump : mine) {
+				// Undo a jump: its destination holds a peg, its other two holes are empty
+				if (PackedBoard.canUndo(board, jump)) {
+					this.undone[depth] = (byte) jump;
+					long start = this.extend(PackedBoard.undo(board, jump), depth + 1);
+					if (start != 0 || this.steps > STEP_LIMIT)
+						return start;
+				}
+			}
+			// Every undo was tried to the end, so later walks need not come here
+			this.dead.put(board, 1);
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/**
+ * This class finds the best jump on any rule set (see JumpRules), for the
+ * players of Strategy on rules the engine does not search. It looks at
+ * every line from a position, as PegSolver does, but with the rules' own
+ * jump tables and none of the standard board's bounds, so it is slower and
+ * gives up when its budget of positions or time runs out.
+ *
+ * Best finishes are kept from search to search in a cache of its own, which
+ * is cleared when the rules change or it holds too many positions.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+final class RulesSearch {
+	/** Returned by bestJump when the budget ran out first */
+	static final int UNFINISHED = -1;
+
+	/** Positions a solver player (see Strategy.solver) may visit per jump */
+	static final long SOLVER_POSITIONS = 4_000_000;
+
+	/** Positions the cache may hold before it is cleared */
+	private static final long MAX_POSITIONS = 1 << 21;
+
+	/** Positions visited between checks of the clock, less one */
+	private static final long CLOCK_MASK = (1 << 10) - 1;
+
+	private final PositionCache finishes = new PositionCache(); // fewest pegs left from each position
+	private JumpRules rules; // the rules the cache holds finishes of
+	private long budget; // positions the search may still visit
+	private long started; // System.nanoTime() when the search began
+	private long limit; // nanoseconds the search may take
+
+	/**
+	 * Returns a jump that leaves the fewest pegs at the end of the game.
+	 * Precondition: rules.hasMove(board) is true.
+	 *
+	 * @param rules     the rules of the game
+	 * @param board     the packed position
+	 * @param positions the most positions to visit
+	 * @param millis    the most time to take, or Long.MAX_VALUE for no limit
+	 * @return the jump number, or UNFINISHED if the budget ran out first
+	 */
+	int bestJump(JumpRules rules, long board, long positions, long millis) {
+		if (rules != this.rules || this.finishes.size() > MAX_POSITIONS) {
+			this.finishes.clear();
+			this.rules = rules;
+		}
+		this.budget = positions;
+		this.started = System.nanoTime();
+		this.limit = millis < Long.MAX_VALUE / 1_000_000 ? millis * 1_000_000 : Long.MAX_VALUE;
+
+		int bestJump = UNFINISHED;
+		int best = Integer.MAX_VALUE;
+		for (int jump = 0; jump < rules.getJumpCount() && best > 1; jump++) {
+			if (rules.isLegal(board, jump)) {
+				int finish = this.bestFrom(rules.apply(board, jump));
+				if (finish == UNFINISHED)
+					return UNFINISHED;
+				if (finish < best) {
+					best = finish;
+					bestJump = jump;
+				}
+			}
+		}
+		return bestJump;
+	}
+
+	/**
+	 * Finds the fewest pegs that can be left from a position.
+	 *
+	 * @param board the packed position
+	 * @return the fewest pegs, or UNFINISHED if the budget ran out first
+	 */
+	private int bestFrom(long board) {
+		int cached = this.finishes.get(board);
+		if (cached != PositionCache.MISSING)
+			return cached;
+		if (--this.budget < 0 || ((this.budget & CLOCK_MASK) == 0 && System.nanoTime() - this.started > this.limit))
+			return UNFINISHED;
+
+		// No jump left: the pegs on the board are the finish
+		int best = Long.bitCount(board);
+		for (int jump = 0; jump < this.rules.getJumpCount() && best > 1; jump++) {
+			if (this.rules.isLegal(board, jump)) {
+				int finish = this.bestFrom(this.rules.apply(board, jump));
+				if (finish == UNFINISHED)
+					return UNFINISHED;
+				best = Math.min(best, finish);
+			}
+		}
+		this.finishes.put(board, best);
+		return best;
+	}
+}
@@ -0,0 +1,492 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class splits one big search among several worker JVMs on the same
+ * machine (see SearchWorker), so the work is not limited by one heap.
+ *
+ * The positions a few jumps below the start are the work units; positions
+ * that are mirror images or rotations of each other are one unit, counted
+ * as many times as the lines that reach them. Workers connect over a socket
+ * on the loopback address and are sent units as they ask for them, so fast
+ * workers take more. When the queue is empty, an idle worker is also given
+ * a copy of a unit another worker is still busy with, and the first answer
+ * wins. Units held by a worker whose connection drops are queued again.
+ * A started worker that dies before the search is done is started again, a
+ * few times at most, and if no worker is connected or running for a while
+ * the search fails rather than waiting forever.
+ *
+ * Two searches can be split:
+ * <ul>
+ * <li>COUNT: the number of jump sequences to a single peg (see
+ * SolutionCounter), added up over the units</li>
+ * <li>BEST: the fewest pegs that can be left (see PegSolver), the least
+ * over the units</li>
+ * </ul>
+ *
+ * The protocol is plain DataOutput: a worker sends MAGIC, then the
+ * coordinator sends UNIT id kind board target, or STOP, and the worker
+ * answers each unit with id low high (the 128-bit answer).
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class SearchCoordinator implements AutoCloseable {
+	/** Default port */
+	public static final int PORT = 7391;
+
+	/** Search kind: count the solutions */
+	public static final byte COUNT = 'C';
+
+	/** Search kind: find the best finish */
+	public static final byte BEST = 'B';
+
+	/** First int a worker sends: "PGSW" */
+	static final int MAGIC = 0x50475357;
+
+	/** Message to a worker: a unit follows */
+	static final byte UNIT = 1;
+
+	/** Message to a worker: no more units */
+	static final byte STOP = 2;
+
+	/** Units a worker may hold at once, so it never waits between units */
+	private static final int PREFETCH = 2;
+
+	/** Copies of one unit that may be out at once, counting the first */
+	private static final int MAX_COPIES = 2;
+
+	/** Dead workers that may be started again, over the whole search */
+	private static final int MAX_RESTARTS = 8;
+
+	/** How often await looks for dead workers */
+	private static final long CHECK_MILLIS = 1000;
+
+	private byte kind; // COUNT or BEST
+	private int target; // bit index of the finish hole, or -1 for any
+	private long[] boards; // the position of each unit
+	private long[] lines; // how many lines from the start reach each unit
+	private BigInteger settled; // answer from lines that ended above the units
+
+	// Guarded by this
+	private BigInteger[] answers; // answer of each finished unit
+	private int[] copies; // workers holding each unit
+	private ArrayDeque<Integer> queue = new ArrayDeque<Integer>(); // units no worker holds
+	private int remaining; // units not finished
+	private int workersSeen; // connections accepted so far
+	private int connected; // worker connections open now
+	private int restarts; // dead workers started again
+	private long workerTimeout = 60_000; // millis await waits with no worker before it fails
+
+	private ServerSocket server; // where workers connect
+	private List<Socket> sockets = new ArrayList<Socket>(); // open worker connections
+	private List<Process> processes = new ArrayList<Process>(); // workers started by spawnWorkers
+
+	/**
+	 * Constructs a coordinator and splits the search into units.
+	 *
+	 * @param kind   COUNT or BEST
+	 * @param board  the packed start position
+	 * @param target the bit index of the finish hole, or -1 for any (COUNT only)
+	 * @param depth  the number of jumps below the start where units are cut
+	 */
+	public SearchCoordinator(byte kind, long board, int target, int depth) {
+		if (kind != COUNT && kind != BEST)
+			throw new IllegalArgumentException("Unknown search kind: " + kind);
+		this.kind = kind;
+		this.target = kind == COUNT ? target : -1;
+		this.settled = kind == COUNT ? BigInteger.ZERO : BigInteger.valueOf(PackedBoard.pegCount(board));
+
+		// Expand the top jumps, merging symmetric positions and adding up their lines
+		Map<Long, long[]> level = new HashMap<Long, long[]>();
+		level.put(this.key(board), new long[] { board, 1 });
+		for (int ply = 0; ply < depth; ply++) {
+			Map<Long, long[]> next = new HashMap<Long, long[]>();
+			for (long[] entry : level.values()) {
+				boolean moved = false;
+				for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++) {
+					if (PackedBoard.isLegal(entry[0], jump)) {
+						moved = true;
+						long child = PackedBoard.apply(entry[0], jump);
+						long[] merged = next.computeIfAbsent(this.key(child), key -> new long[] { child, 0 });
+						merged[1] += entry[1];
+					}
+				}
+				if (!moved)
+					this.settle(entry[0], entry[1]);
+			}
+			level = next;
+		}
+
+		int count = level.size();
+		this.boards = new long[count];
+		this.lines = new long[count];
+		int unit = 0;
+		for (long[] entry : level.values()) {
+			this.boards[unit] = entry[0];
+			this.lines[unit] = entry[1];
+			this.queue.add(unit++);
+		}
+		this.answers = new BigInteger[count];
+		this.copies = new int[count];
+		this.remaining = count;
+	}
+
+	/**
+	 * Runs a search over local worker processes and prints the answer.
+	 *
+	 * Usage: SearchCoordinator count|best [-workers n] [-depth d] [-port p]
+	 * [-target row col] [-timeout seconds]
+	 *
+	 * With -workers 0 no workers are started; start them by hand with
+	 * SearchWorker. The search fails if no worker is connected or running
+	 * for the timeout, 60 seconds by default.
+	 *
+	 * @param args command line arguments
+	 * @throws Exception if the port cannot be opened or a worker cannot start
+	 */
+	public static void main(String[] args) throws Exception {
+		byte kind = args.length > 0 && args[0].equals("best") ? BEST : COUNT;
+		int workers = Runtime.getRuntime().availableProcessors();
+		int depth = 6;
+		int port = PORT;
+		int target = -1;
+		long timeout = 60;
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("-workers"))
+				workers = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-depth"))
+				depth = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-port"))
+				port = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-target"))
+				target = PackedBoard.index(Integer.parseInt(args[++i]), Integer.parseInt(args[++i]));
+			else if (args[i].equals("-timeout"))
+				timeout = Long.parseLong(args[++i]);
+		}
+
+		long started = System.nanoTime();
+		try (SearchCoordinator coordinator = new SearchCoordinator(kind, PackedBoard.START, target, depth)) {
+			coordinator.setWorkerTimeout(timeout * 1000);
+			port = coordinator.listen(port);
+			coordinator.spawnWorkers(workers);
+			System.err.println(coordinator.getUnitCount() + " units on port " + port);
+			System.out.println(coordinator.await());
+			System.err.printf("%.2f s, %d worker connections, %d restarts%n", (System.nanoTime() - started) / 1e9,
+					coordinator.getWorkersSeen(), coordinator.getRestarts());
+		}
+	}
+
+	/** @return the number of work units */
+	public int getUnitCount() {
+		return this.boards.length;
+	}
+
+	/** @return the number of worker connections accepted so far */
+	public synchronized int getWorkersSeen() {
+		return this.workersSeen;
+	}
+
+	/** @return the number of dead workers started again so far */
+	public synchronized int getRestarts() {
+		return this.restarts;
+	}
+
+	/**
+	 * Sets how long await waits with no worker connected or running before
+	 * it gives up. Workers started by hand need time to connect.
+	 *
+	 * @param millis the time in milliseconds
+	 */
+	public synchronized void setWorkerTimeout(long millis) {
+		this.workerTimeout = millis;
+	}
+
+	/**
+	 * Starts accepting workers on the loopback address.
+	 *
+	 * @param port the port, or 0 for any free port
+	 * @return the port in use
+	 * @throws IOException if the port cannot be opened
+	 */
+	public int listen(int port) throws IOException {
+		this.server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		Thread acceptor = new Thread(() -> {
+			try {
+				while (true) {
+					Socket socket = this.server.accept();
+					synchronized (this) {
+						this.sockets.add(socket);
+						this.workersSeen++;
+						this.connected++;
+					}
+					Thread handler = new Thread(() -> this.serve(socket), "coordinator-" + socket.getPort());
+					handler.setDaemon(true);
+					handler.start();
+				}
+			} catch (IOException e) {
+				// The server socket was closed
+			}
+		}, "coordinator-accept");
+		acceptor.setDaemon(true);
+		acceptor.start();
+		return this.server.getLocalPort();
+	}
+
+	/**
+	 * Starts worker JVMs on this machine with the same class path.
+	 *
+	 * @param count the number of workers
+	 * @throws IOException if a worker cannot be started
+	 */
+	public synchronized void spawnWorkers(int count) throws IOException {
+		for (int i = 0; i < count; i++)
+			this.processes.add(this.startWorker());
+	}
+
+	/**
+	 * Waits until every unit is finished and merges the answers. Started
+	 * workers that die meanwhile are started again (see MAX_RESTARTS).
+	 *
+	 * @return the number of solutions (COUNT) or the fewest pegs (BEST)
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws IOException          if no worker was connected or running for
+	 *                              the worker timeout, or a worker cannot be
+	 *                              started again
+	 */
+	public synchronized BigInteger await() throws InterruptedException, IOException {
+		long lastWorker = System.nanoTime(); // when a worker was last connected or running
+		while (this.remaining > 0) {
+			this.wait(CHECK_MILLIS);
+			this.restartWorkers();
+			if (this.connected > 0 || this.processes.stream().anyMatch(Process::isAlive))
+				lastWorker = System.nanoTime();
+			else if (System.nanoTime() - lastWorker > this.workerTimeout * 1_000_000)
+				throw new IOException("No worker for " + this.workerTimeout + " ms with " + this.remaining
+						+ " of " + this.answers.length + " units left");
+		}
+		BigInteger answer = this.settled;
+		for (int unit = 0; unit < this.answers.length; unit++) {
+			if (this.kind == COUNT)
+				answer = answer.add(this.answers[unit].multiply(BigInteger.valueOf(this.lines[unit])));
+			else
+				answer = answer.min(this.answers[unit]);
+		}
+		return answer;
+	}
+
+	/**
+	 * Closes every connection and stops the workers that were started here.
+	 */
+	@Override
+	public void close() {
+		try {
+			if (this.server != null)
+				this.server.close();
+			synchronized (this) {
+				for (Socket socket : this.sockets)
+					socket.close();
+			}
+		} catch (IOException e) {
+			// Closing anyway
+		}
+		synchronized (this) {
+			for (Process process : this.processes)
+				process.destroy();
+		}
+	}
+
+	/**
+	 * Starts one worker JVM on this machine with the same class path.
+	 *
+	 * @return the worker process
+	 * @throws IOException if the worker cannot be started
+	 */
+	private Process startWorker() throws IOException {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+				"SearchWorker", InetAddress.getLoopbackAddress().getHostAddress(),
+				String.valueOf(this.server.getLocalPort()));
+		builder.inheritIO();
+		return builder.start();
+	}
+
+	/**
+	 * Starts again the started workers that died, while restarts are left.
+	 * Their units were queued again when their connections dropped.
+	 *
+	 * @throws IOException if a worker cannot be started
+	 */
+	private synchronized void restartWorkers() throws IOException {
+		for (int i = 0; i < this.processes.size() && this.restarts < MAX_RESTARTS; i++) {
+			if (!this.processes.get(i).isAlive()) {
+				this.processes.set(i, this.startWorker());
+				this.restarts++;
+			}
+		}
+	}
+
+	/**
+	 * Talks to one worker until the search is done or the worker is lost.
+	 *
+	 * @param socket the connection to the worker
+	 */
+	private void serve(Socket socket) {
+		Set<Integer> held = new HashSet<Integer>(); // units this worker holds
+		try {
+			socket.setTcpNoDelay(true);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			if (in.readInt() != MAGIC)
+				return;
+
+			while (true) {
+				// Keep the worker supplied; only wait for work when it holds none
+				while (held.size() < PREFETCH) {
+					int unit = this.nextUnit(held, held.isEmpty());
+					if (unit == -1) {
+						out.writeByte(STOP);
+						out.flush();
+						return;
+					}
+					if (unit == -2)
+						break;
+					held.add(unit);
+					out.writeByte(UNIT);
+					out.writeInt(unit);
+					out.writeByte(this.kind);
+					out.writeLong(this.boards[unit]);
+					out.writeInt(this.target);
+				}
+				out.flush();
+
+				int unit = in.readInt();
+				long low = in.readLong();
+				long high = in.readLong();
+				held.remove(unit);
+				this.finish(unit, SolutionCounter.toBigInteger(low, high));
+			}
+		} catch (IOException | InterruptedException e) {
+			// The worker is gone; its units go back in the queue
+		} finally {
+			this.release(held);
+			synchronized (this) {
+				this.connected--;
+			}
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// Already closed
+			}
+		}
+	}
+
+	/**
+	 * Picks a unit for a worker: the next queued unit or, when none is queued,
+	 * a copy of one another worker holds.
+	 *
+	 * @param held  the units the worker already holds
+	 * @param block true to wait until there is a unit
+	 * @return the unit, -1 if the search is done, or -2 if there is nothing
+	 *         to do now and block is false
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private synchronized int nextUnit(Set<Integer> held, boolean block) throws InterruptedException {
+		while (true) {
+			if (this.remaining == 0)
+				return -1;
+			while (!this.queue.isEmpty()) {
+				int unit = this.queue.poll();
+				if (this.answers[unit] == null) {
+					this.copies[unit]++;
+					return unit;
+				}
+			}
+
+			// Steal: help with the unit that has the fewest helpers
+			int steal = -1;
+			for (int unit = 0; unit < this.answers.length; unit++)
+				if (this.answers[unit] == null && this.copies[unit] < MAX_COPIES && !held.contains(unit)
+						&& (steal < 0 || this.copies[unit] < this.copies[steal]))
+					steal = unit;
+			if (steal >= 0) {
+				this.copies[steal]++;
+				return steal;
+			}
+
+			if (!block)
+				return -2;
+			this.wait();
+		}
+	}
+
+	/**
+	 * Records the answer of a unit. Answers of copies after the first are
+	 * ignored.
+	 *
+	 * @param unit   the unit
+	 * @param answer its answer
+	 */
+	private synchronized void finish(int unit, BigInteger answer) {
+		this.copies[unit]--;
+		if (this.answers[unit] == null) {
+			this.answers[unit] = answer;
+			this.remaining--;
+			this.notifyAll();
+		}
+	}
+
+	/**
+	 * Gives back the units of a lost worker.
+	 *
+	 * @param held the units it held
+	 */
+	private synchronized void release(Set<Integer> held) {
+		for (int unit : held) {
+			this.copies[unit]--;
+			if (this.answers[unit] == null && this.copies[unit] == 0)
+				this.queue.addFirst(unit);
+		}
+		this.notifyAll();
+	}
+
+	/**
+	 * Adds the answer of a line that ended above the units.
+	 *
+	 * @param board the final position of the line
+	 * @param lines how many lines end there
+	 */
+	private void settle(long board, long lines) {
+		int pegs = PackedBoard.pegCount(board);
+		if (this.kind == BEST)
+			this.settled = this.settled.min(BigInteger.valueOf(pegs));
+		else if (pegs == 1 && (this.target < 0 || board == 1L << this.target))
+			this.settled = this.settled.add(BigInteger.valueOf(lines));
+	}
+
+	/**
+	 * Returns the key that merges a position with its images. With a target,
+	 * only images that agree on the target may be merged.
+	 *
+	 * @param board the packed position
+	 * @return the key
+	 */
+	private long key(long board) {
+		return this.target < 0 ? Symmetry.canonical(board) : Symmetry.canonicalWith(board, this.target);
+	}
+}
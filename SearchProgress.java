@@ -0,0 +1,272 @@
+import java.io.PrintStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class publishes the progress of a long search, so a window, the
+ * console or a log can follow it while it runs.
+ *
+ * A search reports only where it already looks at the clock, every few
+ * thousand positions, and a report is only published if the last one is
+ * older than the interval; the rest cost one clock read and a compare.
+ * Updates are delivered on a thread of their own through a Flow publisher,
+ * which only sends a subscriber as many updates as it has asked for. When a
+ * subscriber falls behind, new updates are dropped for it rather than making
+ * the search wait; each update holds totals, so a later one replaces every
+ * update missed. The last update of a search is never dropped: finish waits
+ * until every subscriber has room for it.
+ *
+ * Reports may come from any thread. Subscribers may come and go at any
+ * time. Close the publisher when done with it, which delivers what is left.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class SearchProgress implements Flow.Publisher<SearchProgress.Update>, AutoCloseable {
+	/** Default time between updates */
+	public static final long INTERVAL_MILLIS = 250;
+
+	/** Updates held for a subscriber that is behind */
+	private static final int BUFFER = 16;
+
+	/** Longest wait in close for updates to be delivered */
+	private static final long CLOSE_MILLIS = 5000;
+
+	private String kind; // what sort of search it is
+	private ExecutorService delivery; // the thread that calls subscribers
+	private SubmissionPublisher<Update> publisher; // hands updates to subscribers
+	private long intervalNanos; // time between updates
+	private long started; // System.nanoTime() when the search started
+	private long lastUpdate; // System.nanoTime() of the last update
+
+	/**
+	 * Constructs a publisher with the default interval.
+	 *
+	 * @param kind what sort of search it is, shown in each update
+	 */
+	public SearchProgress(String kind) {
+		this(kind, INTERVAL_MILLIS);
+	}
+
+	/**
+	 * Constructs a publisher.
+	 *
+	 * @param kind           what sort of search it is, shown in each update
+	 * @param intervalMillis the shortest time between updates
+	 */
+	public SearchProgress(String kind, long intervalMillis) {
+		this.kind = kind;
+		this.intervalNanos = intervalMillis * 1_000_000;
+		this.delivery = Executors.newSingleThreadExecutor(task -> {
+			Thread thread = new Thread(task, "progress-" + kind);
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.publisher = new SubmissionPublisher<Update>(this.delivery, BUFFER);
+		this.start();
+	}
+
+	/**
+	 * Returns a subscriber that prints each update on its own line.
+	 *
+	 * @param out where to print
+	 * @return the subscriber
+	 */
+	public static Flow.Subscriber<Update> printer(PrintStream out) {
+		return new Flow.Subscriber<Update>() {
+			private Flow.Subscription subscription;
+
+			@Override
+			public void onSubscribe(Flow.Subscription subscription) {
+				this.subscription = subscription;
+				subscription.request(1);
+			}
+
+			@Override
+			public void onNext(Update update) {
+				out.println(update);
+				this.subscription.request(1);
+			}
+
+			@Override
+			public void onError(Throwable error) {
+				out.println("progress failed: " + error);
+			}
+
+			@Override
+			public void onComplete() {
+			}
+		};
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super Update> subscriber) {
+		this.publisher.subscribe(subscriber);
+	}
+
+	/**
+	 * Marks the start of a search, for the elapsed time and the estimate.
+	 */
+	public synchronized void start() {
+		this.started = System.nanoTime();
+		this.lastUpdate = this.started;
+	}
+
+	/**
+	 * Publishes an update if the interval has passed since the last one.
+	 *
+	 * @param nodes    positions searched so far
+	 * @param best     the best answer so far, or -1 if there is none yet
+	 * @param fraction the share of the search done, from 0 to 1, or NaN if
+	 *                 not known
+	 */
+	public synchronized void report(long nodes, long best, double fraction) {
+		long now = System.nanoTime();
+		if (now - this.lastUpdate >= this.intervalNanos) {
+			this.lastUpdate = now;
+			this.publish(now, nodes, best, fraction, false);
+		}
+	}
+
+	/**
+	 * Publishes the final update of a search, whatever the interval, waiting
+	 * for a subscriber that is behind rather than dropping it.
+	 *
+	 * @param nodes positions searched
+	 * @param best  the answer, or -1 if there is none
+	 */
+	public synchronized void finish(long nodes, long best) {
+		long now = System.nanoTime();
+		this.lastUpdate = now;
+		this.publish(now, nodes, best, 1, true);
+	}
+
+	/**
+	 * Tells every subscriber there will be no more updates, and waits a few
+	 * seconds at most for the updates on their way to be delivered.
+	 */
+	@Override
+	public void close() {
+		this.publisher.close();
+		this.delivery.shutdown();
+		try {
+			this.delivery.awaitTermination(CLOSE_MILLIS, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Hands an update to every subscriber. A final update waits for those
+	 * that are behind; any other is dropped for them.
+	 *
+	 * @param now      System.nanoTime() of the update
+	 * @param nodes    positions searched so far
+	 * @param best     the best answer so far, or -1
+	 * @param fraction the share of the search done, or NaN
+	 * @param done     true for the last update of a search
+	 */
+	private void publish(long now, long nodes, long best, double fraction, boolean done) {
+		if (!this.publisher.hasSubscribers())
+			return;
+		long elapsed = now - this.started;
+		long eta = -1;
+		if (done)
+			eta = 0;
+		else if (fraction > 0 && fraction <= 1)
+			eta = (long) (elapsed * (1 - fraction) / fraction);
+		Update update = new Update(this.kind, nodes, best, fraction, elapsed, eta, done);
+		if (done)
+			this.publisher.submit(update);
+		else
+			this.publisher.offer(update, null);
+	}
+
+	/**
+	 * The progress of a search at one moment. Updates never change.
+	 */
+	public static class Update {
+		private String kind; // what sort of search it is
+		private long nodes; // positions searched so far
+		private long best; // best answer so far, or -1
+		private double fraction; // share done, or NaN
+		private long elapsedNanos; // time since the search started
+		private long etaNanos; // estimated time left, or -1
+		private boolean done; // true for the last update of a search
+
+		Update(String kind, long nodes, long best, double fraction, long elapsedNanos, long etaNanos,
+				boolean done) {
+			this.kind = kind;
+			this.nodes = nodes;
+			this.best = best;
+			this.fraction = fraction;
+			this.elapsedNanos = elapsedNanos;
+			this.etaNanos = etaNanos;
+			this.done = done;
+		}
+
+		/** @return what sort of search it is */
+		public String getKind() {
+			return this.kind;
+		}
+
+		/** @return positions searched so far */
+		public long getNodes() {
+			return this.nodes;
+		}
+
+		/** @return the best answer so far, or -1 if there is none yet */
+		public long getBest() {
+			return this.best;
+		}
+
+		/** @return the share of the search done, from 0 to 1, or NaN if not known */
+		public double getFraction() {
+			return this.fraction;
+		}
+
+		/** @return nanoseconds since the search started */
+		public long getElapsedNanos() {
+			return this.elapsedNanos;
+		}
+
+		/** @return estimated nanoseconds left, or -1 if not known */
+		public long getEtaNanos() {
+			return this.etaNanos;
+		}
+
+		/** @return true if this is the last update of the search */
+		public boolean isDone() {
+			return this.done;
+		}
+
+		/** @return positions searched per second so far */
+		public double getNodesPerSecond() {
+			return this.elapsedNanos == 0 ? 0 : this.nodes * 1e9 / this.elapsedNanos;
+		}
+
+		/**
+		 * Returns the update in the form
+		 * "count: 12000000 nodes (4.1M/s), best 3, 42.0%, 3.2 s left".
+		 *
+		 * @return string representation of the update
+		 */
+		public String toString() {
+			StringBuilder text = new StringBuilder();
+			text.append(this.kind).append(": ").append(this.nodes).append(" nodes (")
+					.append(String.format("%.1fM/s", this.getNodesPerSecond() / 1e6)).append(')');
+			if (this.best >= 0)
+				text.append(", best ").append(this.best);
+			if (this.done)
+				text.append(String.format(", done in %.1f s", this.elapsedNanos / 1e9));
+			else if (!Double.isNaN(this.fraction))
+				text.append(String.format(", %.1f%%", 100 * this.fraction));
+			if (!this.done && this.etaNanos >= 0)
+				text.append(String.format(", %.1f s left", this.etaNanos / 1e9));
+			return text.toString();
+		}
+	}
+}
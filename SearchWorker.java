@@ -0,0 +1,80 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.Socket;
+
+/**
+ * This class is one worker process of a search split by SearchCoordinator.
+ * It connects to the coordinator, answers the units it is sent one at a
+ * time and exits when told to stop or when the connection drops.
+ *
+ * The worker keeps one SolutionCounter and one PegSolver for its whole
+ * life, so positions shared by several of its units are searched once.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class SearchWorker {
+	private SolutionCounter counter = new SolutionCounter(); // answers COUNT units
+	private PegSolver solver = new PegSolver(); // answers BEST units
+	private int units; // units answered so far
+
+	/**
+	 * Connects to a coordinator and works until it says stop.
+	 *
+	 * Usage: SearchWorker [host] [port]
+	 *
+	 * @param args command line arguments
+	 * @throws IOException if the coordinator cannot be reached
+	 */
+	public static void main(String[] args) throws IOException {
+		String host = args.length > 0 ? args[0] : "127.0.0.1";
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : SearchCoordinator.PORT;
+		SearchWorker worker = new SearchWorker();
+		try (Socket socket = new Socket(host, port)) {
+			worker.work(socket);
+		}
+	}
+
+	/**
+	 * Answers units over a connection until told to stop.
+	 *
+	 * @param socket the connection to the coordinator
+	 * @throws IOException if the connection fails
+	 */
+	public void work(Socket socket) throws IOException {
+		socket.setTcpNoDelay(true);
+		DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		out.writeInt(SearchCoordinator.MAGIC);
+		out.flush();
+
+		try {
+			while (in.readByte() == SearchCoordinator.UNIT) {
+				int unit = in.readInt();
+				byte kind = in.readByte();
+				long board = in.readLong();
+				int target = in.readInt();
+
+				BigInteger answer = kind == SearchCoordinator.COUNT ? this.counter.count(board, target)
+						: BigInteger.valueOf(this.solver.bestFinish(board));
+				out.writeInt(unit);
+				out.writeLong(answer.longValue());
+				out.writeLong(answer.shiftRight(64).longValue());
+				out.flush();
+				this.units++;
+			}
+		} catch (EOFException e) {
+			// The coordinator has gone away
+		}
+	}
+
+	/** @return the number of units answered so far */
+	public int getUnits() {
+		return this.units;
+	}
+}
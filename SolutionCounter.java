@@ -0,0 +1,273 @@
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * This class counts the distinct jump sequences that take a position to a
+ * single peg, on one hole or on any hole. The counts are huge (tens of
+ * quadrillions from the standard start), so every position's count is
+ * remembered and each position is counted once. The count of a position
+ * equals the count of its mirror images and rotations, so the memo is keyed
+ * by canonical form (see Symmetry).
+ *
+ * Counts are added as 128-bit numbers in two longs and returned as
+ * BigInteger. The memo can be kept in a file instead of on the heap (see
+ * CountMemo) for positions with many pegs, and saved as it grows to a
+ * checkpoint file (see CheckpointLog) so a long count can be resumed.
+ * Progress can be followed while it runs (see SearchProgress); the share
+ * done is judged by how many of the top jumps are finished, as if every
+ * jump at a depth had as much work below it.
+ *
+ * A counter is used by one thread at a time.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class SolutionCounter {
+	/** Kind of search written in checkpoint files */
+	private static final byte CHECKPOINT_KIND = 'C';
+
+	/** Nodes between progress reports */
+	private static final int REPORT_EVERY = 4096;
+
+	/** Depths whose jumps are followed for the share of the count done */
+	private static final int PROGRESS_DEPTH = 6;
+
+	private CountMemo memo; // counts of positions already counted
+	private long[] found = new long[2]; // buffer for memo lookups
+	private CheckpointLog checkpoint; // where new counts are saved, or null
+	private SearchProgress progress; // where progress is reported, or null
+	private double done; // share of the count done, judged by the top jumps
+
+	private int target; // bit index of the finish hole, or -1 for any
+	private Pagoda pagoda; // pagoda functions for the target, or null
+	private long high; // high half of the count just returned by countFrom
+
+	// Work counted in plain fields and added to EngineMetrics at the end
+	private long nodes;
+	private long hits;
+	private long misses;
+	private long[] prunes = new long[EngineMetrics.Prune.values().length];
+
+	/**
+	 * Constructs a counter with a memo on the heap.
+	 */
+	public SolutionCounter() {
+		this(new CountMemo());
+	}
+
+	/**
+	 * Constructs a counter with a given memo.
+	 *
+	 * @param memo the memo, which may already hold counts from this counter
+	 */
+	public SolutionCounter(CountMemo memo) {
+		this.memo = memo;
+	}
+
+	/**
+	 * Counts the solutions of the standard start and prints the count.
+	 *
+	 * Usage: SolutionCounter [row col] [-spill directory] [-expect positions]
+	 * [-checkpoint file [-every seconds]] [-progress]
+	 *
+	 * @param args command line arguments
+	 * @throws IOException if the checkpoint file cannot be used
+	 */
+	public static void main(String[] args) throws IOException {
+		int target = -1;
+		Path spill = null;
+		long expected = 0;
+		Path checkpoint = null;
+		long seconds = 60;
+		boolean progress = false;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-spill"))
+				spill = Paths.get(args[++i]);
+			else if (args[i].equals("-expect"))
+				expected = Long.parseLong(args[++i]);
+			else if (args[i].equals("-checkpoint"))
+				checkpoint = Paths.get(args[++i]);
+			else if (args[i].equals("-every"))
+				seconds = Long.parseLong(args[++i]);
+			else if (args[i].equals("-progress"))
+				progress = true;
+			else
+				target = PackedBoard.index(Integer.parseInt(args[i]), Integer.parseInt(args[++i]));
+		}
+
+		try (CountMemo memo = new CountMemo(spill, expected);
+				SearchProgress publisher = progress ? new SearchProgress("count", 1000) : null) {
+			long started = System.nanoTime();
+			SolutionCounter counter = new SolutionCounter(memo);
+			if (publisher != null) {
+				publisher.subscribe(SearchProgress.printer(System.err));
+				counter.setProgress(publisher);
+			}
+			CheckpointLog log = null;
+			if (checkpoint != null) {
+				log = counter.resume(checkpoint, PackedBoard.START, target, seconds * 1000);
+				System.err.printf("%d positions restored in %.2f s%n", log.getRestored(),
+						(System.nanoTime() - started) / 1e9);
+			}
+			BigInteger count = counter.count(PackedBoard.START, target);
+			if (log != null)
+				log.close();
+			System.out.println(count);
+			System.err.printf("%.2f s, %d positions, %d MB table%n", (System.nanoTime() - started) / 1e9,
+					memo.size(), memo.tableBytes() >> 20);
+		}
+	}
+
+	/**
+	 * Loads the counts saved in a checkpoint file into the memo and saves
+	 * every new count to the same file from now on. The file is created if
+	 * it does not exist. Close the returned log when the count is done.
+	 *
+	 * @param file           the checkpoint file
+	 * @param board          the packed position that will be counted
+	 * @param target         the bit index of the finish hole, or -1 for any
+	 * @param intervalMillis the longest time between checkpoints
+	 * @return the log the counts are saved to
+	 * @throws IOException if the file cannot be used or belongs to another
+	 *                     count
+	 */
+	public CheckpointLog resume(Path file, long board, int target, long intervalMillis) throws IOException {
+		this.checkpoint = CheckpointLog.open(file, CHECKPOINT_KIND, board, target, intervalMillis, this.memo::put);
+		return this.checkpoint;
+	}
+
+	/**
+	 * Sets where the progress of each count is reported.
+	 *
+	 * @param progress the publisher, or null for none
+	 */
+	public void setProgress(SearchProgress progress) {
+		this.progress = progress;
+	}
+
+	/**
+	 * Counts the jump sequences that leave a single peg anywhere.
+	 *
+	 * @param board the board
+	 * @return the number of sequences
+	 */
+	public BigInteger count(PegBoard board) {
+		return this.count(PackedBoard.pack(board), -1);
+	}
+
+	/**
+	 * Counts the jump sequences that leave a single peg.
+	 *
+	 * @param board  the packed position
+	 * @param target the bit index of the hole to finish on, or -1 for any
+	 * @return the number of sequences
+	 */
+	public BigInteger count(long board, int target) {
+		long started = System.nanoTime();
+		this.target = target;
+		this.pagoda = target < 0 ? null : new Pagoda(target);
+		this.nodes = 0;
+		this.hits = 0;
+		this.misses = 0;
+		Arrays.fill(this.prunes, 0);
+		this.done = 0;
+		if (this.progress != null)
+			this.progress.start();
+
+		long low = 0;
+		this.high = 0;
+		if (target >= 0 && PegSolver.positionClass(board) != PegSolver.positionClass(1L << target))
+			this.prunes[EngineMetrics.Prune.CLASS.ordinal()]++;
+		else if (board != 0)
+			low = this.countFrom(board, 0, 1);
+		BigInteger count = toBigInteger(low, this.high);
+		if (this.progress != null)
+			this.progress.finish(this.nodes, -1);
+
+		EngineMetrics.recordSearch("count", started, this.nodes, this.hits, this.misses, this.prunes, null,
+				count.signum());
+		return count;
+	}
+
+	/**
+	 * Turns a 128-bit count into a BigInteger.
+	 *
+	 * @param low  the low 64 bits
+	 * @param high the high 64 bits
+	 * @return the count
+	 */
+	static BigInteger toBigInteger(long low, long high) {
+		byte[] bytes = new byte[17]; // a leading 0 keeps it positive
+		for (int i = 0; i < 8; i++) {
+			bytes[16 - i] = (byte) (low >>> 8 * i);
+			bytes[8 - i] = (byte) (high >>> 8 * i);
+		}
+		return new BigInteger(bytes);
+	}
+
+	/**
+	 * Counts the sequences below a position.
+	 *
+	 * @param board the packed position, not empty
+	 * @param depth the number of jumps from the position counted
+	 * @param share the share of the whole count below this position, while
+	 *              depth is below PROGRESS_DEPTH
+	 * @return the low 64 bits of the count; the high 64 bits are left in high
+	 */
+	private long countFrom(long board, int depth, double share) {
+		if (++this.nodes % REPORT_EVERY == 0 && this.progress != null)
+			this.progress.report(this.nodes, -1, this.done);
+		if (PackedBoard.pegCount(board) == 1) {
+			this.high = 0;
+			return this.target < 0 || board == 1L << this.target ? 1 : 0;
+		}
+
+		if (this.pagoda != null && this.pagoda.rulesOut(board)) {
+			this.prunes[EngineMetrics.Prune.PAGODA.ordinal()]++;
+			this.high = 0;
+			return 0;
+		}
+
+		// Keys with a target have it above the board bits; hole 0 is never a target
+		long key = this.target < 0 ? Symmetry.canonical(board) : Symmetry.canonicalWith(board, this.target);
+		if (this.memo.get(key, this.found)) {
+			this.hits++;
+			this.prunes[EngineMetrics.Prune.CACHE.ordinal()]++;
+			this.high = this.found[1];
+			return this.found[0];
+		}
+		this.misses++;
+
+		// Near the top, split this position's share evenly among its jumps
+		int moves = 0;
+		double doneBefore = this.done;
+		if (depth < PROGRESS_DEPTH)
+			for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++)
+				if (PackedBoard.isLegal(board, jump))
+					moves++;
+
+		long low = 0;
+		long high = 0;
+		int finished = 0;
+		for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++) {
+			if (PackedBoard.isLegal(board, jump)) {
+				long add = this.countFrom(PackedBoard.apply(board, jump), depth + 1,
+						depth < PROGRESS_DEPTH ? share / moves : 0);
+				long sum = low + add;
+				high += this.high + (Long.compareUnsigned(sum, low) < 0 ? 1 : 0);
+				low = sum;
+				if (depth < PROGRESS_DEPTH)
+					this.done = doneBefore + share * ++finished / moves;
+			}
+		}
+
+		this.memo.put(key, low, high);
+		if (this.checkpoint != null)
+			this.checkpoint.record(key, low, high);
+		this.high = high;
+		return low;
+	}
+}
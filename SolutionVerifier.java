@@ -0,0 +1,395 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class checks submitted solutions by replaying them on a packed board.
+ * A jump is legal under the same rules as PegSolitaire.openValidLocations and
+ * playPeg: the jumping peg and the peg next to it are on the board, and the
+ * location two steps away is an empty location on the board.
+ *
+ * A check returns a single int, so that replaying a solution allocates
+ * nothing:
+ * <ul>
+ * <li>a positive number is the count of pegs left after every jump was
+ * legal (1 means the puzzle was solved)</li>
+ * <li>a negative number -k means jump k (counting from 1) was illegal</li>
+ * <li>EMPTY means the start had no pegs on the board, so there was nothing
+ * to solve</li>
+ * <li>MALFORMED means a text solution could not be read as jumps on the
+ * board (see verifyText)</li>
+ * </ul>
+ *
+ * Streams of records are read in batches, and the batches are checked on a
+ * pool of threads. Batch buffers are reused, so a long stream creates no
+ * garbage once the pipeline is full.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class SolutionVerifier implements AutoCloseable {
+	/** Receives the result of each solution in a stream */
+	public interface ResultSink {
+		/**
+		 * Called once for every solution, in stream order.
+		 *
+		 * @param index  the position of the solution in the stream, from 0
+		 * @param result the result of the check
+		 */
+		void accept(long index, int result);
+	}
+
+	/** Result of a check whose start has no pegs on the board */
+	public static final int EMPTY = 0;
+
+	/** Result of a text solution that could not be read */
+	public static final int MALFORMED = Integer.MIN_VALUE;
+
+	/** Number of solutions in one batch */
+	private static final int BATCH_SIZE = 4096;
+
+	private ExecutorService pool; // threads that check batches
+	private int threads; // number of threads in the pool
+
+	/**
+	 * Constructs a verifier that uses every core.
+	 */
+	public SolutionVerifier() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs a verifier that uses a number of threads.
+	 *
+	 * @param threads the number of threads to check batches on
+	 */
+	public SolutionVerifier(int threads) {
+		this.threads = threads;
+		this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "verifier");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Makes random games and reports how many solutions a second each way of
+	 * checking gets through: one at a time, verifyAll and verifyStream.
+	 *
+	 * Usage: SolutionVerifier [solutions] [threads]
+	 *
+	 * @param args command line arguments
+	 * @throws Exception if the stream cannot be checked
+	 */
+	public static void main(String[] args) throws Exception {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+		// Random games from the standard start, which are all legal
+		SplittableRandom random = new SplittableRandom(1);
+		long[] starts = new long[count];
+		byte[][] moves = new byte[count][];
+		byte[] line = new byte[PackedBoard.JUMP_COUNT];
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GameRecordWriter writer = new GameRecordWriter(Channels.newChannel(bytes))) {
+			for (int i = 0; i < count; i++) {
+				long board = PackedBoard.START;
+				int length = 0;
+				while (PackedBoard.hasMove(board)) {
+					int jump = random.nextInt(PackedBoard.JUMP_COUNT);
+					while (!PackedBoard.isLegal(board, jump))
+						jump = (jump + 1) % PackedBoard.JUMP_COUNT;
+					line[length++] = (byte) jump;
+					board = PackedBoard.apply(board, jump);
+				}
+				starts[i] = PackedBoard.START;
+				moves[i] = Arrays.copyOf(line, length);
+				writer.write(GameRecord.ENGLISH, starts[i], line, length);
+			}
+		}
+
+		try (SolutionVerifier verifier = new SolutionVerifier(threads)) {
+			for (int round = 0; round < 3; round++) {
+				long started = System.nanoTime();
+				long pegs = 0;
+				for (int i = 0; i < count; i++)
+					pegs += verify(starts[i], moves[i], 0, moves[i].length);
+				double one = (System.nanoTime() - started) / 1e9;
+
+				started = System.nanoTime();
+				int[] results = verifier.verifyAll(starts, moves);
+				double all = (System.nanoTime() - started) / 1e9;
+
+				started = System.nanoTime();
+				long[] solved = new long[1];
+				try (GameRecordReader reader = new GameRecordReader(
+						Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())))) {
+					verifier.verifyStream(reader, (index, result) -> solved[0] += isSolved(result) ? 1 : 0);
+				}
+				double stream = (System.nanoTime() - started) / 1e9;
+
+				System.out.printf("%d solutions, %d threads: one at a time %.0f/s, verifyAll %.0f/s, "
+						+ "verifyStream %.0f/s (%d pegs left, %d results, %d solved)%n", count, threads, count / one,
+						count / all, count / stream, pegs, results.length, solved[0]);
+			}
+		}
+	}
+
+	/**
+	 * Checks one solution.
+	 *
+	 * @param start  the packed start position
+	 * @param moves  an array holding the jump numbers
+	 * @param offset index of the first jump in the array
+	 * @param length number of jumps
+	 * @return the number of pegs left, -k if jump k was illegal, or EMPTY if
+	 *         the start has no pegs on the board
+	 */
+	public static int verify(long start, byte[] moves, int offset, int length) {
+		long board = start & PackedBoard.VALID;
+		if (board == 0)
+			return EMPTY;
+		for (int ply = 0; ply < length; ply++) {
+			int jump = moves[offset + ply] & 0xFF;
+			if (jump >= PackedBoard.JUMP_COUNT || !PackedBoard.isLegal(board, jump))
+				return -(ply + 1);
+			board = PackedBoard.apply(board, jump);
+		}
+		return PackedBoard.pegCount(board);
+	}
+
+	/**
+	 * Checks one recorded game.
+	 *
+	 * @param record the game to check
+	 * @return the number of pegs left, -k if jump k was illegal, or EMPTY if
+	 *         the start has no pegs on the board
+	 */
+	public static int verify(GameRecord record) {
+		byte[] moves = record.getMoves();
+		return verify(record.getStart(), moves, 0, moves.length);
+	}
+
+	/**
+	 * Checks one solution written as text from the standard start (see
+	 * parse).
+	 *
+	 * @param text  the characters to read
+	 * @param from  index of the first character of the solution
+	 * @param to    index after the last character of the solution
+	 * @param moves where the jump numbers are stored while checking, room
+	 *              for every jump of a game
+	 * @return the number of pegs left, -k if jump k was illegal, or MALFORMED
+	 *         if the text is not a list of jumps on the board
+	 */
+	public static int verifyText(CharSequence text, int from, int to, byte[] moves) {
+		int count = parse(text, from, to, moves);
+		return count < 0 ? MALFORMED : verify(PackedBoard.START, moves, 0, count);
+	}
+
+	/**
+	 * Determines if a result means the solution ended with one peg.
+	 *
+	 * @param result the result of a check
+	 * @return true if every jump was legal and one peg is left
+	 */
+	public static boolean isSolved(int result) {
+		return result == 1;
+	}
+
+	/**
+	 * Reads one solution written as text: whitespace separated groups of
+	 * "fromRow fromCol toRow toCol".
+	 *
+	 * @param text   the characters to read
+	 * @param from   index of the first character of the solution
+	 * @param to     index after the last character of the solution
+	 * @param moves  where the jump numbers are stored
+	 * @return the number of jumps read, or -k if jump k is not a jump on the
+	 *         board or is written incorrectly
+	 */
+	public static int parse(CharSequence text, int from, int to, byte[] moves) {
+		int count = 0;
+		int fromRow = 0, fromCol = 0, toRow = 0; // numbers read so far in this jump
+		int found = 0;
+		int i = from;
+		while (i < to) {
+			char c = text.charAt(i);
+			if (c >= '0' && c <= '9') {
+				// Read one number
+				int value = 0;
+				while (i < to && (c = text.charAt(i)) >= '0' && c <= '9') {
+					value = value * 10 + (c - '0');
+					i++;
+				}
+
+				// Four numbers make a jump
+				if (found == 0) {
+					fromRow = value;
+				} else if (found == 1) {
+					fromCol = value;
+				} else if (found == 2) {
+					toRow = value;
+				} else {
+					int jump = PackedBoard.jumpNumber(fromRow, fromCol, toRow, value);
+					if (jump < 0 || count == moves.length)
+						return -(count + 1);
+					moves[count++] = (byte) jump;
+					found = -1;
+				}
+				found++;
+			} else if (c == ' ' || c == '\t' || c == ',' || c == '\r') {
+				i++;
+			} else {
+				return -(count + 1);
+			}
+		}
+		return found == 0 ? count : -(count + 1);
+	}
+
+	/**
+	 * Checks many solutions in parallel.
+	 *
+	 * @param starts the packed start position of each solution
+	 * @param moves  the jump numbers of each solution
+	 * @return the result of each check, in the same order
+	 * @throws InterruptedException if interrupted while waiting for results
+	 */
+	public int[] verifyAll(long[] starts, byte[][] moves) throws InterruptedException {
+		int[] results = new int[starts.length];
+		int chunk = (starts.length + this.threads - 1) / this.threads;
+		ArrayDeque<Future<?>> pending = new ArrayDeque<Future<?>>();
+		for (int first = 0; first < starts.length; first += chunk) {
+			int low = first;
+			int high = Math.min(starts.length, first + chunk);
+			pending.add(this.pool.submit(() -> {
+				for (int i = low; i < high; i++)
+					results[i] = verify(starts[i], moves[i], 0, moves[i].length);
+			}));
+		}
+		for (Future<?> future : pending)
+			await(future);
+		return results;
+	}
+
+	/**
+	 * Checks every record in a stream. Records are read in batches on the
+	 * calling thread while earlier batches are checked on the pool, and the
+	 * results are handed to the sink in stream order.
+	 *
+	 * @param reader the records to check
+	 * @param sink   receives each result
+	 * @return the number of records checked
+	 * @throws IOException          if the stream cannot be read
+	 * @throws InterruptedException if interrupted while waiting for results
+	 */
+	public long verifyStream(GameRecordReader reader, ResultSink sink) throws IOException, InterruptedException {
+		ArrayDeque<Batch> free = new ArrayDeque<Batch>();
+		ArrayDeque<Batch> running = new ArrayDeque<Batch>();
+		for (int i = 0; i < 2 * this.threads; i++)
+			free.add(new Batch());
+
+		long index = 0;
+		boolean more = true;
+		while (more || !running.isEmpty()) {
+			// Keep every batch buffer busy while there is input
+			while (more && !free.isEmpty()) {
+				Batch batch = free.poll();
+				more = batch.read(reader);
+				if (batch.count == 0) {
+					free.add(batch);
+					break;
+				}
+				batch.future = this.pool.submit(batch);
+				running.add(batch);
+			}
+
+			// Hand over the oldest batch's results, then reuse its buffers
+			Batch done = running.poll();
+			if (done != null) {
+				await(done.future);
+				for (int i = 0; i < done.count; i++)
+					sink.accept(index++, done.results[i]);
+				free.add(done);
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Stops the pool threads.
+	 */
+	public void close() {
+		this.pool.shutdown();
+	}
+
+	/**
+	 * Waits for a task and passes on any failure.
+	 *
+	 * @param future the task to wait for
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private static void await(Future<?> future) throws InterruptedException {
+		try {
+			future.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * A reusable block of solutions: starts, jumps packed end to end, and
+	 * results.
+	 */
+	private static class Batch implements Runnable {
+		private long[] starts = new long[BATCH_SIZE];
+		private int[] offsets = new int[BATCH_SIZE + 1];
+		private byte[] moves = new byte[BATCH_SIZE * 32];
+		private int[] results = new int[BATCH_SIZE];
+		private int count;
+		private Future<?> future;
+
+		/**
+		 * Fills the batch from a reader.
+		 *
+		 * @param reader the records to read
+		 * @return false if the reader ran out of records
+		 * @throws IOException if the stream cannot be read
+		 */
+		boolean read(GameRecordReader reader) throws IOException {
+			this.count = 0;
+			int used = 0;
+			while (this.count < BATCH_SIZE) {
+				if (!reader.next())
+					return false;
+				int length = reader.getMoveCount();
+				if (this.moves.length < used + length)
+					this.moves = Arrays.copyOf(this.moves, 2 * (used + length));
+				for (int ply = 0; ply < length; ply++)
+					this.moves[used + ply] = (byte) reader.getMove(ply);
+				this.starts[this.count] = reader.getStart();
+				this.offsets[this.count] = used;
+				used += length;
+				this.offsets[++this.count] = used;
+			}
+			return true;
+		}
+
+		/**
+		 * Checks every solution in the batch.
+		 */
+		public void run() {
+			for (int i = 0; i < this.count; i++)
+				this.results[i] = verify(this.starts[i], this.moves, this.offsets[i],
+						this.offsets[i + 1] - this.offsets[i]);
+		}
+	}
+}
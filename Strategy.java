@@ -0,0 +1,157 @@
+import java.util.SplittableRandom;
+
+/**
+ * This interface is a player: given a position, it picks the next jump.
+ * Tournament plays strategies against the same starts to compare them.
+ *
+ * A strategy is used by one thread at a time and may keep state between
+ * moves and games, such as caches. The factories below give the standard
+ * players; anything else can be added by implementing chooseJump.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public interface Strategy {
+	/**
+	 * Picks a jump.
+	 * Precondition: rules.hasMove(board) is true.
+	 *
+	 * @param rules the rules of the game
+	 * @param board the packed position
+	 * @return the jump number, which must be legal
+	 */
+	int chooseJump(JumpRules rules, long board);
+
+	/**
+	 * Returns a player that picks any legal jump with equal chance.
+	 *
+	 * @param seed the seed of its random numbers
+	 * @return the strategy
+	 */
+	static Strategy random(long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		return (rules, board) -> {
+			int pick = random.nextInt(rules.moveCount(board));
+			for (int jump = 0;; jump++)
+				if (rules.isLegal(board, jump) && pick-- == 0)
+					return jump;
+		};
+	}
+
+	/**
+	 * Returns a player that looks one jump ahead and keeps the most jumps
+	 * open for the next move, taking the first jump on a tie.
+	 *
+	 * @return the strategy
+	 */
+	static Strategy greedy() {
+		return (rules, board) -> {
+			int best = -1;
+			int bestOpen = -1;
+			for (int jump = 0; jump < rules.getJumpCount(); jump++) {
+				if (rules.isLegal(board, jump)) {
+					int open = rules.moveCount(rules.apply(board, jump));
+					if (open > bestOpen) {
+						best = jump;
+						bestOpen = open;
+					}
+				}
+			}
+			return best;
+		};
+	}
+
+	/**
+	 * Returns a player that looks one jump ahead and takes the jump whose
+	 * position a pattern table (see PatternTable) predicts leaves the fewest
+	 * pegs. The table only knows the standard board, so on other rules it
+	 * plays greedily.
+	 *
+	 * @param table the trained pattern table
+	 * @return the strategy
+	 */
+	static Strategy pattern(PatternTable table) {
+		Strategy fallback = greedy();
+		return (rules, board) -> rules == JumpRules.ENGLISH ? table.bestJump(board) : fallback.chooseJump(rules, board);
+	}
+
+	/**
+	 * Returns a player that runs an anytime search (see AnytimeSearch) for a
+	 * while before each jump and makes the first jump of its best line. On
+	 * other rules it searches every line (see RulesSearch) for the same time.
+	 *
+	 * @param millis the time to think before each jump
+	 * @return the strategy
+	 */
+	static Strategy search(long millis) {
+		return search(millis, null);
+	}
+
+	/**
+	 * Returns a player that runs an anytime search ordering its jumps by a
+	 * pattern table (see AnytimeSearch.setPatterns). On other rules it
+	 * searches every line (see RulesSearch) for the same time.
+	 *
+	 * @param millis   the time to think before each jump
+	 * @param patterns the trained table, or null to order by lone pegs
+	 * @return the strategy
+	 */
+	static Strategy search(long millis, PatternTable patterns) {
+		AnytimeSearch search = new AnytimeSearch();
+		search.setPatterns(patterns);
+		RulesSearch other = new RulesSearch();
+		Strategy fallback = greedy();
+		return (rules, board) -> {
+			if (rules != JumpRules.ENGLISH) {
+				int jump = other.bestJump(rules, board, Long.MAX_VALUE, millis);
+				return jump != RulesSearch.UNFINISHED ? jump : fallback.chooseJump(rules, board);
+			}
+			byte[] line = search.search(board, millis).getLine();
+			// A search stopped before its first game ends has no line yet
+			return line.length > 0 ? line[0] & 0xFF : fallback.chooseJump(rules, board);
+		};
+	}
+
+	/**
+	 * Returns a player that searches every position exactly (see PegSolver)
+	 * and always keeps the best finish. On other rules it searches with
+	 * RulesSearch, which has a cache of its own, and plays greedily if that
+	 * visits too many positions.
+	 *
+	 * @param finishes a cache of best finishes of the standard rules, which
+	 *                 may be shared by players on other threads
+	 * @return the strategy
+	 */
+	static Strategy solver(PositionCache finishes) {
+		PegSolver solver = new PegSolver(finishes);
+		RulesSearch other = new RulesSearch();
+		Strategy fallback = greedy();
+		return (rules, board) -> {
+			if (rules != JumpRules.ENGLISH) {
+				int jump = other.bestJump(rules, board, RulesSearch.SOLVER_POSITIONS, Long.MAX_VALUE);
+				return jump != RulesSearch.UNFINISHED ? jump : fallback.chooseJump(rules, board);
+			}
+			int best = solver.bestFinish(board);
+			for (int jump = 0; jump < PackedBoard.JUMP_COUNT; jump++)
+				if (PackedBoard.isLegal(board, jump) && solver.bestFinish(PackedBoard.apply(board, jump)) == best)
+					return jump;
+			throw new IllegalStateException("No jump keeps the best finish");
+		};
+	}
+
+	/**
+	 * Returns a player that makes the book's jump (see OpeningBook) while the
+	 * game is in the book, with no search, and lets another strategy play
+	 * from there.
+	 *
+	 * @param book     the opening book
+	 * @param fallback the strategy for positions out of the book
+	 * @return the strategy
+	 */
+	static Strategy book(OpeningBook book, Strategy fallback) {
+		return (rules, board) -> {
+			int jump = rules == JumpRules.ENGLISH ? book.bestJump(board) : OpeningBook.OUT_OF_BOOK;
+			return jump != OpeningBook.OUT_OF_BOOK ? jump : fallback.chooseJump(rules, board);
+		};
+	}
+}
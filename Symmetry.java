@@ -0,0 +1,152 @@
+/**
+ * This class maps packed boards through the eight symmetries of the square
+ * board: four rotations, each with or without a mirror. The English board
+ * looks the same under all of them, so positions that are mirror images or
+ * rotations of each other have the same outcome.
+ *
+ * A transform is done with one table lookup per row.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public final class Symmetry {
+	/** Number of symmetries, including the identity */
+	public static final int COUNT = 8;
+
+	/** Bit mask with one bit for every symmetry */
+	public static final int ALL = (1 << COUNT) - 1;
+
+	/** Where each location goes: MAP[sym][index] is the new bit index */
+	private static final int[][] MAP = new int[COUNT][49];
+
+	/** TABLE[sym][row][bits of the row] is the transformed bits of the row */
+	private static final long[][][] TABLE = new long[COUNT][7][128];
+
+	static {
+		int n = PackedBoard.SIZE - 1;
+		for (int sym = 0; sym < COUNT; sym++) {
+			for (int row = 0; row <= n; row++) {
+				for (int col = 0; col <= n; col++) {
+					int r, c;
+					switch (sym) {
+					case 0: r = row; c = col; break; // identity
+					case 1: r = col; c = n - row; break; // quarter turn
+					case 2: r = n - row; c = n - col; break; // half turn
+					case 3: r = n - col; c = row; break; // three quarter turn
+					case 4: r = row; c = n - col; break; // mirror left to right
+					case 5: r = n - row; c = col; break; // mirror top to bottom
+					case 6: r = col; c = row; break; // mirror on the main diagonal
+					default: r = n - col; c = n - row; break; // mirror on the other diagonal
+					}
+					MAP[sym][PackedBoard.index(row, col)] = PackedBoard.index(r, c);
+				}
+			}
+
+			for (int row = 0; row <= n; row++) {
+				for (int bits = 0; bits < 128; bits++) {
+					long out = 0;
+					for (int col = 0; col <= n; col++)
+						if ((bits & (1 << col)) != 0)
+							out |= 1L << MAP[sym][PackedBoard.index(row, col)];
+					TABLE[sym][row][bits] = out;
+				}
+			}
+		}
+	}
+
+	/* no instances */
+	private Symmetry() {
+	}
+
+	/**
+	 * Maps a packed board through one symmetry.
+	 *
+	 * @param board the packed board
+	 * @param sym   the symmetry, from 0 to COUNT - 1
+	 * @return the transformed board
+	 */
+	public static long transform(long board, int sym) {
+		long[][] table = TABLE[sym];
+		return table[0][(int) board & 127] | table[1][(int) (board >>> 7) & 127]
+				| table[2][(int) (board >>> 14) & 127] | table[3][(int) (board >>> 21) & 127]
+				| table[4][(int) (board >>> 28) & 127] | table[5][(int) (board >>> 35) & 127]
+				| table[6][(int) (board >>> 42) & 127];
+	}
+
+	/**
+	 * Returns where a location goes under a symmetry.
+	 *
+	 * @param index the bit index of the location
+	 * @param sym   the symmetry
+	 * @return the bit index it maps to
+	 */
+	public static int map(int index, int sym) {
+		return MAP[sym][index];
+	}
+
+	/**
+	 * Returns the smallest of the eight images of a board. Boards that are
+	 * symmetric to each other have the same canonical form.
+	 *
+	 * @param board the packed board
+	 * @return the canonical form
+	 */
+	public static long canonical(long board) {
+		return canonical(board, ALL);
+	}
+
+	/**
+	 * Returns the smallest image of a board under some of the symmetries.
+	 *
+	 * @param board the packed board
+	 * @param syms  bit mask of the symmetries to use (see symmetriesFixing)
+	 * @return the canonical form under those symmetries
+	 */
+	public static long canonical(long board, int syms) {
+		long best = board;
+		for (int sym = 1; sym < COUNT; sym++) {
+			if ((syms & (1 << sym)) != 0) {
+				long image = transform(board, sym);
+				if (image < best)
+					best = image;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Returns a key that is the same for a board with a marked location (such
+	 * as a target hole) and for every image of the pair under the symmetries.
+	 * The board is in the low 49 bits and the location above them.
+	 *
+	 * @param board the packed board
+	 * @param index the bit index of the marked location
+	 * @return the key, never 0
+	 */
+	public static long canonicalWith(long board, int index) {
+		long best = Long.MAX_VALUE;
+		for (int sym = 0; sym < COUNT; sym++) {
+			long key = transform(board, sym) | (long) MAP[sym][index] << 49;
+			if (key < best)
+				best = key;
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the symmetries that leave a location where it is. Searches
+	 * aiming for that location may only merge positions under these.
+	 *
+	 * @param index the bit index of the location, or -1 for none
+	 * @return bit mask of the symmetries (all of them for -1)
+	 */
+	public static int symmetriesFixing(int index) {
+		if (index < 0)
+			return ALL;
+		int syms = 0;
+		for (int sym = 0; sym < COUNT; sym++)
+			if (MAP[sym][index] == index)
+				syms |= 1 << sym;
+		return syms;
+	}
+}
@@ -0,0 +1,280 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * This class plays several strategies (see Strategy) from the same starting
+ * positions and compares them: how many pegs each leaves, how often it wins
+ * with one peg, and how fast it moves.
+ *
+ * Every game is a task on a fixed pool of threads. Each thread makes its own
+ * player of each strategy the first time it needs one and keeps it, so
+ * players with caches keep them from game to game without being shared.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class Tournament {
+	private JumpRules rules; // the rules every game is played by
+	private long[] starts; // the packed starting positions
+	private int threads; // the number of games played at once
+	private Map<String, ThreadLocal<Strategy>> players = new LinkedHashMap<String, ThreadLocal<Strategy>>();
+
+	/**
+	 * Constructs a tournament.
+	 *
+	 * @param rules   the rules every game is played by
+	 * @param starts  the packed starting positions, played by every strategy
+	 * @param threads the number of games played at once
+	 */
+	public Tournament(JumpRules rules, long[] starts, int threads) {
+		this.rules = rules;
+		this.starts = starts.clone();
+		this.threads = threads;
+	}
+
+	/**
+	 * Plays the standard strategies from random starts and prints the
+	 * standings.
+	 *
+	 * Usage: Tournament [starts] [-threads n] [-rules name] [-search millis]
+	 * [-seed n] [-patterns file]
+	 *
+	 * The rules are one of english, english-diagonal and triangle. The
+	 * pattern strategies only play the english rules.
+	 *
+	 * @param args command line arguments
+	 * @throws InterruptedException     if interrupted while waiting for games
+	 * @throws IOException              if the pattern table cannot be read
+	 * @throws IllegalArgumentException if the rules have no such name
+	 */
+	public static void main(String[] args) throws InterruptedException, IOException {
+		int count = 200;
+		int threads = Runtime.getRuntime().availableProcessors();
+		JumpRules rules = JumpRules.ENGLISH;
+		long millis = 20;
+		long seed = 1;
+		PatternTable patterns = null;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-threads"))
+				threads = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-search"))
+				millis = Long.parseLong(args[++i]);
+			else if (args[i].equals("-patterns"))
+				patterns = PatternTable.read(Paths.get(args[++i]));
+			else if (args[i].equals("-seed"))
+				seed = Long.parseLong(args[++i]);
+			else if (args[i].equals("-rules"))
+				rules = JumpRules.named(args[++i]);
+			else
+				count = Integer.parseInt(args[i]);
+		}
+
+		Tournament tournament = new Tournament(rules, randomStarts(rules, count, seed), threads);
+		long randomSeed = seed;
+		tournament.add("random", () -> Strategy.random(randomSeed + Thread.currentThread().getId()));
+		tournament.add("greedy", Strategy::greedy);
+		long searchMillis = millis;
+		tournament.add("search-" + millis + "ms", () -> Strategy.search(searchMillis));
+		if (patterns != null && rules == JumpRules.ENGLISH) {
+			PatternTable table = patterns;
+			tournament.add("patterns", () -> Strategy.pattern(table));
+			tournament.add("search+patterns", () -> Strategy.search(searchMillis, table));
+		}
+		PositionCache finishes = new PositionCache();
+		tournament.add("solver", () -> Strategy.solver(finishes));
+
+		long started = System.nanoTime();
+		List<Standing> standings = tournament.play();
+		System.out.printf("%d starts, %s rules, %d threads, %.1f s%n", count, rules, threads,
+				(System.nanoTime() - started) / 1e9);
+		for (Standing standing : standings)
+			System.out.println(standing);
+	}
+
+	/**
+	 * Returns starting positions made by random jumps from the usual start,
+	 * so games begin part way through.
+	 *
+	 * @param rules the rules of the game
+	 * @param count the number of positions
+	 * @param seed  the seed of the random jumps
+	 * @return the packed positions
+	 */
+	public static long[] randomStarts(JumpRules rules, int count, long seed) {
+		Random random = new Random(seed);
+		long[] starts = new long[count];
+		for (int i = 0; i < count; i++) {
+			long board = rules.getStart();
+			int plies = random.nextInt(Math.max(1, Long.bitCount(board) / 3));
+			for (int ply = 0; ply < plies && rules.hasMove(board); ply++) {
+				int pick = random.nextInt(rules.moveCount(board));
+				for (int jump = 0;; jump++) {
+					if (rules.isLegal(board, jump) && pick-- == 0) {
+						board = rules.apply(board, jump);
+						break;
+					}
+				}
+			}
+			starts[i] = board;
+		}
+		return starts;
+	}
+
+	/**
+	 * Adds a strategy. The factory is called once on each thread that plays
+	 * it.
+	 *
+	 * @param name    the name shown in the standings
+	 * @param factory makes a player of the strategy
+	 */
+	public void add(String name, Supplier<Strategy> factory) {
+		this.players.put(name, ThreadLocal.withInitial(factory));
+	}
+
+	/**
+	 * Plays every strategy from every start.
+	 *
+	 * @return the standings, in the order the strategies were added
+	 * @throws InterruptedException if interrupted while waiting for games
+	 */
+	public List<Standing> play() throws InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(this.threads, runnable -> {
+			Thread thread = new Thread(runnable, "tournament");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			// Interleave the strategies so a slow one does not hold up the rest at the end
+			Map<String, List<Future<long[]>>> games = new LinkedHashMap<String, List<Future<long[]>>>();
+			for (String name : this.players.keySet())
+				games.put(name, new ArrayList<Future<long[]>>());
+			for (long start : this.starts)
+				for (Map.Entry<String, ThreadLocal<Strategy>> player : this.players.entrySet())
+					games.get(player.getKey()).add(pool.submit(() -> this.playGame(player.getValue().get(), start)));
+
+			List<Standing> standings = new ArrayList<Standing>();
+			for (Map.Entry<String, List<Future<long[]>>> entry : games.entrySet()) {
+				Standing standing = new Standing(entry.getKey());
+				for (Future<long[]> game : entry.getValue())
+					standing.add(game.get());
+				standings.add(standing);
+			}
+			return standings;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Plays one game to the end.
+	 *
+	 * @param player the strategy
+	 * @param board  the packed starting position
+	 * @return the pegs left, the jumps made and the nanoseconds taken
+	 * @throws IllegalStateException if the strategy picks an illegal jump
+	 */
+	private long[] playGame(Strategy player, long board) {
+		long started = System.nanoTime();
+		int jumps = 0;
+		while (this.rules.hasMove(board)) {
+			int jump = player.chooseJump(this.rules, board);
+			if (jump < 0 || jump >= this.rules.getJumpCount() || !this.rules.isLegal(board, jump))
+				throw new IllegalStateException("Illegal jump " + jump + " after " + jumps + " jumps");
+			board = this.rules.apply(board, jump);
+			jumps++;
+		}
+		return new long[] { Long.bitCount(board), jumps, System.nanoTime() - started };
+	}
+
+	/**
+	 * The results of one strategy over all starts.
+	 */
+	public static class Standing {
+		private String name; // the strategy
+		private long[] finishes = new long[50]; // finishes[n] = games that left n pegs
+		private int games; // games played
+		private long jumps; // jumps made in all games
+		private long nanos; // time spent in all games
+
+		/**
+		 * Constructs an empty standing.
+		 *
+		 * @param name the strategy
+		 */
+		Standing(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Adds one game.
+		 *
+		 * @param game the pegs left, the jumps made and the nanoseconds taken
+		 */
+		void add(long[] game) {
+			this.finishes[(int) game[0]]++;
+			this.jumps += game[1];
+			this.nanos += game[2];
+			this.games++;
+		}
+
+		/** @return the strategy */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Returns how many games left a number of pegs.
+		 *
+		 * @param pegs the number of pegs
+		 * @return the number of games
+		 */
+		public long finishes(int pegs) {
+			return pegs >= 0 && pegs < this.finishes.length ? this.finishes[pegs] : 0;
+		}
+
+		/** @return the share of games that left one peg */
+		public double winRate() {
+			return this.games == 0 ? 0 : this.finishes[1] / (double) this.games;
+		}
+
+		/** @return the average number of pegs left */
+		public double averagePegs() {
+			long total = 0;
+			for (int pegs = 0; pegs < this.finishes.length; pegs++)
+				total += pegs * this.finishes[pegs];
+			return this.games == 0 ? 0 : total / (double) this.games;
+		}
+
+		/** @return jumps chosen per second of playing time */
+		public double movesPerSecond() {
+			return this.nanos == 0 ? 0 : this.jumps * 1e9 / this.nanos;
+		}
+
+		/**
+		 * Returns the standing in the form
+		 * "greedy  wins 12.0%  avg 3.41 pegs  52000 moves/s  1:24 2:51 3:60".
+		 *
+		 * @return string representation of the standing
+		 */
+		public String toString() {
+			StringBuilder text = new StringBuilder(String.format("%-14s wins %5.1f%%  avg %5.2f pegs  %10.0f moves/s ",
+					this.name, 100 * this.winRate(), this.averagePegs(), this.movesPerSecond()));
+			for (int pegs = 0; pegs < this.finishes.length; pegs++)
+				if (this.finishes[pegs] != 0)
+					text.append(' ').append(pegs).append(':').append(this.finishes[pegs]);
+			return text.toString();
+		}
+	}
+}
@@ -0,0 +1,367 @@
+import com.sun.management.HotSpotDiagnosticMXBean;
+import java.lang.invoke.MethodHandles;
+import java.lang.management.ManagementFactory;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class remembers a small value (0 to 127) for packed positions, like
+ * PositionCache, but in a fixed amount of memory outside the heap. It never
+ * grows, never moves and holds no Java objects, so however long a search
+ * runs and however full the table gets, the garbage collector has nothing
+ * of it to copy or scan. When it is full, new positions take the place of
+ * old ones by a replacement policy, so it forgets rather than grows.
+ *
+ * Each entry is one long: the 49 bits of the position, then 7 bits of
+ * value, 6 bits of depth (how much work the entry stands for, such as the
+ * pegs left) and 2 bits of age. Entries are grouped four to a bucket of 32
+ * bytes, and a position can only be in the bucket its hash picks. As the
+ * position is kept whole, a value is never given to the wrong position.
+ *
+ * Entries are read with volatile loads and changed by compare-and-set, so
+ * any number of threads may use a table with no locks. A store that loses a
+ * race to another thread is simply dropped, as the table may forget
+ * anything.
+ *
+ * The memory is direct buffers of up to 1 GB each, accessed through
+ * VarHandles. It is the size given, rounded down to a power of two
+ * buckets, and is freed when the table is collected.
+ *
+ * Direct buffers together may take no more than -XX:MaxDirectMemorySize,
+ * which is the largest heap (-Xmx) unless set. A table larger than the heap
+ * needs the flag, such as -XX:MaxDirectMemorySize=8g for an 8 GB table
+ * (the native memory of jdk.incubator.foreign counts against the same
+ * limit in JDK 17, so it is no way around it).
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class TranspositionTable {
+	/** Value returned by get for a position that is not in the table */
+	public static final int MISSING = -1;
+
+	/** Largest depth an entry can have */
+	public static final int MAX_DEPTH = 63;
+
+	/** Entries in a bucket */
+	private static final int BUCKET_ENTRIES = 4;
+
+	/** Bytes of a bucket */
+	public static final int BUCKET_BYTES = BUCKET_ENTRIES * 8;
+
+	/** Bits of the packed position */
+	private static final long KEY_MASK = (1L << 49) - 1;
+
+	/** Where the value, depth and age start */
+	private static final int VALUE_SHIFT = 49, DEPTH_SHIFT = 56, AGE_SHIFT = 62;
+
+	/** Buckets in one buffer: 1 GB */
+	private static final int BUFFER_BUCKETS = 1 << 25;
+
+	/** Reads and swaps longs in a buffer */
+	private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class,
+			ByteOrder.nativeOrder());
+
+	/**
+	 * Which entry a new position takes the place of when its bucket is full.
+	 */
+	public enum Policy {
+		/** Keep the deepest entries: a new position only replaces one no deeper */
+		DEPTH_PREFERRED,
+		/** Always store the new position, over the shallowest entry */
+		ALWAYS_REPLACE,
+		/** Replace entries from before the last newSearch first, then as DEPTH_PREFERRED */
+		AGING
+	}
+
+	private ByteBuffer[] buffers; // the buckets, BUFFER_BUCKETS to a buffer
+	private long bucketMask; // number of buckets - 1
+	private Policy policy; // how entries are replaced
+	private volatile int age; // the age stored with new entries, 0 to 3
+
+	private LongAdder hits = new LongAdder(); // gets that found their position
+	private LongAdder misses = new LongAdder(); // gets that did not
+	private LongAdder stores = new LongAdder(); // puts that were stored
+	private LongAdder collisions = new LongAdder(); // puts that found their bucket full of other positions
+	private LongAdder overwrites = new LongAdder(); // entries of other positions replaced
+	private LongAdder rejected = new LongAdder(); // puts the policy or a lost race left out
+
+	/**
+	 * Constructs a table in a fixed amount of memory.
+	 *
+	 * @param bytes  the memory to use, at least one bucket; it is rounded down
+	 *               to a power of two buckets
+	 * @param policy how entries are replaced when a bucket is full
+	 * @throws IllegalArgumentException if the memory is less than a bucket or
+	 *                                  more than -XX:MaxDirectMemorySize
+	 *                                  allows
+	 */
+	public TranspositionTable(long bytes, Policy policy) {
+		if (bytes < BUCKET_BYTES)
+			throw new IllegalArgumentException("A table needs at least " + BUCKET_BYTES + " bytes: " + bytes);
+		long buckets = Long.highestOneBit(bytes / BUCKET_BYTES);
+		long limit = maxDirectMemory();
+		if (buckets * BUCKET_BYTES > limit)
+			throw new IllegalArgumentException("A table of " + buckets * BUCKET_BYTES
+					+ " bytes is more than the direct memory limit of " + limit
+					+ " bytes; raise it with -XX:MaxDirectMemorySize");
+		this.bucketMask = buckets - 1;
+		this.policy = policy;
+		this.buffers = new ByteBuffer[(int) ((buckets + BUFFER_BUCKETS - 1) / BUFFER_BUCKETS)];
+		for (int i = 0; i < this.buffers.length; i++) {
+			int size = (int) Math.min(buckets, BUFFER_BUCKETS) * BUCKET_BYTES;
+			// Compare-and-set needs every long aligned
+			this.buffers[i] = ByteBuffer.allocateDirect(size + 7).alignedSlice(8).limit(size).slice()
+					.order(ByteOrder.nativeOrder());
+		}
+	}
+
+	/**
+	 * Finds the fewest pegs that can be left from a position eight jumps in
+	 * with every policy on a small table and several threads, and prints the
+	 * speed, the counters and the heap in use.
+	 *
+	 * Usage: TranspositionTable [megabytes] [threads]; a table larger than the
+	 * heap needs -XX:MaxDirectMemorySize
+	 *
+	 * @param args command line arguments
+	 * @throws Exception if a search thread fails
+	 */
+	public static void main(String[] args) throws Exception {
+		long megabytes = args.length > 0 ? Long.parseLong(args[0]) : 16;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		// 24 pegs eight jumps in, whose best finish is 2, so the whole tree is searched
+		long board = 0x70e7fcb5c810L;
+		for (Policy policy : Policy.values()) {
+			TranspositionTable table = new TranspositionTable(megabytes << 20, policy);
+			ExecutorService pool = Executors.newFixedThreadPool(threads);
+			long started = System.nanoTime();
+			List<Future<long[]>> searches = new ArrayList<Future<long[]>>();
+			for (int t = 0; t < threads; t++)
+				searches.add(pool.submit(() -> {
+					long[] nodes = new long[1];
+					return new long[] { bestFrom(table, board, nodes), nodes[0] };
+				}));
+			long nodes = 0;
+			long best = 0;
+			try {
+				for (Future<long[]> search : searches) {
+					best = search.get()[0];
+					nodes += search.get()[1];
+				}
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			} finally {
+				pool.shutdown();
+			}
+			double seconds = (System.nanoTime() - started) / 1e9;
+			Runtime runtime = Runtime.getRuntime();
+			System.out.printf("%-15s best %d, %.1f s, %.1f M nodes/s, heap %d MB, %s%n", policy, best, seconds,
+					nodes / seconds / 1e6, (runtime.totalMemory() - runtime.freeMemory()) >> 20, table);
+		}
+	}
+
+	/**
+	 * Returns the most memory direct buffers may take: the value of
+	 * -XX:MaxDirectMemorySize, or the largest heap if it is not set.
+	 *
+	 * @return the limit in bytes, or Long.MAX_VALUE if the JVM does not tell
+	 */
+	private static long maxDirectMemory() {
+		try {
+			HotSpotDiagnosticMXBean vm = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+			long limit = vm == null ? -1 : Long.parseLong(vm.getVMOption("MaxDirectMemorySize").getValue());
+			return limit < 0 ? Long.MAX_VALUE : limit == 0 ? Runtime.getRuntime().maxMemory() : limit;
+		} catch (IllegalArgumentException e) { // no such option, or not a number
+			return Long.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * Returns the value stored for a position.
+	 *
+	 * @param key the packed position, not 0
+	 * @return the value, or MISSING
+	 */
+	public int get(long key) {
+		long bucket = PositionCache.mix(key) & this.bucketMask;
+		ByteBuffer buffer = this.buffers[(int) (bucket / BUFFER_BUCKETS)];
+		int at = (int) (bucket % BUFFER_BUCKETS) * BUCKET_BYTES;
+		for (int slot = 0; slot < BUCKET_ENTRIES; slot++) {
+			long entry = (long) LONGS.getVolatile(buffer, at + slot * 8);
+			if ((entry & KEY_MASK) == key && entry != 0) {
+				this.hits.increment();
+				return (int) (entry >>> VALUE_SHIFT) & 127;
+			}
+		}
+		this.misses.increment();
+		return MISSING;
+	}
+
+	/**
+	 * Stores a value for a position, if the replacement policy lets it in.
+	 *
+	 * @param key   the packed position, not 0
+	 * @param value the value, from 0 to 127
+	 * @param depth how much work the value stands for, from 0 to MAX_DEPTH;
+	 *              deeper entries are kept longer
+	 */
+	public void put(long key, int value, int depth) {
+		long bucket = PositionCache.mix(key) & this.bucketMask;
+		ByteBuffer buffer = this.buffers[(int) (bucket / BUFFER_BUCKETS)];
+		int at = (int) (bucket % BUFFER_BUCKETS) * BUCKET_BYTES;
+		int age = this.age;
+		long entry = key | (long) value << VALUE_SHIFT | (long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT
+				| (long) age << AGE_SHIFT;
+
+		// Take the position's own entry or an empty one if there is one, or else pick a victim
+		int victim = -1;
+		long victimEntry = 0;
+		long victimRank = Long.MAX_VALUE;
+		for (int slot = 0; slot < BUCKET_ENTRIES; slot++) {
+			long found = (long) LONGS.getVolatile(buffer, at + slot * 8);
+			if (found == 0 || (found & KEY_MASK) == key) {
+				this.swap(buffer, at + slot * 8, found, entry, false);
+				return;
+			}
+			long rank = this.rank(found, age);
+			if (rank < victimRank) {
+				victim = slot;
+				victimEntry = found;
+				victimRank = rank;
+			}
+		}
+
+		this.collisions.increment();
+		boolean stale = this.policy == Policy.AGING && (int) (victimEntry >>> AGE_SHIFT) != age;
+		if (this.policy == Policy.ALWAYS_REPLACE || stale || (entry >>> DEPTH_SHIFT & MAX_DEPTH) >= (victimEntry
+				>>> DEPTH_SHIFT & MAX_DEPTH))
+			this.swap(buffer, at + victim * 8, victimEntry, entry, true);
+		else
+			this.rejected.increment();
+	}
+
+	/**
+	 * Starts a new search: entries stored from now on are newer than every
+	 * entry stored before, which the AGING policy replaces first.
+	 */
+	public void newSearch() {
+		this.age = (this.age + 1) & 3;
+	}
+
+	/** @return the memory the table uses, in bytes */
+	public long byteSize() {
+		return (this.bucketMask + 1) * BUCKET_BYTES;
+	}
+
+	/** @return the number of gets that found their position */
+	public long getHits() {
+		return this.hits.sum();
+	}
+
+	/** @return the number of gets that did not find their position */
+	public long getMisses() {
+		return this.misses.sum();
+	}
+
+	/** @return the number of puts that were stored */
+	public long getStores() {
+		return this.stores.sum();
+	}
+
+	/** @return the number of puts that found their bucket full of other positions */
+	public long getCollisions() {
+		return this.collisions.sum();
+	}
+
+	/** @return the number of entries replaced by other positions */
+	public long getOverwrites() {
+		return this.overwrites.sum();
+	}
+
+	/** @return the number of puts left out by the policy or a lost race */
+	public long getRejected() {
+		return this.rejected.sum();
+	}
+
+	/**
+	 * Returns the counters in the form "16 MB, 1200 hits, 300 misses, 900
+	 * stores, 40 collisions, 30 overwrites, 10 rejected".
+	 *
+	 * @return string representation of the table
+	 */
+	public String toString() {
+		return (this.byteSize() >> 20) + " MB, " + this.getHits() + " hits, " + this.getMisses() + " misses, "
+				+ this.getStores() + " stores, " + this.getCollisions() + " collisions, " + this.getOverwrites()
+				+ " overwrites, " + this.getRejected() + " rejected";
+	}
+
+	/**
+	 * Swaps one entry for another unless another thread changed it first.
+	 *
+	 * @param buffer    the buffer of the bucket
+	 * @param offset    the byte offset of the entry
+	 * @param expected  the entry as it was read
+	 * @param entry     the new entry
+	 * @param overwrite true if the old entry belongs to another position
+	 */
+	private void swap(ByteBuffer buffer, int offset, long expected, long entry, boolean overwrite) {
+		if (LONGS.compareAndSet(buffer, offset, expected, entry)) {
+			this.stores.increment();
+			if (overwrite)
+				this.overwrites.increment();
+		} else {
+			this.rejected.increment();
+		}
+	}
+
+	/**
+	 * Ranks an entry as a victim; the lowest is replaced first.
+	 *
+	 * @param entry an entry of another position
+	 * @param age   the current age
+	 * @return the rank
+	 */
+	private long rank(long entry, int age) {
+		long depth = entry >>> DEPTH_SHIFT & MAX_DEPTH;
+		if (this.policy == Policy.AGING && (int) (entry >>> AGE_SHIFT) != age)
+			return depth - (MAX_DEPTH + 1);
+		return depth;
+	}
+
+	/**
+	 * Works out the fewest pegs that can be left below a position, using a
+	 * table for the positions searched before.
+	 *
+	 * @param table the table
+	 * @param board the packed position
+	 * @param nodes counts the positions visited
+	 * @return the fewest pegs that can be left
+	 */
+	private static int bestFrom(TranspositionTable table, long board, long[] nodes) {
+		nodes[0]++;
+		int pegs = PackedBoard.pegCount(board);
+		if (pegs <= 1)
+			return pegs;
+		long key = Symmetry.canonical(board);
+		int known = table.get(key);
+		if (known != MISSING)
+			return known;
+
+		int best = pegs;
+		for (int jump = 0; jump < PackedBoard.JUMP_COUNT && best > 1; jump++)
+			if (PackedBoard.isLegal(board, jump))
+				best = Math.min(best, bestFrom(table, PackedBoard.apply(board, jump), nodes));
+		// Positions with more pegs stand for bigger searches
+		table.put(key, best, pegs);
+		return best;
+	}
+}
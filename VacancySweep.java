@@ -0,0 +1,298 @@
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class answers the classic question for the English board: starting
+ * with a single empty hole, on which holes can the last peg finish? Every
+ * one of the 33 starts is tried against every finish in the same position
+ * class (see PegSolver.positionClass); finishes in other classes are
+ * impossible and are not searched.
+ *
+ * The starts run in parallel and share one cache of positions already
+ * decided for a target. Its keys are reduced by symmetry together with the
+ * target (see Symmetry.canonicalWith), so a start that is a mirror image or
+ * rotation of another is answered almost entirely from the cache.
+ *
+ * The sweep is also the end-to-end benchmark of the engine: it reports the
+ * time, nodes and cache size when it finishes. Its progress can be followed
+ * while it runs (see SearchProgress); the share done is the share of starts
+ * finished, and the best answer the solvable pairs found so far.
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class VacancySweep {
+	/** Cache value of a position that cannot finish on its target */
+	private static final int NO = 0;
+
+	/** Cache value of a position that can finish on its target */
+	private static final int YES = 1;
+
+	/** Bit indices of the 33 holes, in row order */
+	private static final int[] HOLES = new int[PackedBoard.pegCount(PackedBoard.VALID)];
+
+	/** Pagoda functions for each hole, by bit index */
+	private static final Pagoda[] PAGODAS = new Pagoda[49];
+
+	static {
+		int count = 0;
+		for (int index = 0; index < 49; index++) {
+			if ((PackedBoard.VALID & 1L << index) != 0) {
+				HOLES[count++] = index;
+				PAGODAS[index] = new Pagoda(index);
+			}
+		}
+	}
+
+	private PositionCache decided; // positions with a target, YES or NO
+	private long[] finishes = new long[49]; // finishes[start] = bits of the reachable finishes
+	private long[] nanos = new long[49]; // time spent on each start
+	private SearchProgress progress; // where progress is reported, or null
+	private AtomicInteger startsDone = new AtomicInteger(); // starts finished in this run
+	private AtomicInteger pairsFound = new AtomicInteger(); // solvable pairs found in this run
+	private long runNodes; // EngineMetrics.nodes() when the run started
+
+	/**
+	 * Constructs a sweep with an empty cache.
+	 */
+	public VacancySweep() {
+		this.decided = new PositionCache();
+	}
+
+	/**
+	 * Runs the sweep and prints the results matrix.
+	 *
+	 * Usage: VacancySweep [threads] [-o file] [-progress]
+	 *
+	 * @param args command line arguments
+	 * @throws Exception if the sweep fails or the matrix cannot be written
+	 */
+	public static void main(String[] args) throws Exception {
+		int threads = Runtime.getRuntime().availableProcessors();
+		String output = null;
+		boolean progress = false;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-o"))
+				output = args[++i];
+			else if (args[i].equals("-progress"))
+				progress = true;
+			else
+				threads = Integer.parseInt(args[i]);
+		}
+
+		VacancySweep sweep = new VacancySweep();
+		long started = System.nanoTime();
+		try (SearchProgress publisher = progress ? new SearchProgress("sweep", 1000) : null) {
+			if (publisher != null) {
+				publisher.subscribe(SearchProgress.printer(System.err));
+				sweep.setProgress(publisher);
+			}
+			sweep.run(threads);
+		}
+		double seconds = (System.nanoTime() - started) / 1e9;
+
+		if (output == null) {
+			PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+			sweep.printMatrix(out);
+			out.flush();
+		} else {
+			try (PrintWriter out = new PrintWriter(
+					new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8))) {
+				sweep.printMatrix(out);
+			}
+		}
+
+		System.err.printf("%d solvable pairs, %d threads, %.2f s, %d nodes (%.0f per second), %d cached positions%n",
+				sweep.solvablePairs(), threads, seconds, EngineMetrics.nodes(), EngineMetrics.nodes() / seconds,
+				sweep.decided.size());
+	}
+
+	/**
+	 * Works out the reachable finishes of every single vacancy start.
+	 *
+	 * @param threads the number of threads to use
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws ExecutionException   if a search fails
+	 */
+	public void run(int threads) throws InterruptedException, ExecutionException {
+		this.startsDone.set(0);
+		this.pairsFound.set(0);
+		this.runNodes = EngineMetrics.nodes();
+		if (this.progress != null)
+			this.progress.start();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> tasks = new ArrayList<Future<?>>();
+			for (int hole : HOLES)
+				tasks.add(pool.submit(() -> this.sweepStart(hole)));
+			for (Future<?> task : tasks)
+				task.get();
+			if (this.progress != null)
+				this.progress.finish(EngineMetrics.nodes() - this.runNodes, this.pairsFound.get());
+		} finally {
+			pool.shutdown();
+			pool.awaitTermination(1, TimeUnit.MINUTES);
+		}
+	}
+
+	/**
+	 * Sets where the progress of each run is reported.
+	 *
+	 * @param progress the publisher, or null for none
+	 */
+	public void setProgress(SearchProgress progress) {
+		this.progress = progress;
+	}
+
+	/**
+	 * Returns the finishes that can be reached from a single vacancy start.
+	 * Only valid after run.
+	 *
+	 * @param vacancy the bit index of the empty hole
+	 * @return packed bits of the holes the last peg can finish on
+	 */
+	public long finishesFrom(int vacancy) {
+		return this.finishes[vacancy];
+	}
+
+	/** @return the number of (start, finish) pairs that can be solved */
+	public int solvablePairs() {
+		int pairs = 0;
+		for (int hole : HOLES)
+			pairs += Long.bitCount(this.finishes[hole]);
+		return pairs;
+	}
+
+	/**
+	 * Prints one line per start hole, marking the finishes: 'X' if the last
+	 * peg can finish there, '-' if it cannot though the class allows it, and
+	 * '.' if the class rules it out. Columns are the finish holes in row order.
+	 *
+	 * @param out where to print the matrix
+	 */
+	public void printMatrix(PrintWriter out) {
+		out.print("start\\finish ");
+		for (int hole : HOLES)
+			out.print(" " + hole / PackedBoard.SIZE + hole % PackedBoard.SIZE);
+		out.println();
+		for (int start : HOLES) {
+			long board = PackedBoard.VALID & ~(1L << start);
+			out.printf("(%d,%d)%7s", start / PackedBoard.SIZE, start % PackedBoard.SIZE, "");
+			for (int finish : HOLES) {
+				char mark;
+				if ((this.finishes[start] & 1L << finish) != 0)
+					mark = 'X';
+				else if (PegSolver.positionClass(board) == PegSolver.positionClass(1L << finish))
+					mark = '-';
+				else
+					mark = '.';
+				out.print("  " + mark);
+			}
+			out.printf("   %.2f s%n", this.nanos[start] / 1e9);
+		}
+	}
+
+	/**
+	 * Tries every possible finish of one start.
+	 *
+	 * @param vacancy the bit index of the empty hole
+	 */
+	private void sweepStart(int vacancy) {
+		long started = System.nanoTime();
+		long board = PackedBoard.VALID & ~(1L << vacancy);
+		Search search = new Search();
+		long reachable = 0;
+		for (int finish : HOLES) {
+			if (PegSolver.positionClass(board) == PegSolver.positionClass(1L << finish)
+					&& search.canFinish(board, finish))
+				reachable |= 1L << finish;
+		}
+		this.finishes[vacancy] = reachable;
+		this.nanos[vacancy] = System.nanoTime() - started;
+		int pairs = this.pairsFound.addAndGet(Long.bitCount(reachable));
+		int done = this.startsDone.incrementAndGet();
+		if (this.progress != null)
+			this.progress.report(EngineMetrics.nodes() - this.runNodes, pairs, done / (double) HOLES.length);
+	}
+
+	/**
+	 * One thread's search, with work counters of its own.
+	 */
+	private class Search {
+		private int target; // bit index of the target hole
+		private Pagoda pagoda; // pagoda functions for the target
+
+		private long nodes;
+		private long hits;
+		private long misses;
+		private long[] prunes = new long[EngineMetrics.Prune.values().length];
+
+		/**
+		 * Determines if a position can finish with one peg on a hole.
+		 *
+		 * @param board  the packed position
+		 * @param target the bit index of the hole
+		 * @return true if it can
+		 */
+		boolean canFinish(long board, int target) {
+			long started = System.nanoTime();
+			this.target = target;
+			this.pagoda = PAGODAS[target];
+			this.nodes = 0;
+			this.hits = 0;
+			this.misses = 0;
+			Arrays.fill(this.prunes, 0);
+
+			boolean result = this.search(board);
+			EngineMetrics.recordSearch("sweep", started, this.nodes, this.hits, this.misses, this.prunes, null,
+					result ? 1 : 0);
+			return result;
+		}
+
+		/**
+		 * Searches below a position. Positions decided either way are cached
+		 * so other starts and other threads can use them.
+		 *
+		 * @param board the packed position
+		 * @return true if it can finish on the target
+		 */
+		private boolean search(long board) {
+			this.nodes++;
+			if (PackedBoard.pegCount(board) == 1)
+				return board == 1L << this.target;
+
+			if (this.pagoda.rulesOut(board)) {
+				this.prunes[EngineMetrics.Prune.PAGODA.ordinal()]++;
+				return false;
+			}
+
+			long key = Symmetry.canonicalWith(board, this.target);
+			int known = VacancySweep.this.decided.get(key);
+			if (known != PositionCache.MISSING) {
+				this.hits++;
+				this.prunes[EngineMetrics.Prune.CACHE.ordinal()]++;
+				return known == YES;
+			}
+			this.misses++;
+
+			boolean found = false;
+			for (int jump = 0; jump < PackedBoard.JUMP_COUNT && !found; jump++)
+				if (PackedBoard.isLegal(board, jump))
+					found = this.search(PackedBoard.apply(board, jump));
+
+			VacancySweep.this.decided.put(key, found ? YES : NO);
+			return found;
+		}
+	}
+}
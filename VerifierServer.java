@@ -0,0 +1,177 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class serves the solution verifier over HTTP on the local machine.
+ *
+ * POST /verify checks a batch of solutions and answers with one line per
+ * solution: "VALID n" when every jump was legal and n pegs are left,
+ * "INVALID k" when jump k was illegal, "EMPTY" when the start has no pegs
+ * on the board, or "MALFORMED" when a text line is not a list of jumps on
+ * the board. The body is either
+ * <ul>
+ * <li>text, one solution per line from the standard start, each jump written
+ * as "fromRow fromCol toRow toCol", or</li>
+ * <li>application/octet-stream, a sequence of game records (see
+ * GameRecord)</li>
+ * </ul>
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public class VerifierServer {
+	private HttpServer server; // the HTTP server
+	private SolutionVerifier verifier; // checks binary batches in parallel
+	private ExecutorService handlers; // threads that answer requests
+
+	/**
+	 * Constructs a server listening on the loopback address.
+	 *
+	 * @param port the port to listen on, or 0 for any free port
+	 * @throws IOException if the port cannot be opened
+	 */
+	public VerifierServer(int port) throws IOException {
+		this.verifier = new SolutionVerifier();
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		this.server.createContext("/verify", this::handle);
+		this.handlers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		this.server.setExecutor(this.handlers);
+	}
+
+	/**
+	 * Starts a server on the port given on the command line (default 8080).
+	 *
+	 * @param args command line arguments: an optional port number
+	 * @throws IOException if the port cannot be opened
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+		VerifierServer server = new VerifierServer(port);
+		server.start();
+		System.out.println("Verifier listening on http://localhost:" + server.getPort() + "/verify");
+	}
+
+	/**
+	 * Starts answering requests.
+	 */
+	public void start() {
+		this.server.start();
+	}
+
+	/**
+	 * Stops the server.
+	 */
+	public void stop() {
+		this.server.stop(0);
+		this.handlers.shutdown();
+		this.verifier.close();
+	}
+
+	/** @return the port the server is listening on */
+	public int getPort() {
+		return this.server.getAddress().getPort();
+	}
+
+	/**
+	 * Answers one request.
+	 *
+	 * @param exchange the request and its response
+	 * @throws IOException if the request cannot be read or answered
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			if (!exchange.getRequestMethod().equals("POST")) {
+				exchange.sendResponseHeaders(405, -1);
+				return;
+			}
+
+			StringBuilder answer = new StringBuilder();
+			String type = exchange.getRequestHeaders().getFirst("Content-Type");
+			try (InputStream body = exchange.getRequestBody()) {
+				if (type != null && type.startsWith("application/octet-stream"))
+					this.verifyRecords(body, answer);
+				else
+					this.verifyText(body, answer);
+			} catch (IOException e) {
+				byte[] message = (e.getMessage() + "\n").getBytes(StandardCharsets.UTF_8);
+				exchange.sendResponseHeaders(400, message.length);
+				exchange.getResponseBody().write(message);
+				return;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				exchange.sendResponseHeaders(503, -1);
+				return;
+			}
+
+			byte[] bytes = answer.toString().getBytes(StandardCharsets.US_ASCII);
+			exchange.getResponseHeaders().set("Content-Type", "text/plain");
+			exchange.sendResponseHeaders(200, bytes.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(bytes);
+			}
+		}
+	}
+
+	/**
+	 * Checks a body of text solutions, one per line.
+	 *
+	 * @param body   the request body
+	 * @param answer where the result lines are added
+	 * @throws IOException if the body cannot be read
+	 */
+	private void verifyText(InputStream body, StringBuilder answer) throws IOException {
+		String text = new String(body.readAllBytes(), StandardCharsets.US_ASCII);
+		byte[] moves = new byte[PackedBoard.pegCount(PackedBoard.START)];
+		int lineStart = 0;
+		while (lineStart < text.length()) {
+			int lineEnd = text.indexOf('\n', lineStart);
+			if (lineEnd < 0)
+				lineEnd = text.length();
+
+			// Skip blank lines
+			if (lineEnd > lineStart && !text.substring(lineStart, lineEnd).isBlank()) {
+				appendResult(answer, SolutionVerifier.verifyText(text, lineStart, lineEnd, moves));
+			}
+			lineStart = lineEnd + 1;
+		}
+	}
+
+	/**
+	 * Checks a body of game records in parallel batches.
+	 *
+	 * @param body   the request body
+	 * @param answer where the result lines are added
+	 * @throws IOException          if the body is not a sequence of records
+	 * @throws InterruptedException if interrupted while waiting for results
+	 */
+	private void verifyRecords(InputStream body, StringBuilder answer) throws IOException, InterruptedException {
+		GameRecordReader reader = new GameRecordReader(Channels.newChannel(body));
+		this.verifier.verifyStream(reader, (index, result) -> appendResult(answer, result));
+	}
+
+	/**
+	 * Adds one result line to an answer.
+	 *
+	 * @param answer the answer being built
+	 * @param result the result of a check
+	 */
+	private static void appendResult(StringBuilder answer, int result) {
+		if (result == SolutionVerifier.MALFORMED)
+			answer.append("MALFORMED\n");
+		else if (result == SolutionVerifier.EMPTY)
+			answer.append("EMPTY\n");
+		else if (result > 0)
+			answer.append("VALID ").append(result).append('\n');
+		else
+			answer.append("INVALID ").append(-result).append('\n');
+	}
+}
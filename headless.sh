@@ -0,0 +1,46 @@
+#!/bin/sh
+# Builds and runs the headless launcher (PegSolitaireCli) for scripts.
+#
+#   ./headless.sh build          compile, write the jar and the class-data archive
+#   ./headless.sh batch [n] [r]  time the BoardBatch kernels on n boards, r rounds
+#   ./headless.sh <command> ...  run a command, such as: solve 3 3 | best | check "..." | verify file...
+#
+# The build puts everything under build/headless. The AppCDS archive, trained on a solve,
+# saves loading and verifying the engine classes. Flight Recorder is never started on
+# this path (see EngineMetrics), as setting it up would cost more than the whole run.
+# Needs JDK 16 or later.
+
+set -e
+cd "$(dirname "$0")"
+OUT=build/headless
+CLASSES=$OUT/classes
+JAR=$OUT/pegsolitaire-cli.jar
+ARCHIVE=$OUT/pegsolitaire.jsa
+
+if [ "$1" = "build" ]; then
+	rm -rf "$OUT"
+	mkdir -p "$CLASSES"
+	javac -d "$CLASSES" *.java
+	# The Vector API kernel of BoardBatch needs the incubator module
+	javac --add-modules jdk.incubator.vector -cp "$CLASSES" -d "$CLASSES" vector/*.java
+	# Class-data archives only take classes from jar files
+	jar cf "$JAR" -C "$CLASSES" .
+
+	# Train the archive on a solve, which loads the engine classes the commands share
+	java -XX:ArchiveClassesAtExit="$ARCHIVE" -cp "$JAR" PegSolitaireCli solve 3 3 > /dev/null
+	echo "Built $JAR and $ARCHIVE"
+	exit 0
+fi
+
+# Only BoardBatch uses the Vector API; the commands run without the module, which
+# would cost them start-up time and a warning on every run
+if [ "$1" = "batch" ]; then
+	shift
+	exec java --add-modules jdk.incubator.vector -cp "$JAR" BoardBatch "$@"
+fi
+
+if [ ! -f "$ARCHIVE" ]; then
+	echo "Run ./headless.sh build first" >&2
+	exit 2
+fi
+exec java -XX:SharedArchiveFile="$ARCHIVE" -cp "$JAR" PegSolitaireCli "$@"
@@ -0,0 +1,109 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * This class is the Vector API kernel of BoardBatch. Each step works on as
+ * many boards as the processor's widest vector holds longs (four with AVX2,
+ * eight with AVX-512), with the same shifts and masks as the scalar kernel.
+ *
+ * The incubator Vector API of JDK 17 has no lane-wise bit count, so bits
+ * are counted by adding neighbouring bits, then pairs, then nibbles, and a
+ * multiply sums the bytes. Move counts are left to the scalar kernel, which
+ * was faster at them.
+ *
+ * This file needs --add-modules jdk.incubator.vector to compile and to run,
+ * which is why it lives apart from the other classes (see headless.sh).
+ *
+ * @author Aarav Goyal
+ * @since October 19, 2026
+ */
+public final class BoardBatchVector implements BoardBatch.Kernel {
+	/** The widest vector of longs the processor has */
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+	/** Vectors of ints with as many lanes as LONGS */
+	private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class,
+			VectorShape.forBitSize(Math.max(64, LONGS.vectorBitSize() / 2)));
+
+	private static final long ONES = 0x5555555555555555L;
+	private static final long TWOS = 0x3333333333333333L;
+	private static final long NIBBLES = 0x0F0F0F0F0F0F0F0FL;
+	private static final long BYTES = 0x0101010101010101L;
+
+	/**
+	 * Constructs the kernel.
+	 *
+	 * @throws UnsupportedOperationException if vectors hold only one long
+	 */
+	public BoardBatchVector() {
+		if (LONGS.length() < 2 || INTS.length() != LONGS.length())
+			throw new UnsupportedOperationException("No vectors of two or more longs");
+	}
+
+	public void pegCounts(long[] boards, int[] pegs, int count) {
+		int i = 0;
+		for (int bound = LONGS.loopBound(count); i < bound; i += LONGS.length()) {
+			LongVector board = LongVector.fromArray(LONGS, boards, i);
+			((IntVector) sumBytes(byteCounts(board)).castShape(INTS, 0)).intoArray(pegs, i);
+		}
+		for (; i < count; i++)
+			pegs[i] = Long.bitCount(boards[i]);
+	}
+
+	/*
+	 * Counting the four jump masks lane by lane took longer than the scalar
+	 * loop, whose bit counts are single instructions, so it stays scalar.
+	 */
+	public void moveCounts(long[] boards, int[] moves, int count) {
+		BoardBatch.SCALAR.moveCounts(boards, moves, count);
+	}
+
+	public void hasMoves(long[] boards, boolean[] open, int count) {
+		int i = 0;
+		for (int bound = LONGS.loopBound(count); i < bound; i += LONGS.length()) {
+			LongVector board = LongVector.fromArray(LONGS, boards, i);
+			LongVector holes = board.not().and(PackedBoard.VALID);
+			LongVector pairsRight = board.and(board.lanewise(VectorOperators.LSHR, 1));
+			LongVector pairsDown = board.and(board.lanewise(VectorOperators.LSHR, PackedBoard.SIZE));
+			LongVector bits = pairsRight.and(holes.lanewise(VectorOperators.LSHR, 2)).and(BoardBatch.RIGHT_FROM)
+					.or(holes.and(pairsRight.lanewise(VectorOperators.LSHR, 1)).and(BoardBatch.LEFT_TO))
+					.or(pairsDown.and(holes.lanewise(VectorOperators.LSHR, 2 * PackedBoard.SIZE))
+							.and(BoardBatch.DOWN_FROM))
+					.or(holes.and(pairsDown.lanewise(VectorOperators.LSHR, PackedBoard.SIZE))
+							.and(BoardBatch.UP_TO));
+			bits.compare(VectorOperators.NE, 0).intoArray(open, i);
+		}
+		for (; i < count; i++)
+			open[i] = BoardBatch.moveCount(boards[i]) != 0;
+	}
+
+	/** @return the name of the kernel and its vector size */
+	public String toString() {
+		return "vector, " + LONGS.length() + " longs of " + LONGS.vectorBitSize() / LONGS.length() + " bits";
+	}
+
+	/**
+	 * Counts the bits of each byte of each lane.
+	 *
+	 * @param x the lanes
+	 * @return the count of each byte, in that byte
+	 */
+	private static LongVector byteCounts(LongVector x) {
+		x = x.sub(x.lanewise(VectorOperators.LSHR, 1).and(ONES));
+		x = x.and(TWOS).add(x.lanewise(VectorOperators.LSHR, 2).and(TWOS));
+		return x.add(x.lanewise(VectorOperators.LSHR, 4)).and(NIBBLES);
+	}
+
+	/**
+	 * Adds up the bytes of each lane.
+	 *
+	 * @param bytes the lanes
+	 * @return the sum of each lane
+	 */
+	private static LongVector sumBytes(LongVector bytes) {
+		return bytes.mul(BYTES).lanewise(VectorOperators.LSHR, 56);
+	}
+}